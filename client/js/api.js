@@ -35,9 +35,14 @@ class ApiService {
     // Método genérico para requests
     async request(url, options = {}) {
         try {
+            const headers = this.getHeaders(options.auth !== false);
+            if (options.body instanceof FormData) {
+                // El navegador pone multipart/form-data con su boundary
+                delete headers['Content-Type'];
+            }
             const response = await fetch(url, {
                 ...options,
-                headers: this.getHeaders(options.auth !== false)
+                headers
             });
 
             // Si token inválido (401) redirigir a login
@@ -107,6 +112,14 @@ class ApiService {
         });
     }
 
+    // POST multipart (archivos)
+    async upload(url, formData) {
+        return this.request(url, {
+            method: 'POST',
+            body: formData
+        });
+    }
+
     // DELETE request
     async delete(url) {
         return this.request(url, { method: 'DELETE' });
@@ -128,7 +141,8 @@ class ApiService {
             userId: authResponse.userId,
             username: authResponse.username,
             name: authResponse.name,
-            role: authResponse.role
+            role: authResponse.role,
+            hotelId: authResponse.hotelId
         }));
     }
 
@@ -23,9 +23,13 @@ export const ENDPOINTS = {
     ROOMS_BY_BUILDING: (bid) => `${API_URL}/rooms/building/${bid}`,
     ROOMS_BY_STATUS: (status) => `${API_URL}/rooms/status/${status}`,
     ROOMS_BY_MAID: (maidId) => `${API_URL}/rooms/maid/${maidId}`,  // Habitaciones asignadas a mucama
+    ROOMS_WORKLIST: (maidId) => `${API_URL}/rooms/maid/${maidId}/worklist`, // Lista de trabajo compacta
     ROOM_STATUS: (id) => `${API_URL}/rooms/${id}/status`,       // PATCH - Actualizar estado
     ROOM_ASSIGN: (id) => `${API_URL}/rooms/${id}/assign`,       // PATCH - Reasignar habitación
+    ROOMS_BATCH: `${API_URL}/rooms/batch`,                      // PATCH - Cambios masivos de estado/asignación
+    ROOMS_AUTO_ASSIGN: `${API_URL}/rooms/auto-assign`,          // POST - Reparto automático de habitaciones sucias (?hotelId=)
     ROOMS_RESET: `${API_URL}/rooms/reset`,                      // POST - Reinicio manual diario
+    ROOMS_PAGE: `${API_URL}/rooms/page`,                        // GET - Paginado por cursor (?status=&buildingId=&floor=&maidId=&cursor=&limit=)
     
     // IncidentController.java - /api/incidents
     INCIDENTS: `${API_URL}/incidents`,        // GET/POST - Todas las incidencias
@@ -34,6 +38,18 @@ export const ENDPOINTS = {
     INCIDENTS_BY_MAID: (mid) => `${API_URL}/incidents/maid/${mid}`,
     INCIDENTS_BY_STATUS: (status) => `${API_URL}/incidents/status/${status}`,
     INCIDENT_RESOLVE: (id) => `${API_URL}/incidents/${id}/resolve`, // PATCH - Resolver incidencia
+    INCIDENT_PHOTOS: (id) => `${API_URL}/incidents/${id}/photos`,   // POST - Subir fotos (multipart, campo "files")
+    INCIDENTS_PAGE: `${API_URL}/incidents/page`,                // GET - Paginado por cursor (?status=&roomId=&buildingId=&cursor=&limit=)
+    
+    // DashboardController.java - /api/dashboard
+    DASHBOARD_SUMMARY: `${API_URL}/dashboard/summary`,           // GET - Conteos en memoria (?hotelId=)
+    
+    // PhotoController.java - /api/photos
+    PHOTO_URL: (path) => `${API_URL}${path.replace(/^\/api/, '')}`,  // GET - Foto por hash (path = photo.url)
+    
+    // SyncController.java - /api/sync
+    SYNC_CHANGES: `${API_URL}/sync/changes`,                     // GET - Cambios desde un token (?since=&limit=)
+    SYNC_EVENTS: `${API_URL}/sync/events`,                       // GET - Eventos WebSocket perdidos (?epoch=&since=)
     
     // UserController.java - /api/users
     USERS: `${API_URL}/users`,                // GET/POST - Todos los usuarios
@@ -42,6 +58,7 @@ export const ENDPOINTS = {
     USERS_BY_HOTEL: (hid) => `${API_URL}/users/hotel/${hid}`,  // GET - Por hotel
     USERS_ACTIVE: `${API_URL}/users/active`,  // GET - Solo activos
     USER_ACTIVATE: (id) => `${API_URL}/users/${id}/activate`,  // PATCH - Activar/desactivar
+    USERS_PAGE: `${API_URL}/users/page`,      // GET - Paginado por cursor (?role=&hotelId=&active=&cursor=&limit=)
 };
 
 // Estados de habitaciones (Room.RoomStatus enum en backend)
@@ -76,7 +93,8 @@ export const USER_ROLES = {
 export const STORAGE_KEYS = {
     AUTH_TOKEN: 'hotel_auth_token',
     USER_DATA: 'hotel_user_data',
-    OFFLINE_QUEUE: 'hotel_offline_queue'
+    OFFLINE_QUEUE: 'hotel_offline_queue',
+    SYNC_TOKEN: 'hotel_sync_token'
 };
 
 // Configuración PouchDB (no implementado en backend, solo frontend offline)
@@ -179,10 +179,14 @@ export const POUCHDB_CONFIG = {
 
 // Configuración de WebSocket
 export const WEBSOCKET_CONFIG = {
+    // Particionados por hotel (StompTopics.java); el servidor rechaza los de otro hotel
     TOPICS: {
-        ROOMS: '/topic/rooms',
-        INCIDENTS: '/topic/incidents',
-        NOTIFICATIONS: '/topic/notifications'
+        ROOMS: (hotelId) => `/topic/hotels/${hotelId}/rooms`,
+        BUILDING_ROOMS: (hotelId, buildingId) => `/topic/hotels/${hotelId}/buildings/${buildingId}/rooms`,
+        FLOOR_ROOMS: (hotelId, buildingId, floor) => `/topic/hotels/${hotelId}/buildings/${buildingId}/floors/${floor}/rooms`,
+        INCIDENTS: (hotelId) => `/topic/hotels/${hotelId}/incidents`,
+        NOTIFICATIONS: (hotelId) => `/topic/hotels/${hotelId}/notifications`,
+        WORKLIST: () => '/user/queue/worklist'   // Solo las habitaciones del usuario (por su JWT)
     },
     MAX_RECONNECT_ATTEMPTS: 5,
     RECONNECT_DELAY: 3000
@@ -0,0 +1,114 @@
+/* ======================================
+   REALTIME-EVENTS.JS - Eventos WebSocket (esquema v2)
+   Formato: { v, type, ts, actorId, body }
+   body trae solo el id, los campos que cambiaron y la versión
+   (updatedAt en milisegundos); el texto para mostrar se arma aquí
+   ====================================== */
+
+// Versión local de una habitación: la del último evento aplicado o su updatedAt
+function localVersion(room) {
+    if (room._version != null) return room._version;
+    const parsed = room.updatedAt ? Date.parse(room.updatedAt) : NaN;
+    return Number.isNaN(parsed) ? 0 : parsed;
+}
+
+/**
+ * Aplica un RoomDelta sobre la habitación local (se modifica en su lugar).
+ * Devuelve false si el cambio es más viejo que la copia local.
+ */
+export function applyRoomDelta(room, delta) {
+    if (!room || !delta) return false;
+    if (delta.version != null && delta.version < localVersion(room)) {
+        return false;
+    }
+    if (delta.number != null) room.number = delta.number;
+    if (delta.floor != null) room.floor = delta.floor;
+    if (delta.status != null) {
+        // Bloqueada por una incidencia abierta: se conserva el bloqueo y se guarda el estado real
+        if (room.originalStatus !== undefined) room.originalStatus = delta.status;
+        else room.status = delta.status;
+    }
+    if (delta.buildingId != null) {
+        room.building = { ...room.building, id: delta.buildingId, name: delta.buildingName ?? room.building?.name };
+    }
+    if (delta.unassigned) {
+        room.assignedTo = null;
+    } else if (delta.assignedToId != null && room.assignedTo?.id !== delta.assignedToId) {
+        room.assignedTo = { id: delta.assignedToId };
+    }
+    if (delta.version != null) {
+        room._version = delta.version;
+        room.updatedAt = new Date(delta.version).toISOString();
+    }
+    return true;
+}
+
+/**
+ * Aplica un elemento de la lista de trabajo (/user/queue/worklist) sobre la lista local.
+ * Devuelve 'added', 'removed', 'updated' o null si no cambió nada.
+ */
+export function applyWorklistItem(rooms, item, userId) {
+    const index = rooms.findIndex(r => r.id === item.id);
+    if (item.removed) {
+        if (index === -1 || (item.version != null && item.version < localVersion(rooms[index]))) return null;
+        rooms.splice(index, 1);
+        return 'removed';
+    }
+    if (index === -1) {
+        // Solo una asignación trae la habitación completa
+        if (item.number == null) return null;
+        const room = { id: item.id, assignedTo: { id: userId } };
+        applyRoomDelta(room, item);
+        rooms.push(room);
+        return 'added';
+    }
+    return applyRoomDelta(rooms[index], item) ? 'updated' : null;
+}
+
+/**
+ * Habitaciones que trae el evento, como lista de deltas (vacía si no es de habitaciones).
+ */
+export function roomDeltas(event) {
+    const body = event?.body;
+    if (!body) return [];
+    if (event.type === 'ROOMS_BATCH_UPDATED') return body.rooms || [];
+    if (event.type?.startsWith('ROOM_')) return [body];
+    return [];
+}
+
+/**
+ * Texto para mostrar al usuario según el tipo de evento.
+ */
+export function describeEvent(event) {
+    const body = event?.body || {};
+    switch (event?.type) {
+        case 'ROOM_UPDATED':
+            return `Habitación ${body.number ?? body.id} actualizada`;
+        case 'ROOM_STATUS_CHANGED':
+            return `Habitación ${body.id} cambió a ${body.status}`;
+        case 'ROOM_REASSIGNED':
+            return body.unassigned ? `Habitación ${body.id} sin asignar` : `Habitación ${body.id} reasignada`;
+        case 'ROOMS_BATCH_UPDATED':
+            return `${(body.rooms || []).length} habitaciones actualizadas`;
+        case 'ROOMS_AUTO_ASSIGNED':
+            return 'Asignación automática de habitaciones';
+        case 'DAILY_RESET':
+            return `Reinicio diario: ${body.count} habitaciones marcadas como pendientes de limpieza`;
+        case 'MANUAL_RESET':
+            return `Reinicio manual: ${body.count} habitaciones marcadas como pendientes`;
+        case 'INCIDENT_CREATED':
+            return `Nueva incidencia reportada en Hab. ${body.roomNumber ?? 'N/A'}`;
+        case 'INCIDENT_UPDATED':
+            return body.photoCount != null ? 'Fotos agregadas a la incidencia' : 'Incidencia actualizada';
+        case 'INCIDENT_RESOLVED':
+            return `Incidencia resuelta en Hab. ${body.roomNumber ?? 'N/A'}`;
+        case 'WORKLIST_UPDATED': {
+            const added = (body.items || []).filter(item => !item.removed && item.number != null);
+            return added.length === 1
+                ? `Se te asignó la habitación ${added[0].number}`
+                : `Se te asignaron ${added.length} habitaciones`;
+        }
+        default:
+            return event?.type || 'Notificación';
+    }
+}
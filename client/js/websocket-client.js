@@ -1,10 +1,14 @@
 /* ======================================
    WEBSOCKET-CLIENT.JS - Cliente WebSocket con STOMP
    Conecta con ws://localhost:8080/ws
-   Tópicos: /topic/incidents, /topic/rooms, /topic/notifications
+   Tópicos por hotel: /topic/hotels/{hotelId}/... (ver WEBSOCKET_CONFIG.TOPICS)
+   El JWT viaja en el frame CONNECT; sin él el servidor rechaza la sesión
+   Al perder la conexión reintenta y vuelve a llamar a onConnected, que debe
+   suscribirse de nuevo y pedir los eventos perdidos (GET /api/sync/events)
    ====================================== */
 
 import { API_URL } from './config.js';
+import api from './api.js';
 
 class WebSocketClient {
     constructor() {
@@ -14,6 +18,7 @@ class WebSocketClient {
         this.reconnectAttempts = 0;
         this.maxReconnectAttempts = 5;
         this.reconnectDelay = 3000;
+        this.onConnected = null;
     }
 
     // Conectar al WebSocket
@@ -22,6 +27,7 @@ class WebSocketClient {
             console.log('WebSocket already connected');
             return;
         }
+        if (onConnected) this.onConnected = onConnected;
 
         try {
             // SockJS maneja la conexión HTTP, no necesitamos convertir a ws://
@@ -34,20 +40,23 @@ class WebSocketClient {
                 if (import.meta.env?.DEV) console.log(msg);
             };
 
+            const token = api.getAuthToken();
             this.stompClient.connect(
-                {},
+                token ? { Authorization: `Bearer ${token}` } : {},
                 (frame) => {
                     console.log('✅ WebSocket connected:', frame);
                     this.connected = true;
                     this.reconnectAttempts = 0;
+                    // Las suscripciones de la sesión anterior ya no existen
+                    this.subscriptions = [];
                     
-                    if (onConnected) onConnected();
+                    if (this.onConnected) this.onConnected();
                 },
                 (error) => {
                     console.warn('⚠️ WebSocket connection error (backend may be offline):', error);
                     this.connected = false;
-                    // No intentar reconectar si el backend no está disponible
-                    // this.attemptReconnect();
+                    // Tras maxReconnectAttempts se deja de intentar y la página vuelve al polling
+                    if (this.onConnected) this.attemptReconnect();
                 }
             );
         } catch (error) {
@@ -113,6 +122,7 @@ class WebSocketClient {
 
     // Desconectar
     disconnect() {
+        this.onConnected = null;
         if (this.stompClient) {
             // Desuscribirse de todos los tópicos
             this.subscriptions.forEach(({ subscription }) => {
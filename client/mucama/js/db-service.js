@@ -64,21 +64,11 @@ class DatabaseService {
         if (!this.roomsDB) return;
         
         try {
-            const docs = rooms.map(room => ({
+            await this.upsertDocs(this.roomsDB, rooms.map(room => ({
                 _id: `room_${room.id}`,
                 ...room,
                 localUpdated: Date.now()
-            }));
-
-            for (const doc of docs) {
-                try {
-                    const existing = await this.roomsDB.get(doc._id);
-                    doc._rev = existing._rev;
-                } catch (e) {
-                    // Documento no existe, es nuevo
-                }
-                await this.roomsDB.put(doc);
-            }
+            })));
 
             console.log(`💾 ${rooms.length} habitaciones guardadas localmente`);
         } catch (error) {
@@ -141,21 +131,11 @@ class DatabaseService {
         if (!this.incidentsDB) return;
         
         try {
-            const docs = incidents.map(inc => ({
-                _id: `incident_${inc.id || Date.now()}_${Math.random()}`,
+            await this.upsertDocs(this.incidentsDB, incidents.map(inc => ({
+                _id: `incident_${inc.id}`,
                 ...inc,
                 localUpdated: Date.now()
-            }));
-
-            for (const doc of docs) {
-                try {
-                    const existing = await this.incidentsDB.get(doc._id);
-                    doc._rev = existing._rev;
-                } catch (e) {
-                    // Documento no existe
-                }
-                await this.incidentsDB.put(doc);
-            }
+            })));
 
             console.log(`💾 ${incidents.length} incidencias guardadas localmente`);
         } catch (error) {
@@ -364,6 +344,11 @@ class DatabaseService {
 
             case 'INCIDENT_CREATE':
                 console.log('📤 Enviando incidencia al servidor:', item.endpoint);
+                // Elementos encolados por versiones anteriores: fotos como JSON en "photos"
+                if (typeof item.data.photos === 'string') {
+                    item.data.photoData = JSON.parse(item.data.photos);
+                    delete item.data.photos;
+                }
                 const newIncident = await api.post(item.endpoint, item.data);
                 console.log('✅ Incidencia creada en servidor:', newIncident);
                 
@@ -408,15 +393,53 @@ class DatabaseService {
         }
     }
 
-    // === SINCRONIZACIÓN COMPLETA ===
+    // === ESCRITURA EN LOTE ===
+
+    // Inserta o reemplaza documentos con una lectura y una escritura en lote
+    async upsertDocs(db, docs) {
+        if (docs.length === 0) return;
+
+        const existing = await db.allDocs({ keys: docs.map(doc => doc._id) });
+        existing.rows.forEach((row, i) => {
+            if (row.value && !row.value.deleted) {
+                docs[i]._rev = row.value.rev;
+            }
+        });
+        await db.bulkDocs(docs);
+    }
+
+    async removeDocs(db, ids) {
+        if (ids.length === 0) return;
+
+        const existing = await db.allDocs({ keys: ids });
+        const deletions = existing.rows
+            .filter(row => row.value && !row.value.deleted)
+            .map(row => ({ _id: row.id, _rev: row.value.rev, _deleted: true }));
+        if (deletions.length > 0) {
+            await db.bulkDocs(deletions);
+        }
+    }
+
+    async clearDocs(db, keep = () => false) {
+        const result = await db.allDocs();
+        const deletions = result.rows.filter(row => !keep(row.id)).map(row => ({ _id: row.id, _rev: row.value.rev, _deleted: true }));
+        if (deletions.length > 0) {
+            await db.bulkDocs(deletions);
+        }
+    }
+
+    // === SINCRONIZACIÓN INCREMENTAL ===
+    // Backend: SyncController.getChanges() - GET /api/sync/changes?since=<token>
+    // Solo descarga lo creado, modificado o eliminado desde el último token guardado
 
     async syncAll() {
         if (!this.isOnline) {
             console.log('⚠️ Sin conexión, sincronización omitida');
             return;
         }
+        if (!this.roomsDB || !this.incidentsDB) return;
 
-        console.log('🔄 Iniciando sincronización completa...');
+        console.log('🔄 Iniciando sincronización incremental...');
 
         try {
             // Importar API
@@ -426,22 +449,70 @@ class DatabaseService {
             const userData = api.getUserData();
             if (!userData) return;
 
-            // Sincronizar habitaciones
-            if (userData.role === 'MAID') {
-                const rooms = await api.get(ENDPOINTS.ROOMS_BY_MAID(userData.userId));
-                await this.saveRoomsLocal(rooms);
+            let token = localStorage.getItem(STORAGE_KEYS.SYNC_TOKEN);
+            let hasMore = true;
+            let received = 0;
+
+            if (!token) {
+                // Primera sincronización: descarta copias previas (ids antiguos), salvo las creadas offline
+                const isTemp = (id) => id.startsWith('incident_temp_');
+                await this.clearDocs(this.roomsDB);
+                await this.clearDocs(this.incidentsDB, isTemp);
+            }
+
+            while (hasMore) {
+                const url = token
+                    ? `${ENDPOINTS.SYNC_CHANGES}?since=${encodeURIComponent(token)}`
+                    : ENDPOINTS.SYNC_CHANGES;
+                const changes = await api.get(url);
+
+                if (changes.resetRequired) {
+                    // El token era demasiado antiguo: se reemplaza la copia local completa
+                    console.log('♻️ Token de sincronización expirado, recargando todo');
+                    await this.clearDocs(this.roomsDB);
+                    await this.clearDocs(this.incidentsDB, (id) => id.startsWith('incident_temp_'));
+                }
+
+                await this.applyChanges(changes);
+                received += changes.rooms.length + changes.incidents.length + changes.deleted.length;
 
-                const incidents = await api.get(ENDPOINTS.INCIDENTS_BY_MAID(userData.userId));
-                await this.saveIncidentsLocal(incidents);
+                token = changes.nextToken;
+                localStorage.setItem(STORAGE_KEYS.SYNC_TOKEN, token);
+                hasMore = changes.hasMore;
             }
 
+            console.log(`📥 ${received} cambios recibidos`);
+
             // Procesar cola de cambios pendientes
             await this.processSyncQueue();
 
-            console.log('✅ Sincronización completa finalizada');
+            console.log('✅ Sincronización finalizada');
         } catch (error) {
-            console.error('❌ Error en sincronización completa:', error);
+            console.error('❌ Error en sincronización:', error);
+        }
+    }
+
+    async applyChanges(changes) {
+        // No pisar habitaciones con cambios locales pendientes de enviar
+        const rooms = [];
+        if (changes.rooms.length > 0) {
+            const local = await this.roomsDB.allDocs({
+                keys: changes.rooms.map(room => `room_${room.id}`),
+                include_docs: true
+            });
+            changes.rooms.forEach((room, i) => {
+                if (!local.rows[i].doc?.pendingSync) {
+                    rooms.push(room);
+                }
+            });
         }
+        await this.saveRoomsLocal(rooms);
+        await this.saveIncidentsLocal(changes.incidents);
+
+        const deletedRooms = changes.deleted.filter(d => d.type === 'ROOM').map(d => `room_${d.id}`);
+        const deletedIncidents = changes.deleted.filter(d => d.type === 'INCIDENT').map(d => `incident_${d.id}`);
+        await this.removeDocs(this.roomsDB, deletedRooms);
+        await this.removeDocs(this.incidentsDB, deletedIncidents);
     }
 
     // === MANEJO DE CONECTIVIDAD ===
@@ -512,6 +583,7 @@ class DatabaseService {
             if (this.roomsDB) await this.roomsDB.destroy();
             if (this.incidentsDB) await this.incidentsDB.destroy();
             if (this.syncDB) await this.syncDB.destroy();
+            localStorage.removeItem(STORAGE_KEYS.SYNC_TOKEN);
 
             console.log('🗑️ Bases de datos locales eliminadas');
         } catch (error) {
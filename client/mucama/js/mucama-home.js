@@ -10,6 +10,8 @@ import api from '../../js/api.js';
 import { ENDPOINTS, ROOM_STATUS, USER_ROLES } from '../../js/config.js';
 import dbService from './db-service.js';
 import wsClient from '../../js/websocket-client.js';
+import { WEBSOCKET_CONFIG } from '../../js/constants.js';
+import { applyRoomDelta, applyWorklistItem, describeEvent, roomDeltas } from '../../js/realtime-events.js';
 
 let currentRooms = [];
 let currentRoomId = null;
@@ -87,7 +89,8 @@ document.addEventListener('DOMContentLoaded', async () => {
         }
     }
 
-    // Actualizar cada 30 segundos (solo si no hay WebSocket)
+    // Actualizar cada 30 segundos (solo si no hay WebSocket: al reconectarse se piden
+    // únicamente los eventos perdidos)
     setInterval(() => {
         if (navigator.onLine && !wsClient.isConnected()) {
             loadMyRooms();
@@ -131,20 +134,7 @@ async function loadMyRooms() {
         rooms = markBlockedRooms(rooms, incidents);
         
         currentRooms = rooms;
-        renderRooms(rooms);
-        updateStats(rooms);
-
-        // Filtrar habitaciones pendientes (no limpias) para mostrar empty state
-        const pendingRooms = rooms.filter(room => room.status !== ROOM_STATUS.CLEAN);
-        
-        // Ocultar/mostrar empty state
-        if (pendingRooms.length === 0) {
-            document.getElementById('emptyState').classList.remove('d-none');
-            document.getElementById('roomsList').classList.add('d-none');
-        } else {
-            document.getElementById('emptyState').classList.add('d-none');
-            document.getElementById('roomsList').classList.remove('d-none');
-        }
+        showRooms();
 
     } catch (error) {
         console.error('Error loading rooms:', error);
@@ -152,6 +142,24 @@ async function loadMyRooms() {
     }
 }
 
+// Pinta currentRooms (después de cargarlas o de aplicar un evento WebSocket)
+function showRooms() {
+    renderRooms(currentRooms);
+    updateStats(currentRooms);
+
+    // Filtrar habitaciones pendientes (no limpias) para mostrar empty state
+    const pendingRooms = currentRooms.filter(room => room.status !== ROOM_STATUS.CLEAN);
+    
+    // Ocultar/mostrar empty state
+    if (pendingRooms.length === 0) {
+        document.getElementById('emptyState').classList.remove('d-none');
+        document.getElementById('roomsList').classList.add('d-none');
+    } else {
+        document.getElementById('emptyState').classList.add('d-none');
+        document.getElementById('roomsList').classList.remove('d-none');
+    }
+}
+
 // Renderizar lista de habitaciones
 function renderRooms(rooms) {
     const container = document.getElementById('roomsList');
@@ -496,30 +504,54 @@ function updateConnectivityIndicator() {
 }
 
 // ============ WEBSOCKET REAL-TIME UPDATES ============
+// Incidencias y notificaciones del hotel propio, más la lista de trabajo personal
+// (/user/queue/worklist): el servidor envía ahí solo los cambios de nuestras habitaciones
+
+// Cada evento trae un seq por hotel. Al (re)conectar se piden los eventos posteriores al
+// último visto; mientras llega la respuesta, los eventos en vivo esperan en pendingEvents
+let eventCursor = { epoch: null, seq: null };
+let resuming = false;
+let pendingEvents = [];
+
 function setupWebSocket() {
+    const userData = api.getUserData();
+    if (!userData?.hotelId) {
+        console.warn('⚠️ Sesión sin hotel: se usa polling en lugar de WebSocket');
+        return;
+    }
+    const topics = WEBSOCKET_CONFIG.TOPICS;
     try {
         wsClient.connect(() => {
             console.log('🔌 WebSocket conectado - Suscribiendo a notificaciones...');
-            
-            // Suscribirse a actualizaciones de habitaciones
-            const roomsSub = wsClient.subscribe('/topic/rooms', (notification) => {
-                console.log('📨 Notificación de habitación:', notification);
-                handleRoomNotification(notification);
-            });
+            resuming = true;
             
             // Suscribirse a nuevas incidencias
-            const incidentsSub = wsClient.subscribe('/topic/incidents', (notification) => {
+            const incidentsSub = wsClient.subscribe(topics.INCIDENTS(userData.hotelId), (notification) => {
                 console.log('📨 Notificación de incidencia:', notification);
-                handleIncidentNotification(notification);
+                receiveEvent(notification, handleIncidentNotification);
             });
             
-            // Suscribirse a notificaciones generales
-            const notificationsSub = wsClient.subscribe('/topic/notifications', (notification) => {
+            // Notificaciones del hotel: eventos masivos. Los lotes y la asignación automática
+            // también llegan a la lista de trabajo; aquí solo se aplica el reinicio
+            const notificationsSub = wsClient.subscribe(topics.NOTIFICATIONS(userData.hotelId), (notification) => {
                 console.log('📨 Notificación general:', notification);
-                showNotificationToast(notification);
+                receiveEvent(notification, (event) => {
+                    showNotificationToast(event);
+                    if (event.type === 'DAILY_RESET' || event.type === 'MANUAL_RESET') {
+                        handleRoomNotification(event);
+                    }
+                });
             });
             
-            wsSubscriptions.push(roomsSub, incidentsSub, notificationsSub);
+            // Asignaciones, desasignaciones y cambios de estado de nuestras habitaciones
+            const worklistSub = wsClient.subscribe(topics.WORKLIST(), (notification) => {
+                console.log('📨 Lista de trabajo:', notification);
+                receiveEvent(notification, handleWorklistNotification);
+            });
+            
+            // En una reconexión las suscripciones anteriores ya no existen
+            wsSubscriptions = [incidentsSub, notificationsSub, worklistSub];
+            resumeEvents();
         });
     } catch (error) {
         console.warn('⚠️ WebSocket no disponible:', error);
@@ -527,21 +559,136 @@ function setupWebSocket() {
     }
 }
 
-function handleRoomNotification(notification) {
-    const { type, data } = notification;
+function receiveEvent(notification, handler) {
+    if (resuming) {
+        pendingEvents.push({ notification, handler });
+        return;
+    }
+    if (notification.seq != null && (eventCursor.seq == null || notification.seq > eventCursor.seq)) {
+        eventCursor.seq = notification.seq;
+    }
+    handler(notification);
+}
+
+// Pide los eventos posteriores al último seq visto. Solo se recarga todo cuando el servidor
+// ya no los tiene (resetRequired) o no responde
+async function resumeEvents() {
+    const firstConnection = eventCursor.seq == null;
+    let replayedUpTo = null;
+    try {
+        const params = new URLSearchParams();
+        if (eventCursor.epoch) params.set('epoch', eventCursor.epoch);
+        if (!firstConnection) params.set('since', eventCursor.seq);
+        const replay = await api.get(`${ENDPOINTS.SYNC_EVENTS}?${params}`);
+        eventCursor = { epoch: replay.epoch, seq: replay.latestSeq };
+        if (replay.resetRequired) {
+            console.log('🔄 Eventos perdidos fuera del buffer: recargando habitaciones');
+            await loadMyRooms();
+            replayedUpTo = replay.latestSeq;
+        } else if (!firstConnection) {
+            console.log(`⏩ Reanudando: ${replay.events.length} eventos perdidos`);
+            replay.events.forEach(applyMissedEvent);
+            replayedUpTo = replay.latestSeq;
+        }
+    } catch (error) {
+        console.warn('No se pudieron recuperar los eventos perdidos:', error);
+        if (!firstConnection) await loadMyRooms();
+    } finally {
+        resuming = false;
+        const queued = pendingEvents;
+        pendingEvents = [];
+        queued
+            .filter(({ notification }) => replayedUpTo == null || notification.seq == null || notification.seq > replayedUpTo)
+            .forEach(({ notification, handler }) => receiveEvent(notification, handler));
+    }
+}
+
+// Evento recuperado tras una desconexión: se aplica el cambio sin el toast general
+function applyMissedEvent(event) {
+    if (event.type?.startsWith('INCIDENT')) {
+        handleIncidentNotification(event);
+    } else {
+        handleRoomNotification(event);
+    }
+}
+
+// Cambios de nuestras habitaciones: llegan completas al asignarse, con removed al quitarse
+// y solo con el estado cuando cambia; no hace falta pedir la lista al backend
+function handleWorklistNotification(notification) {
+    const userData = api.getUserData();
+    let added = 0;
+    let changed = false;
+    (notification.body?.items || []).forEach(item => {
+        const result = applyWorklistItem(currentRooms, item, userData.userId);
+        if (result === 'added') added++;
+        if (result) changed = true;
+    });
+    if (!changed) return;
     
-    // Si es una actualización de habitación que nos afecta, recargar
+    showRooms();
+    dbService.saveRoomsLocal(currentRooms).catch(error =>
+        console.warn('No se pudo guardar el cambio en PouchDB:', error));
+    if (added > 0) {
+        showToast(describeEvent(notification), 'info');
+    }
+}
+
+function handleRoomNotification(notification) {
+    const { type, body } = notification;
     const userData = api.getUserData();
-    if (data.assignedTo && data.assignedTo.id === userData.userId) {
+    if (!body) return;
+    
+    // Asignación automática: conteo de habitaciones por id de mucama
+    if (type === 'ROOMS_AUTO_ASSIGNED') {
+        if (body.roomsPerMaid && body.roomsPerMaid[userData.userId] !== undefined) {
+            loadMyRooms();
+            showToast('Se actualizaron tus habitaciones asignadas', 'info');
+        }
+        return;
+    }
+    
+    // Reinicio: las habitaciones limpias vuelven a quedar pendientes
+    if (type === 'DAILY_RESET' || type === 'MANUAL_RESET') {
+        currentRooms.forEach(room => {
+            if (room.status === ROOM_STATUS.CLEAN) room.status = ROOM_STATUS.DIRTY;
+        });
+        showRooms();
+        return;
+    }
+    
+    // Cambios de habitaciones: se parchea la copia local y solo se pide la lista al
+    // backend cuando nos asignan una habitación que todavía no tenemos
+    let changed = false;
+    let assignedToMe = false;
+    roomDeltas(notification).forEach(delta => {
+        const index = currentRooms.findIndex(r => r.id === delta.id);
+        if (index === -1) {
+            if (delta.assignedToId === userData.userId) assignedToMe = true;
+            return;
+        }
+        const room = currentRooms[index];
+        if (!applyRoomDelta(room, delta)) return;
+        changed = true;
+        if (room.assignedTo?.id !== userData.userId) {
+            currentRooms.splice(index, 1);
+        }
+    });
+    
+    if (assignedToMe) {
         loadMyRooms();
-        showToast(`Habitación ${data.number} actualizada`, 'info');
+        showToast('Se te asignaron habitaciones nuevas', 'info');
+    } else if (changed) {
+        showRooms();
+        dbService.saveRoomsLocal(currentRooms).catch(error =>
+            console.warn('No se pudo guardar el cambio en PouchDB:', error));
     }
 }
 
 function handleIncidentNotification(notification) {
-    const { type, message } = notification;
+    const { type } = notification;
     
     if (type === 'INCIDENT_CREATED') {
+        const message = describeEvent(notification);
         // Reproducir sonido o mostrar notificación
         showToast('⚠️ ' + message, 'warning');
         
@@ -557,12 +704,13 @@ function handleIncidentNotification(notification) {
 }
 
 function showNotificationToast(notification) {
-    const { message, type } = notification;
+    const { type } = notification;
+    if (!type) return;
     const alertType = type.includes('ERROR') ? 'danger' : 
                       type.includes('WARNING') ? 'warning' : 
                       type.includes('SUCCESS') ? 'success' : 'info';
     
-    showToast(message, alertType);
+    showToast(describeEvent(notification), alertType);
 }
 
 // Verificar si hay una habitación pendiente de abrir (desde QR scan)
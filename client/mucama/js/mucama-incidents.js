@@ -217,7 +217,7 @@ async function loadIncidents() {
             await dbService.saveIncidentsLocal(allIncidents);
         } else {
             // Usar cache local
-            const cachedIncidents = await dbService.getIncidentsLocal();
+            const cachedIncidents = await dbService.getIncidentsLocal(userData.userId);
             allIncidents = filterIncidentsByTime(cachedIncidents); // Aplicar filtro de tiempo
         }
         
@@ -254,7 +254,8 @@ function renderIncidents(incidents) {
 
     emptyState.classList.add('d-none');
     container.innerHTML = incidents.map(incident => {
-        const photoCount = incident.photos ? parsePhotos(incident.photos).length : 0;
+        const thumbnails = getPhotoUrls(incident, 'thumbnailUrl');
+        const photoCount = thumbnails.length;
         
         return `
         <div class="incident-card" 
@@ -271,7 +272,10 @@ function renderIncidents(incidents) {
             <p class="mb-2">${truncateText(incident.description, 100)}</p>
             
             ${photoCount > 0 ? `
-                <div class="mb-2">
+                <div class="incident-thumbs mb-2">
+                    ${thumbnails.slice(0, 4).map(thumb => `
+                        <img src="${thumb}" loading="lazy" alt="Foto">
+                    `).join('')}
                     <small class="text-muted">
                         📷 ${photoCount} foto${photoCount > 1 ? 's' : ''} adjunta${photoCount > 1 ? 's' : ''}
                     </small>
@@ -351,7 +355,7 @@ async function createIncident() {
             reportedBy: { id: userData.userId },
             description: description,
             status: INCIDENT_STATUS.OPEN,
-            photos: JSON.stringify(photosBase64)
+            photoData: photosBase64
         };
 
         // 1. Primero revisar si hay cambios pendientes en la cola
@@ -365,11 +369,19 @@ async function createIncident() {
                 throw new Error('Sin conexión a internet');
             }
 
-            // Intentar enviar directamente al backend
+            // Intentar enviar directamente al backend: primero los datos, luego las fotos como archivos
             console.log('🌐 Conexión disponible, enviando incidencia al servidor...');
-            await api.post(ENDPOINTS.INCIDENTS, incidentData);
+            const { photoData, ...fields } = incidentData;
+            const created = await api.post(ENDPOINTS.INCIDENTS, fields);
             console.log('✅ Incidencia enviada correctamente al servidor');
-            showToast('Incidencia registrada correctamente', 'success');
+
+            try {
+                await uploadPhotos(created.id, photoData);
+                showToast('Incidencia registrada correctamente', 'success');
+            } catch (uploadError) {
+                console.error('❌ Error subiendo fotos:', uploadError);
+                showToast('Incidencia registrada, pero las fotos no se pudieron subir', 'warning');
+            }
             
         } catch (apiError) {
             // 3. Si falla (sin conexión o error del servidor), guardar localmente
@@ -575,6 +587,17 @@ async function compressAndConvertToBase64(file) {
     });
 }
 
+// Subir fotos comprimidas como multipart
+// Backend: IncidentController.uploadPhotos() - POST /api/incidents/{id}/photos
+async function uploadPhotos(incidentId, dataUrls) {
+    const formData = new FormData();
+    for (const [index, dataUrl] of dataUrls.entries()) {
+        const blob = await (await fetch(dataUrl)).blob();
+        formData.append('files', blob, `foto-${index + 1}.jpg`);
+    }
+    return api.upload(ENDPOINTS.INCIDENT_PHOTOS(incidentId), formData);
+}
+
 function resetIncidentForm() {
     document.getElementById('incidentForm').reset();
     document.getElementById('incidentRoom').value = '';
@@ -611,11 +634,11 @@ window.viewIncidentDetail = async (incidentId) => {
                     <p>${incident.description}</p>
                 </div>
                 
-                ${incident.photos ? `
+                ${getPhotoUrls(incident).length > 0 ? `
                     <div class="mb-3">
                         <h6>Fotos</h6>
                         <div class="d-flex gap-2 flex-wrap">
-                            ${parsePhotos(incident.photos).map(photo => `
+                            ${getPhotoUrls(incident).map(photo => `
                                 <img src="${photo}" class="img-fluid" style="max-width: 150px; border-radius: 8px;">
                             `).join('')}
                         </div>
@@ -647,9 +670,17 @@ window.viewIncidentDetail = async (incidentId) => {
 };
 
 // Helpers
-function parsePhotos(photosJson) {
+// Fotos como URL: referencias del servidor ({ id, url, thumbnailUrl, webUrl }) o data URL de incidencias creadas offline
+// variant: 'thumbnailUrl' para listados, 'webUrl' para el detalle, 'url' para el original
+function getPhotoUrls(incident, variant = 'webUrl') {
+    if (Array.isArray(incident.photos)) {
+        return incident.photos.map(photo => ENDPOINTS.PHOTO_URL(photo[variant] || photo.url));
+    }
+    if (Array.isArray(incident.photoData)) {
+        return incident.photoData;
+    }
     try {
-        return JSON.parse(photosJson);
+        return incident.photos ? JSON.parse(incident.photos) : [];
     } catch {
         return [];
     }
@@ -1,6 +1,6 @@
 /* ======================================
    RECEPCION-DASHBOARD.JS - Dashboard Principal
-   Backend: GET /api/rooms, /api/incidents
+   Backend: GET /api/dashboard/summary, /api/incidents/status/OPEN
    ====================================== */
 
 import api from '../../js/api.js';
@@ -62,19 +62,20 @@ function filterIncidentsByTime(incidents) {
 async function loadDashboard() {
     try {
         // Llamadas en paralelo para eficiencia
-        // Backend: RoomController.getAllRooms(), IncidentController.getAllIncidents()
-        const [rooms, allIncidents] = await Promise.all([
-            api.get(ENDPOINTS.ROOMS),
-            api.get(ENDPOINTS.INCIDENTS)
+        // Backend: DashboardController.getSummary() (conteos en memoria),
+        // IncidentController.getIncidentsByStatus(OPEN)
+        const [summary, openIncidents] = await Promise.all([
+            api.get(ENDPOINTS.DASHBOARD_SUMMARY),
+            api.get(ENDPOINTS.INCIDENTS_BY_STATUS(INCIDENT_STATUS.OPEN))
         ]);
 
         // Aplicar filtro de tiempo a las incidencias
-        const incidents = filterIncidentsByTime(allIncidents);
+        const incidents = filterIncidentsByTime(openIncidents);
 
-        updateKPIs(rooms, incidents);
-        updateCharts(rooms, incidents);
+        updateKPIs(summary, incidents);
+        updateCharts(summary, incidents);
         updateRecentIncidents(incidents);
-        updateMaidStats(rooms);
+        updateMaidStats(summary.maids);
         updateLastUpdate();
 
     } catch (error) {
@@ -84,9 +85,9 @@ async function loadDashboard() {
 }
 
 // Actualizar KPIs principales
-function updateKPIs(rooms, incidents) {
-    const cleanRooms = rooms.filter(r => r.status === ROOM_STATUS.CLEAN).length;
-    const dirtyRooms = rooms.filter(r => r.status === ROOM_STATUS.DIRTY).length;
+function updateKPIs(summary, incidents) {
+    const cleanRooms = summary.rooms[ROOM_STATUS.CLEAN] || 0;
+    const dirtyRooms = summary.rooms[ROOM_STATUS.DIRTY] || 0;
     
     // Calcular habitaciones bloqueadas (con incidencias activas)
     const roomsWithActiveIncidents = new Set();
@@ -106,7 +107,7 @@ function updateKPIs(rooms, incidents) {
 }
 
 // Actualizar gráficas con Chart.js
-function updateCharts(rooms, incidents) {
+function updateCharts(summary, incidents) {
     // Calcular habitaciones bloqueadas (con incidencias activas)
     const roomsWithActiveIncidents = new Set();
     incidents.filter(i => i.status === INCIDENT_STATUS.OPEN).forEach(incident => {
@@ -121,8 +122,8 @@ function updateCharts(rooms, incidents) {
         labels: ['Limpias', 'Sucias', 'Bloqueadas'],
         datasets: [{
             data: [
-                rooms.filter(r => r.status === ROOM_STATUS.CLEAN).length,
-                rooms.filter(r => r.status === ROOM_STATUS.DIRTY).length,
+                summary.rooms[ROOM_STATUS.CLEAN] || 0,
+                summary.rooms[ROOM_STATUS.DIRTY] || 0,
                 blockedRooms
             ],
             backgroundColor: ['#198754', '#ffc107', '#dc3545']
@@ -215,41 +216,20 @@ function updateRecentIncidents(incidents) {
     `).join('');
 }
 
-// Actualizar estadísticas por mucama
-function updateMaidStats(rooms) {
+// Actualizar estadísticas por mucama (ya agregadas en el servidor)
+function updateMaidStats(maids) {
     const container = document.getElementById('maidStats');
-    
-    // Agrupar habitaciones por mucama
-    const roomsByMaid = {};
-    rooms.forEach(room => {
-        if (room.assignedTo) {
-            const maidId = room.assignedTo.id;
-            if (!roomsByMaid[maidId]) {
-                roomsByMaid[maidId] = {
-                    maid: room.assignedTo,
-                    total: 0,
-                    clean: 0
-                };
-            }
-            roomsByMaid[maidId].total++;
-            if (room.status === ROOM_STATUS.CLEAN) {
-                roomsByMaid[maidId].clean++;
-            }
-        }
-    });
-
-    const maidArray = Object.values(roomsByMaid);
 
-    if (maidArray.length === 0) {
+    if (!maids || maids.length === 0) {
         container.innerHTML = '<p class="text-muted text-center">No hay asignaciones</p>';
         return;
     }
 
-    container.innerHTML = maidArray.map(({ maid, total, clean }) => {
+    container.innerHTML = maids.map(({ name, total, clean }) => {
         const percentage = total > 0 ? (clean / total) * 100 : 0;
         return `
             <div class="maid-stat-item">
-                <div class="maid-stat-name">${maid.name}</div>
+                <div class="maid-stat-name">${name}</div>
                 <div class="d-flex justify-content-between">
                     <small class="text-muted">${clean} de ${total} limpias</small>
                     <small class="text-muted">${percentage.toFixed(0)}%</small>
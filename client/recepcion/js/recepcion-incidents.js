@@ -143,7 +143,12 @@ function renderIncidents(incidents) {
         <tr>
             <td><strong>#${incident.id}</strong></td>
             <td>${incident.room?.number || 'N/A'}</td>
-            <td>${truncateText(incident.description, 50)}</td>
+            <td>
+                ${truncateText(incident.description, 50)}
+                ${getPhotoUrls(incident, 'thumbnailUrl').slice(0, 3).map(thumb => `
+                    <img src="${thumb}" class="incident-thumb" loading="lazy" alt="Foto">
+                `).join('')}
+            </td>
             <td>${incident.reportedBy?.name || 'N/A'}</td>
             <td>
                 <span class="badge ${incident.status === 'OPEN' ? 'badge-open' : 'badge-resolved'}">
@@ -264,13 +269,13 @@ window.viewDetail = async (incidentId) => {
                     <strong>Descripción:</strong><br>
                     <p class="mb-0">${incident.description}</p>
                 </div>
-                ${incident.photos ? `
+                ${getPhotoUrls(incident).length > 0 ? `
                     <div class="col-12">
                         <strong>Fotos:</strong><br>
                         <div class="d-flex gap-2 flex-wrap mt-2">
-                            ${parsePhotos(incident.photos).map(photo => `
+                            ${getPhotoUrls(incident).map(photo => `
                                 <img src="${photo}" class="img-thumbnail" style="max-width: 200px; cursor: pointer;" 
-                                     onclick="window.open('${photo}', '_blank')">
+                                     onclick="window.open('${photo}', '_blank')" loading="lazy">
                             `).join('')}
                         </div>
                     </div>
@@ -302,9 +307,17 @@ window.viewDetail = async (incidentId) => {
 };
 
 // Helpers
-function parsePhotos(photosJson) {
+// Fotos como URL: referencias del servidor ({ id, url, thumbnailUrl, webUrl }) o data URL de incidencias creadas offline
+// variant: 'thumbnailUrl' para listados, 'webUrl' para el detalle, 'url' para el original
+function getPhotoUrls(incident, variant = 'webUrl') {
+    if (Array.isArray(incident.photos)) {
+        return incident.photos.map(photo => ENDPOINTS.PHOTO_URL(photo[variant] || photo.url));
+    }
+    if (Array.isArray(incident.photoData)) {
+        return incident.photoData;
+    }
     try {
-        return JSON.parse(photosJson);
+        return incident.photos ? JSON.parse(incident.photos) : [];
     } catch {
         return [];
     }
@@ -2,6 +2,7 @@ package utex.edu.mx.server;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import utex.edu.mx.server.model.*;
@@ -10,6 +11,7 @@ import utex.edu.mx.server.repository.*;
 import java.time.LocalDateTime;
 
 @Component
+@Profile("!synthetic") // Con el perfil synthetic los datos los genera SyntheticDataGenerator
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
     
@@ -0,0 +1,213 @@
+package utex.edu.mx.server;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import utex.edu.mx.server.model.Incident;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.User;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Genera un conjunto de datos sintético grande para pruebas de escala (perfil "synthetic").
+ * Todo sale de un único Random con semilla fija y de una fecha base configurable, así que
+ * la misma configuración sobre una base vacía produce exactamente las mismas filas e ids.
+ * Las habitaciones, mucamas e incidencias se insertan en lotes JDBC.
+ *
+ * Uso: --spring.profiles.active=synthetic --synthetic.hotels=4 --synthetic.seed=7
+ */
+@Component
+@Profile("synthetic")
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final String[] INCIDENT_DESCRIPTIONS = {
+            "Fuga en el baño", "Foco fundido", "Aire acondicionado no enfría", "Control remoto sin pilas",
+            "Mancha en la alfombra", "Cortina rota", "Cerradura electrónica falla", "Regadera sin presión",
+            "Televisión no enciende", "Minibar sin enfriar", "Ventana no cierra", "Olor a humedad"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${synthetic.seed:42}")
+    private long seed = 42;
+
+    @Value("${synthetic.hotels:2}")
+    private int hotels = 2;
+
+    @Value("${synthetic.buildings-per-hotel:5}")
+    private int buildingsPerHotel = 5;
+
+    @Value("${synthetic.floors:10}")
+    private int floors = 10;
+
+    @Value("${synthetic.rooms-per-floor:25}")
+    private int roomsPerFloor = 25;
+
+    @Value("${synthetic.maids-per-hotel:40}")
+    private int maidsPerHotel = 40;
+
+    @Value("${synthetic.incidents-per-room:0.5}")
+    private double incidentsPerRoom = 0.5;
+
+    @Value("${synthetic.history-days:90}")
+    private int historyDays = 90;
+
+    @Value("${synthetic.base-time:2025-01-06T08:00:00}")
+    private LocalDateTime baseTime = LocalDateTime.of(2025, 1, 6, 8, 0);
+
+    @Value("${synthetic.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Override
+    public void run(String... args) {
+        Integer users = jdbcTemplate.queryForObject("select count(*) from users", Integer.class);
+        if (users != null && users > 0) {
+            log.warn("Datos sintéticos omitidos: la base ya tiene usuarios y el resultado no sería reproducible");
+            return;
+        }
+        long start = System.nanoTime();
+        Random random = new Random(seed);
+        Timestamp now = Timestamp.valueOf(baseTime);
+        // Un solo hash para todos: BCrypt es lento y su sal aleatoria no forma parte del conjunto
+        String password = passwordEncoder.encode("password");
+
+        insertUser("admin", password, "Administrador", User.Role.ADMIN, null, now);
+        long rooms = 0;
+        long incidents = 0;
+        for (int h = 1; h <= hotels; h++) {
+            long hotelId = insertReturningId(
+                    "insert into hotels (name, address, active, created_at, updated_at) values (?, ?, true, ?, ?)",
+                    "Hotel Sintético " + h, "Calle " + (100 + h), now, now);
+            insertUser("recepcion" + h, password, "Recepción " + h, User.Role.RECEPTION, hotelId, now);
+
+            List<Object[]> maidRows = new ArrayList<>(maidsPerHotel);
+            for (int m = 1; m <= maidsPerHotel; m++) {
+                maidRows.add(new Object[]{"mucama" + h + "-" + m, password, "Mucama " + h + "-" + m,
+                        User.Role.MAID.name(), hotelId, now, now});
+            }
+            batchInsert("insert into users (username, password, name, role, hotel_id, active, token_version, created_at, updated_at) "
+                    + "values (?, ?, ?, ?, ?, true, 0, ?, ?)", maidRows);
+            List<Long> maidIds = jdbcTemplate.queryForList(
+                    "select id from users where hotel_id = ? and role = 'MAID' order by id", Long.class, hotelId);
+
+            for (int b = 1; b <= buildingsPerHotel; b++) {
+                long buildingId = insertReturningId(
+                        "insert into buildings (name, floors, hotel_id, active, created_at, updated_at) values (?, ?, ?, true, ?, ?)",
+                        "Torre " + b, floors, hotelId, now, now);
+                rooms += insertRooms(random, buildingId, maidIds, now);
+                incidents += insertIncidents(random, buildingId, maidIds);
+            }
+        }
+        log.info("Datos sintéticos (semilla {}): {} hoteles, {} habitaciones, {} incidencias en {} ms",
+                seed, hotels, rooms, incidents, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Mezcla de estados de un día típico: 55% limpias, 30% sucias, 15% ocupadas.
+     * Siete de cada diez habitaciones sucias u ocupadas ya tienen mucama.
+     */
+    private int insertRooms(Random random, long buildingId, List<Long> maidIds, Timestamp now) {
+        List<Object[]> rows = new ArrayList<>(floors * roomsPerFloor);
+        for (int floor = 1; floor <= floors; floor++) {
+            for (int n = 1; n <= roomsPerFloor; n++) {
+                double p = random.nextDouble();
+                Room.RoomStatus status = p < 0.55 ? Room.RoomStatus.CLEAN
+                        : p < 0.85 ? Room.RoomStatus.DIRTY : Room.RoomStatus.OCCUPIED;
+                Long maidId = null;
+                Timestamp assignedAt = null;
+                if (status != Room.RoomStatus.CLEAN && random.nextDouble() < 0.7) {
+                    maidId = maidIds.get(random.nextInt(maidIds.size()));
+                    assignedAt = now;
+                }
+                rows.add(new Object[]{String.format("%d%02d", floor, n), floor, status.name(), buildingId,
+                        maidId, assignedAt, now, now});
+            }
+        }
+        batchInsert("insert into rooms (number, floor, status, building_id, assigned_to, assigned_at, active, created_at, updated_at) "
+                + "values (?, ?, ?, ?, ?, ?, true, ?, ?)", rows);
+        return rows.size();
+    }
+
+    /**
+     * Historial de incidencias repartido en los últimos history-days días: las de la última
+     * semana siguen abiertas con probabilidad 0.6, las anteriores casi todas resueltas.
+     */
+    private int insertIncidents(Random random, long buildingId, List<Long> maidIds) {
+        List<Long> roomIds = jdbcTemplate.queryForList(
+                "select id from rooms where building_id = ? order by id", Long.class, buildingId);
+        List<Object[]> rows = new ArrayList<>();
+        for (Long roomId : roomIds) {
+            // Número de incidencias por habitación con media incidentsPerRoom
+            double budget = incidentsPerRoom;
+            while (budget > 0 && random.nextDouble() < Math.min(budget, 1.0)) {
+                budget -= 1.0;
+                LocalDateTime created = baseTime.minusMinutes(random.nextInt(Math.max(1, historyDays) * 24 * 60));
+                boolean recent = created.isAfter(baseTime.minusDays(7));
+                boolean open = random.nextDouble() < (recent ? 0.6 : 0.03);
+                LocalDateTime resolved = open ? null : created.plusMinutes(30 + random.nextInt(48 * 60));
+                if (resolved != null && resolved.isAfter(baseTime)) {
+                    resolved = baseTime;
+                }
+                rows.add(new Object[]{
+                        roomId,
+                        maidIds.get(random.nextInt(maidIds.size())),
+                        INCIDENT_DESCRIPTIONS[random.nextInt(INCIDENT_DESCRIPTIONS.length)],
+                        (open ? Incident.IncidentStatus.OPEN : Incident.IncidentStatus.RESOLVED).name(),
+                        open ? null : "Atendido por mantenimiento",
+                        resolved != null ? Timestamp.valueOf(resolved) : null,
+                        Timestamp.valueOf(created),
+                        Timestamp.valueOf(resolved != null ? resolved : created)
+                });
+            }
+        }
+        batchInsert("insert into incidents (room_id, reported_by, description, status, resolution_notes, resolved_at, created_at, updated_at) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return rows.size();
+    }
+
+    private void insertUser(String username, String password, String name, User.Role role, Long hotelId, Timestamp now) {
+        jdbcTemplate.update("insert into users (username, password, name, role, hotel_id, active, token_version, created_at, updated_at) "
+                + "values (?, ?, ?, ?, ?, true, 0, ?, ?)", username, password, name, role.name(), hotelId, now, now);
+    }
+
+    private long insertReturningId(String sql, Object... args) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        }, keys);
+        return ((Number) Objects.requireNonNull(keys.getKeys()).values().iterator().next()).longValue();
+    }
+
+    /**
+     * INSERT en lotes de batch-size filas, cada lote en su propia transacción.
+     */
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Object[]> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, chunk));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package utex.edu.mx.server.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.Filter;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Orígenes de datos: el shard "default" (spring.datasource, con réplica de lectura opcional
+ * en datasource.replica.url) y los shards por hotel de sharding.shards.
+ * Sin réplica ni shards configurados todo va a spring.datasource, como antes.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class DataSourceConfig {
+
+    private static final List<String> TABLES = List.of(
+            "hotels", "users", "buildings", "rooms", "incidents", "incident_photos", "sync_tombstones");
+
+    private ShardRoutingDataSource routing;
+
+    @Bean
+    public ShardDirectory shardDirectory(ShardingProperties properties) {
+        Map<String, Integer> shards = new LinkedHashMap<>();
+        properties.getShards().forEach((name, shard) -> shards.put(name, shard.getIndex()));
+        return new ShardDirectory(properties.getHotels(), shards, properties.getIdRange());
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(
+            ShardingProperties properties,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${spring.datasource.driver-class-name:}") String driverClassName,
+            @Value("${datasource.replica.url:}") String replicaUrl,
+            @Value("${datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${datasource.replica.read-your-writes-ms:5000}") long readYourWritesMs) {
+        Map<String, ReplicaRoutingDataSource> shards = new LinkedHashMap<>();
+
+        HikariDataSource primary = pool(ShardDirectory.DEFAULT, url, username, password, driverClassName);
+        HikariDataSource replica = null;
+        if (!replicaUrl.isBlank()) {
+            replica = pool("replica", replicaUrl, replicaUsername, replicaPassword, driverClassName);
+            replica.setReadOnly(true);
+        }
+        shards.put(ShardDirectory.DEFAULT, new ReplicaRoutingDataSource(primary, replica,
+                Duration.ofMillis(readYourWritesMs)));
+
+        // El default lo migra Spring Boot; los demás shards aquí, antes de que nadie los use
+        Set<Integer> indexes = new HashSet<>();
+        properties.getShards().forEach((name, shard) -> {
+            if (shard.getIndex() < 1 || !indexes.add(shard.getIndex())) {
+                throw new IllegalStateException("Shard " + name + ": index debe ser único y mayor que 0");
+            }
+            HikariDataSource pool = pool(name, shard.getUrl(),
+                    shard.getUsername() != null ? shard.getUsername() : username,
+                    shard.getPassword() != null ? shard.getPassword() : password,
+                    "");
+            migrate(name, pool, shard.getIndex() * properties.getIdRange() + 1);
+            shards.put(name, new ReplicaRoutingDataSource(pool, null));
+        });
+
+        routing = new ShardRoutingDataSource(shards);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    /**
+     * Termina cada petición sin la marca de "ya escribió": la siguiente vuelve a leer de la réplica.
+     */
+    @Bean
+    public Filter replicaRoutingResetFilter() {
+        return (request, response, chain) -> {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                ReplicaRoutingDataSource.resetThread();
+            }
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.health-check-ms:5000}")
+    public void checkReplica() {
+        if (routing != null) {
+            routing.getShards().values().forEach(ReplicaRoutingDataSource::checkReplica);
+        }
+    }
+
+    /**
+     * Aplica las migraciones y hace que el shard genere ids desde firstId, para que no
+     * choquen con los de otros shards.
+     */
+    private void migrate(String name, DataSource dataSource, long firstId) {
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        boolean mysql = isMySql(dataSource);
+        for (String table : TABLES) {
+            Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+            if (maxId == null || maxId < firstId) {
+                jdbcTemplate.execute(mysql
+                        ? "alter table " + table + " auto_increment = " + firstId
+                        : "alter table " + table + " alter column id restart with " + firstId);
+            }
+        }
+        log.info("Shard {} listo, ids desde {}", name, firstId);
+    }
+
+    private boolean isMySql(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo conectar al shard", e);
+        }
+    }
+
+    private HikariDataSource pool(String name, String url, String username, String password, String driverClassName) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        if (!driverClassName.isBlank()) {
+            dataSource.setDriverClassName(driverClassName);
+        }
+        return dataSource;
+    }
+}
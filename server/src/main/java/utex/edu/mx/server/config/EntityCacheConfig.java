@@ -0,0 +1,50 @@
+package utex.edu.mx.server.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * CacheManager de JCache para la caché de segundo nivel de Hibernate (regiones en caffeine.conf).
+ * El proveedor comparte un manager por URI y ClassLoader; si Hibernate lo resolviera por su
+ * cuenta, todos los contextos del mismo proceso (p. ej. los de los tests) usarían el mismo, y
+ * al cerrarse uno se cerrarían las cachés de los demás. Por eso cada contexto crea el suyo con
+ * un ClassLoader propio y lo cierra al terminar.
+ * Con varios shards la caché de consultas se apaga: su clave es el SQL y los parámetros, sin
+ * el shard, y la misma consulta en otro shard recibiría los ids del primero. La caché de
+ * entidades sigue activa porque los ids no se repiten entre shards.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    /**
+     * El manager guarda su ClassLoader en una referencia débil; este campo lo mantiene vivo.
+     */
+    private final ClassLoader cacheClassLoader = new ClassLoader(getClass().getClassLoader()) {
+    };
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(
+            @Value("${spring.jpa.properties.hibernate.javax.cache.provider}") String provider,
+            @Value("${spring.jpa.properties.hibernate.javax.cache.uri}") String uri) {
+        return Caching.getCachingProvider(provider, getClass().getClassLoader())
+                .getCacheManager(URI.create(uri), cacheClassLoader);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheManagerCustomizer(CacheManager entityCacheManager,
+                                                                      ShardDirectory shardDirectory) {
+        return properties -> {
+            properties.put("hibernate.javax.cache.cache_manager", entityCacheManager);
+            if (shardDirectory.isSharded()) {
+                properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            }
+        };
+    }
+}
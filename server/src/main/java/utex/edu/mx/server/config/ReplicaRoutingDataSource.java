@@ -0,0 +1,171 @@
+package utex.edu.mx.server.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Envía las transacciones de solo lectura (@Transactional(readOnly = true), que incluye las
+ * lecturas de los repositorios) a la réplica y todo lo demás al primario. Se usa detrás de un
+ * LazyConnectionDataSourceProxy para que la conexión real se pida cuando la transacción ya
+ * está marcada como de solo lectura.
+ * <p>
+ * Se lee del primario cuando no hay réplica configurada, cuando la última comprobación de
+ * salud falló, dentro de {@link #onPrimary}, y después de una escritura en el mismo hilo (para
+ * leer lo que se acaba de escribir): hasta que termina la petición o, en hilos que no atienden
+ * peticiones (tareas programadas, ejecutores), durante la ventana readYourWrites.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final ThreadLocal<Integer> PRIMARY_SCOPES = ThreadLocal.withInitial(() -> 0);
+    /**
+     * System.nanoTime() de la última escritura del hilo, o null si no escribió.
+     */
+    private static final ThreadLocal<Long> WROTE_AT = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long readYourWritesNanos;
+    private volatile boolean replicaHealthy;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        this(primary, replica, Duration.ofSeconds(5));
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWritesNanos = readYourWrites.toNanos();
+        this.replicaHealthy = replica != null;
+    }
+
+    /**
+     * Ejecuta la acción leyendo siempre del primario, aunque sus transacciones sean de solo lectura.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        PRIMARY_SCOPES.set(PRIMARY_SCOPES.get() + 1);
+        try {
+            return action.get();
+        } finally {
+            PRIMARY_SCOPES.set(PRIMARY_SCOPES.get() - 1);
+        }
+    }
+
+    /**
+     * Olvida las escrituras del hilo; se llama al terminar cada petición.
+     */
+    public static void resetThread() {
+        WROTE_AT.remove();
+        PRIMARY_SCOPES.remove();
+    }
+
+    public boolean hasReplica() {
+        return replica != null;
+    }
+
+    public boolean isReplicaHealthy() {
+        return replicaHealthy;
+    }
+
+    /**
+     * Comprueba la réplica con una conexión de prueba; si falla, las lecturas van al primario
+     * hasta la siguiente comprobación correcta.
+     */
+    public void checkReplica() {
+        if (replica == null) {
+            return;
+        }
+        boolean healthy;
+        try (Connection connection = replica.getConnection()) {
+            healthy = connection.isValid(2);
+        } catch (SQLException e) {
+            healthy = false;
+        }
+        if (healthy != replicaHealthy) {
+            log.warn("Réplica de lectura {}", healthy ? "disponible de nuevo" : "no disponible, leyendo del primario");
+        }
+        replicaHealthy = healthy;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                markReplicaDown(e);
+            }
+        }
+        return routeToPrimary().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                markReplicaDown(e);
+            }
+        }
+        return routeToPrimary().getConnection(username, password);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+        if (replica instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private boolean useReplica() {
+        return replica != null
+                && replicaHealthy
+                && PRIMARY_SCOPES.get() == 0
+                && !wroteRecently()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * La marca de escritura caduca sola para que un hilo de larga vida que escribió una vez
+     * no lea del primario para siempre; las peticiones además la borran al terminar.
+     */
+    private boolean wroteRecently() {
+        Long wroteAt = WROTE_AT.get();
+        if (wroteAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - wroteAt < readYourWritesNanos) {
+            return true;
+        }
+        WROTE_AT.remove();
+        return false;
+    }
+
+    private DataSource routeToPrimary() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            WROTE_AT.set(System.nanoTime());
+        }
+        return primary;
+    }
+
+    private void markReplicaDown(SQLException e) {
+        if (replicaHealthy) {
+            log.warn("Réplica de lectura no disponible, leyendo del primario: {}", e.getMessage());
+        }
+        replicaHealthy = false;
+    }
+}
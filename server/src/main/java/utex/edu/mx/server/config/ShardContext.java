@@ -0,0 +1,44 @@
+package utex.edu.mx.server.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard de la petición o tarea en curso. Sin shard asignado se usa el "default".
+ * JwtAuthenticationFilter lo asigna según el hotel del token.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(String shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Ejecuta la acción en el shard indicado y restaura el anterior.
+     */
+    public static <T> T runOn(String shard, Supplier<T> action) {
+        String previous = CURRENT.get();
+        bind(shard);
+        try {
+            return action.get();
+        } finally {
+            bind(previous);
+        }
+    }
+}
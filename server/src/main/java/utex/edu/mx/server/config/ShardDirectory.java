@@ -0,0 +1,63 @@
+package utex.edu.mx.server.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Directorio hotel -> shard. Los ids son únicos entre shards (cada uno genera los suyos en
+ * su propio rango), así que la caché de segundo nivel y los cursores por id siguen valiendo.
+ */
+public class ShardDirectory {
+
+    public static final String DEFAULT = "default";
+
+    private final Map<Long, String> hotels;
+    private final List<String> shards;
+    private final Map<Long, String> shardsByIndex;
+    private final long idRange;
+
+    /**
+     * @param extraShards nombre -> index de cada shard adicional (el default es el 0)
+     * @param idRange     ids por shard: el de index i genera desde i * idRange + 1
+     */
+    public ShardDirectory(Map<Long, String> hotels, Map<String, Integer> extraShards, long idRange) {
+        this.hotels = Map.copyOf(hotels);
+        this.idRange = idRange;
+        List<String> all = new ArrayList<>();
+        all.add(DEFAULT);
+        all.addAll(extraShards.keySet());
+        this.shards = List.copyOf(all);
+        Map<Long, String> byIndex = new HashMap<>();
+        extraShards.forEach((name, index) -> byIndex.put(index.longValue(), name));
+        this.shardsByIndex = Map.copyOf(byIndex);
+        for (Map.Entry<Long, String> entry : this.hotels.entrySet()) {
+            if (!shards.contains(entry.getValue())) {
+                throw new IllegalStateException("Hotel " + entry.getKey() + " asignado a un shard inexistente: " + entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Shard del hotel; DEFAULT si el hotel es null o no está en el directorio.
+     */
+    public String shardFor(Long hotelId) {
+        return hotelId == null ? DEFAULT : hotels.getOrDefault(hotelId, DEFAULT);
+    }
+
+    /**
+     * Shard donde se generó el id (de cualquier tabla), según su rango; DEFAULT si es null.
+     */
+    public String shardForId(Long id) {
+        return id == null || id < 1 ? DEFAULT : shardsByIndex.getOrDefault((id - 1) / idRange, DEFAULT);
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public boolean isSharded() {
+        return shards.size() > 1;
+    }
+}
@@ -0,0 +1,120 @@
+package utex.edu.mx.server.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Consultas que abarcan todos los shards (vistas de administración, tareas programadas):
+ * se ejecutan en paralelo, una por shard, y los resultados se unen en el orden de los shards.
+ * Si la petición ya tiene shard, o solo hay uno, la consulta corre una vez en el hilo actual.
+ * Con hilos virtuales cada consulta lleva su propio hilo; el límite real es el pool de cada shard.
+ */
+@Component
+public class ShardFanOut {
+
+    private final ShardDirectory directory;
+    private final ExecutorService executor;
+
+    public ShardFanOut(ShardDirectory directory, ShardingProperties properties,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.directory = directory;
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("shard-fan-out-", 1).factory());
+            return;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getFanOutThreads()), r -> {
+            Thread thread = new Thread(r, "shard-fan-out-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Une los resultados de la consulta en cada shard; si la petición ya tiene shard, solo en ese.
+     */
+    public <T> List<T> collect(Supplier<? extends Collection<? extends T>> query) {
+        if (ShardContext.current() != null) {
+            return new ArrayList<>(query.get());
+        }
+        return collectAll(query);
+    }
+    
+    /**
+     * Une los resultados de la consulta en todos los shards, aunque la petición tenga uno
+     * asignado (p. ej. unicidad de usernames, que es global).
+     */
+    public <T> List<T> collectAll(Supplier<? extends Collection<? extends T>> query) {
+        if (!directory.isSharded()) {
+            return new ArrayList<>(query.get());
+        }
+        List<Future<Collection<? extends T>>> futures = new ArrayList<>();
+        for (String shard : directory.shards()) {
+            Callable<Collection<? extends T>> task = () -> {
+                try {
+                    return ShardContext.runOn(shard, query);
+                } finally {
+                    ReplicaRoutingDataSource.resetThread();
+                }
+            };
+            futures.add(executor.submit(task));
+        }
+        List<T> merged = new ArrayList<>();
+        for (Future<Collection<? extends T>> future : futures) {
+            merged.addAll(await(future));
+        }
+        return merged;
+    }
+
+    /**
+     * Consulta en el shard indicado (p. ej. el de un hotel pedido como filtro), o como
+     * {@link #collect} si no se sabe cuál es.
+     */
+    public <T> List<T> collectOn(String shard, Supplier<? extends Collection<? extends T>> query) {
+        if (shard == null) {
+            return collect(query);
+        }
+        return new ArrayList<>(ShardContext.runOn(shard, query));
+    }
+
+    /**
+     * Ejecuta la acción una vez por shard (o una sola vez si la petición ya tiene shard).
+     */
+    public void forEachShard(Runnable action) {
+        collect(() -> {
+            action.run();
+            return List.of();
+        });
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta entre shards interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package utex.edu.mx.server.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Elige el origen de datos del shard en curso ({@link ShardContext}). Cada shard es a su vez
+ * un {@link ReplicaRoutingDataSource}, que separa lecturas y escrituras dentro del shard.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final Map<String, ReplicaRoutingDataSource> shards;
+
+    public ShardRoutingDataSource(Map<String, ReplicaRoutingDataSource> shards) {
+        this.shards = new LinkedHashMap<>(shards);
+        setTargetDataSources(new LinkedHashMap<>(shards));
+        setDefaultTargetDataSource(shards.get(ShardDirectory.DEFAULT));
+        // Un shard desconocido es un error de configuración, no se manda al default en silencio
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    public Map<String, ReplicaRoutingDataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ReplicaRoutingDataSource shard : shards.values()) {
+            shard.close();
+        }
+    }
+}
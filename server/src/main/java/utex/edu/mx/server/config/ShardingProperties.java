@@ -0,0 +1,41 @@
+package utex.edu.mx.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shards adicionales y a cuál pertenece cada hotel. El shard "default" es spring.datasource
+ * (con su réplica, si la hay); los hoteles que no aparecen en sharding.hotels viven ahí.
+ * <pre>
+ * sharding.shards.norte.url=jdbc:mysql://norte:3306/hoteldb
+ * sharding.shards.norte.index=1
+ * sharding.hotels.1000000000001=norte
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    /** hotelId -> nombre del shard */
+    private Map<Long, String> hotels = new HashMap<>();
+
+    /** Ids por shard: el shard con index i genera ids desde i * idRange + 1 */
+    private long idRange = 1_000_000_000_000L;
+
+    /** Hilos para las consultas que recorren todos los shards */
+    private int fanOutThreads = 4;
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int index;
+    }
+}
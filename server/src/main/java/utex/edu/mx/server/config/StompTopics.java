@@ -0,0 +1,126 @@
+package utex.edu.mx.server.config;
+
+import utex.edu.mx.server.model.Building;
+import utex.edu.mx.server.model.Incident;
+import utex.edu.mx.server.model.Room;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Destinos STOMP particionados por hotel. Cada cliente se suscribe solo a la partición que
+ * muestra, y solo recibe los eventos de su propiedad:
+ *   - /topic/hotels/{hotelId}/rooms                                   recepción (todo el hotel)
+ *   - /topic/hotels/{hotelId}/buildings/{buildingId}/rooms            un edificio
+ *   - /topic/hotels/{hotelId}/buildings/{buildingId}/floors/{n}/rooms un piso (mucamas)
+ *   - /topic/hotels/{hotelId}/incidents
+ *   - /topic/hotels/{hotelId}/notifications
+ * El cambio de una habitación se publica en los tres niveles de habitaciones. Los eventos
+ * masivos (reinicio diario, asignación automática, lotes) van solo al nivel de hotel y a sus
+ * notificaciones, que los suscriptores de edificio o piso también escuchan.
+ * Además cada usuario tiene su lista de trabajo en /user/queue/worklist: Spring la resuelve
+ * a las sesiones cuyo principal (el username del JWT) coincide, así que una mucama solo
+ * recibe los cambios de sus propias habitaciones.
+ */
+public final class StompTopics {
+
+    private static final String PREFIX = "/topic/hotels/";
+    private static final Pattern DESTINATION = Pattern.compile(
+            "^/topic/hotels/(\\d+)/(rooms|incidents|notifications|buildings/\\d+/rooms|buildings/\\d+/floors/-?\\d+/rooms)$");
+
+    /**
+     * Destino al que se suscribe el cliente para su lista de trabajo.
+     */
+    public static final String WORKLIST = "/user/queue/worklist";
+
+    private StompTopics() {
+    }
+
+    /**
+     * Lista de trabajo de un usuario, para publicar (igual que convertAndSendToUser).
+     */
+    public static String worklist(String username) {
+        return "/user/" + username.replace("/", "%2F") + "/queue/worklist";
+    }
+
+    public static String rooms(Long hotelId) {
+        return PREFIX + hotelId + "/rooms";
+    }
+
+    public static String buildingRooms(Long hotelId, Long buildingId) {
+        return PREFIX + hotelId + "/buildings/" + buildingId + "/rooms";
+    }
+
+    public static String floorRooms(Long hotelId, Long buildingId, Integer floor) {
+        return PREFIX + hotelId + "/buildings/" + buildingId + "/floors/" + floor + "/rooms";
+    }
+
+    public static String incidents(Long hotelId) {
+        return PREFIX + hotelId + "/incidents";
+    }
+
+    public static String notifications(Long hotelId) {
+        return PREFIX + hotelId + "/notifications";
+    }
+
+    /**
+     * Particiones de habitaciones donde se publica el cambio de esta habitación y, con notify,
+     * también las notificaciones de su hotel. Vacío si la habitación no tiene edificio.
+     */
+    public static String[] forRoom(Room room, boolean notify) {
+        Building building = room.getBuilding();
+        Long hotelId = hotelOf(building);
+        if (hotelId == null) {
+            return new String[0];
+        }
+        List<String> destinations = new ArrayList<>(4);
+        destinations.add(rooms(hotelId));
+        destinations.add(buildingRooms(hotelId, building.getId()));
+        if (room.getFloor() != null) {
+            destinations.add(floorRooms(hotelId, building.getId(), room.getFloor()));
+        }
+        if (notify) {
+            destinations.add(notifications(hotelId));
+        }
+        return destinations.toArray(String[]::new);
+    }
+
+    /**
+     * Incidencias del hotel de la habitación y, con notify, sus notificaciones.
+     */
+    public static String[] forIncident(Incident incident, boolean notify) {
+        Long hotelId = incident.getRoom() != null ? hotelOf(incident.getRoom().getBuilding()) : null;
+        if (hotelId == null) {
+            return new String[0];
+        }
+        return notify
+                ? new String[]{incidents(hotelId), notifications(hotelId)}
+                : new String[]{incidents(hotelId)};
+    }
+
+    /**
+     * Hotel de una habitación, o null si no tiene edificio u hotel.
+     */
+    public static Long hotelOf(Room room) {
+        return hotelOf(room.getBuilding());
+    }
+
+    /**
+     * Hotel al que pertenece un destino de suscripción, o null si no es una partición
+     * conocida (incluye los comodines del broker, que no se aceptan).
+     */
+    public static Long hotelOfDestination(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        Matcher matcher = DESTINATION.matcher(destination);
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
+    private static Long hotelOf(Building building) {
+        // getId() de un proxy perezoso no lo inicializa
+        return building != null && building.getHotel() != null ? building.getHotel().getId() : null;
+    }
+}
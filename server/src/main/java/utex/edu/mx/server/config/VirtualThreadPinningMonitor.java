@@ -0,0 +1,155 @@
+package utex.edu.mx.server.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escucha el evento JFR jdk.VirtualThreadPinned mientras los hilos virtuales están activos.
+ * En Java 21 un hilo virtual que se bloquea dentro de un bloque synchronized (p. ej. en el
+ * driver JDBC) no libera su carrier; si pasa seguido, los carriers se agotan y el modo virtual
+ * rinde menos que el de plataforma. Cada sitio se registra una vez en el log con su pila y
+ * se cuenta en GET /api/metrics/virtual-threads.
+ */
+@Component
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_SITES = 100;
+    private static final int LOGGED_FRAMES = 12;
+
+    private final boolean virtualThreads;
+    private final boolean enabled;
+    private final Duration threshold;
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private volatile RecordingStream stream;
+
+    public record Site(String frame, long count) {
+    }
+
+    public record Metrics(boolean virtualThreads, boolean recording, long thresholdMillis,
+                          long pinnedEvents, double totalPinnedMillis, double maxPinnedMillis,
+                          List<Site> topSites) {
+    }
+
+    public VirtualThreadPinningMonitor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                       @Value("${threads.pinning.enabled:true}") boolean pinningEnabled,
+                                       @Value("${threads.pinning.threshold-ms:20}") long thresholdMillis) {
+        this.virtualThreads = virtualThreads;
+        this.enabled = virtualThreads && pinningEnabled;
+        this.threshold = Duration.ofMillis(thresholdMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            RecordingStream recording = new RecordingStream();
+            recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            recording.onEvent(PINNED_EVENT, this::record);
+            recording.startAsync();
+            stream = recording;
+            log.info("Monitoreo de hilos virtuales fijados activo (umbral {} ms)", threshold.toMillis());
+        } catch (RuntimeException e) {
+            // JVM sin JFR o con grabaciones deshabilitadas: el modo virtual sigue funcionando
+            log.warn("No se pudo iniciar el monitoreo JFR de hilos virtuales fijados: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        RecordingStream recording = stream;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    void record(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        events.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulate(nanos);
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String site = pinningSite(frames);
+        LongAdder counter = sites.get(site);
+        if (counter == null && sites.size() < MAX_SITES) {
+            counter = sites.computeIfAbsent(site, key -> {
+                log.warn("Hilo virtual fijado a su carrier {} ms en {}{}", Duration.ofNanos(nanos).toMillis(), site,
+                        describe(frames));
+                return new LongAdder();
+            });
+        }
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    public Metrics metrics() {
+        List<Site> topSites = sites.entrySet().stream()
+                .map(entry -> new Site(entry.getKey(), entry.getValue().sum()))
+                .sorted(Comparator.comparingLong(Site::count).reversed())
+                .limit(10)
+                .toList();
+        return new Metrics(virtualThreads, stream != null, threshold.toMillis(), events.get(),
+                totalNanos.get() / 1_000_000.0, maxNanos.get() / 1_000_000.0, topSites);
+    }
+
+    /**
+     * Eventos registrados en un sitio, aunque no esté entre los más frecuentes.
+     */
+    long pinnedAt(String site) {
+        LongAdder counter = sites.get(site);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Primer marco fuera del JDK: el código (driver, pool, aplicación) que retuvo el monitor.
+     */
+    static String pinningSite(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.")) {
+                continue;
+            }
+            return type + "." + frame.getMethod().getName();
+        }
+        return "desconocido";
+    }
+
+    private static String describe(List<RecordedFrame> frames) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < Math.min(frames.size(), LOGGED_FRAMES); i++) {
+            RecordedFrame frame = frames.get(i);
+            out.append("\n    at ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+        }
+        return out.toString();
+    }
+}
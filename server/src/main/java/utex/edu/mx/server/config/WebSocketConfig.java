@@ -1,30 +1,48 @@
 package utex.edu.mx.server.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import utex.edu.mx.server.security.StompAuthChannelInterceptor;
 
 /**
  * Configuración WebSocket con STOMP para notificaciones en tiempo real
  * Endpoint: ws://localhost:8080/ws
- * Tópicos:
- *   - /topic/incidents - Nuevas incidencias
- *   - /topic/rooms - Actualizaciones de habitaciones
- *   - /topic/notifications - Notificaciones generales
+ * Tópicos particionados por hotel, edificio y piso (ver {@link StompTopics}); el token va
+ * en el frame CONNECT y cada suscripción se autoriza contra su hotel
+ * (ver {@link StompAuthChannelInterceptor}). /queue atiende los destinos por usuario
+ * (/user/queue/worklist).
+ * Con spring.threads.virtual.enabled=true los canales de entrada y salida usan un
+ * hilo virtual por mensaje en lugar del pool de Spring (núcleos * 2 hilos).
  */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final boolean virtualThreads;
+    private final StompAuthChannelInterceptor authInterceptor;
+
+    public WebSocketConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                           StompAuthChannelInterceptor authInterceptor) {
+        this.virtualThreads = virtualThreads;
+        this.authInterceptor = authInterceptor;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Habilitar un message broker simple en memoria
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic", "/queue");
         
         // Prefijo para mensajes destinados a métodos @MessageMapping
         config.setApplicationDestinationPrefixes("/app");
+        
+        // Destinos por usuario: /user/queue/... se resuelve a las sesiones de ese principal
+        config.setUserDestinationPrefix("/user");
     }
 
     @Override
@@ -34,4 +52,20 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*") // En producción, especificar dominios exactos
                 .withSockJS();
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(authInterceptor);
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("ws-inbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            // Un envío lento a un cliente ya no ocupa un hilo de plataforma del pool
+            registration.executor(new VirtualThreadTaskExecutor("ws-outbound-"));
+        }
+    }
 }
@@ -1,21 +1,27 @@
 package utex.edu.mx.server.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import utex.edu.mx.server.config.ShardContext;
+import utex.edu.mx.server.config.ShardDirectory;
+import utex.edu.mx.server.config.ShardFanOut;
 import utex.edu.mx.server.dto.AuthRequest;
 import utex.edu.mx.server.dto.AuthResponse;
 import utex.edu.mx.server.model.User;
 import utex.edu.mx.server.repository.UserRepository;
-import utex.edu.mx.server.security.CustomUserDetailsService;
 import utex.edu.mx.server.security.JwtService;
+import utex.edu.mx.server.security.PasswordHashingService;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -23,46 +29,78 @@ import java.util.Map;
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
 public class AuthController {
     
-    private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
-    private final CustomUserDetailsService userDetailsService;
+    private final PasswordHashingService hashingService;
+    private final ShardFanOut shardFanOut;
+    private final ShardDirectory shardDirectory;
+    private final AsyncTaskExecutor applicationTaskExecutor;
     
+    /**
+     * Login con una sola consulta de usuario (una por shard, en paralelo, si hay varios). BCrypt corre en PasswordHashingService y el
+     * hilo de Tomcat se libera mientras tanto; si la cola de hashing está llena se responde
+     * 503 de inmediato. Lo que sigue al hash (guardar el rehash, firmar el token) corre en el
+     * executor de la aplicación para no ocupar un hilo de hashing con una transacción.
+     */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody AuthRequest request) {
+        User user = shardFanOut.collectAll(() -> userRepository.findByUsername(request.getUsername()).stream().toList())
+                .stream()
+                .filter(u -> Boolean.TRUE.equals(u.getActive()))
+                .findFirst()
+                .orElse(null);
+        Long hotelId = user != null && user.getHotel() != null ? user.getHotel().getId() : null;
         
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-        
-        Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("role", user.getRole().name());
-        extraClaims.put("userId", user.getId());
-        
-        String token = jwtService.generateToken(userDetails, extraClaims);
-        
-        return ResponseEntity.ok(new AuthResponse(
-                token,
-                user.getId(),
-                user.getUsername(),
-                user.getName(),
-                user.getRole().name()
-        ));
+        return hashingService.verify(request.getPassword(), user != null ? user.getPassword() : null)
+                .thenApplyAsync(result -> {
+                    if (!result.matches()) {
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).<AuthResponse>build();
+                    }
+                    if (result.rehashed() != null) {
+                        // El costo de BCrypt cambió: se guarda el hash con el costo actual
+                        ShardContext.runOn(shardDirectory.shardFor(hotelId),
+                                () -> userRepository.updatePassword(user.getId(), result.rehashed()));
+                    }
+                    
+                    Map<String, Object> extraClaims = new HashMap<>();
+                    extraClaims.put("role", user.getRole().name());
+                    extraClaims.put("userId", user.getId());
+                    if (hotelId != null) {
+                        extraClaims.put("hotelId", hotelId);
+                    }
+                    extraClaims.put("ver", user.getTokenVersion() != null ? user.getTokenVersion() : 0);
+                    
+                    String token = jwtService.generateToken(user.getUsername(), extraClaims);
+                    
+                    return ResponseEntity.ok(new AuthResponse(
+                            token,
+                            user.getId(),
+                            user.getUsername(),
+                            user.getName(),
+                            user.getRole().name(),
+                            hotelId
+                    ));
+                }, applicationTaskExecutor)
+                .exceptionally(e -> {
+                    if (e.getCause() instanceof RejectedExecutionException || e instanceof RejectedExecutionException) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .<AuthResponse>build();
+                    }
+                    throw e instanceof CompletionException ce ? ce : new CompletionException(e);
+                });
     }
     
     @PostMapping("/register")
     public ResponseEntity<User> register(@RequestBody User user) {
-        if (userRepository.existsByUsername(user.getUsername())) {
+        if (!shardFanOut.collectAll(() -> userRepository.findByUsername(user.getUsername()).stream().toList()).isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
         
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        User savedUser = userRepository.save(user);
+        Long hotelId = user.getHotel() != null ? user.getHotel().getId() : null;
+        User savedUser = ShardContext.runOn(shardDirectory.shardFor(hotelId), () -> userRepository.save(user));
         savedUser.setPassword(null); // Don't return password
         
         return ResponseEntity.ok(savedUser);
@@ -0,0 +1,72 @@
+package utex.edu.mx.server.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import utex.edu.mx.server.dto.DashboardSummary;
+import utex.edu.mx.server.security.JwtPrincipal;
+import utex.edu.mx.server.service.RoomStatusBoard;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class DashboardController {
+    
+    private final RoomStatusBoard statusBoard;
+    
+    /**
+     * Resumen de habitaciones e incidencias servido desde memoria
+     * GET /api/dashboard/summary?hotelId=
+     * hotelId solo lo elige un ADMIN (sin él, todos los hoteles); los demás reciben el de su hotel.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummary> getSummary(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam(required = false) Long hotelId) {
+        if (isAdmin(principal)) {
+            return ResponseEntity.ok(statusBoard.summary(hotelId));
+        }
+        Long hotel = principal.hotelId();
+        if (hotel == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (hotelId != null && !hotelId.equals(hotel)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(statusBoard.summary(hotel));
+    }
+    
+    /**
+     * Compara el tablero en memoria con la base de datos
+     * GET /api/dashboard/consistency (solo ADMIN)
+     */
+    @GetMapping("/consistency")
+    public ResponseEntity<RoomStatusBoard.ConsistencyReport> checkConsistency(
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        if (!isAdmin(principal)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(statusBoard.checkConsistency());
+    }
+    
+    /**
+     * Reconstruye el tablero desde la base de datos
+     * POST /api/dashboard/rebuild (solo ADMIN: recorre todos los shards)
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<RoomStatusBoard.ConsistencyReport> rebuild(
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        if (!isAdmin(principal)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        statusBoard.rebuild();
+        return ResponseEntity.ok(statusBoard.checkConsistency());
+    }
+    
+    private static boolean isAdmin(JwtPrincipal principal) {
+        return principal != null && "ADMIN".equals(principal.role());
+    }
+}
@@ -1,17 +1,33 @@
 package utex.edu.mx.server.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import utex.edu.mx.server.config.ShardDirectory;
+import utex.edu.mx.server.config.ShardFanOut;
+import utex.edu.mx.server.config.StompTopics;
+import utex.edu.mx.server.dto.CursorPage;
+import utex.edu.mx.server.dto.IncidentSummary;
 import utex.edu.mx.server.dto.WebSocketNotification;
 import utex.edu.mx.server.model.Incident;
 import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.SyncTombstone;
 import utex.edu.mx.server.model.User;
 import utex.edu.mx.server.repository.IncidentRepository;
 import utex.edu.mx.server.repository.RoomRepository;
 import utex.edu.mx.server.repository.UserRepository;
+import utex.edu.mx.server.service.IncidentPhotoService;
+import utex.edu.mx.server.service.NotificationDispatcher;
+import utex.edu.mx.server.service.RoomStatusBoard;
+import utex.edu.mx.server.service.SyncService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,11 +40,45 @@ public class IncidentController {
     private final IncidentRepository incidentRepository;
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationDispatcher notificationDispatcher;
+    private final RoomStatusBoard statusBoard;
+    private final SyncService syncService;
+    private final IncidentPhotoService photoService;
+    private final ShardFanOut shardFanOut;
+    private final ShardDirectory shardDirectory;
     
     @GetMapping
     public ResponseEntity<List<Incident>> getAllIncidents() {
-        return ResponseEntity.ok(incidentRepository.findAll());
+        return ResponseEntity.ok(shardFanOut.collect(incidentRepository::findAll));
+    }
+    
+    /**
+     * Listado paginado por cursor con filtros opcionales
+     * GET /api/incidents/page?status=&roomId=&buildingId=&reportedBy=&from=&to=&cursor=&limit=
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<IncidentSummary>> getIncidentsPage(
+            @RequestParam(required = false) Incident.IncidentStatus status,
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) Long buildingId,
+            @RequestParam(required = false) Long reportedBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Long afterId;
+        try {
+            afterId = CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Con habitación, edificio o autor, solo el shard donde se crearon; si no, todos
+        Long routingId = roomId != null ? roomId : buildingId != null ? buildingId : reportedBy;
+        return ResponseEntity.ok(CursorPage.merge(
+                shardFanOut.collectOn(routingId != null ? shardDirectory.shardForId(routingId) : null,
+                        () -> List.of(incidentRepository.findSlice(afterId, status, roomId, buildingId, reportedBy,
+                                from, to, CursorPage.pageRequest(limit)))),
+                IncidentSummary::id));
     }
     
     @GetMapping("/{id}")
@@ -50,9 +100,10 @@ public class IncidentController {
     
     @GetMapping("/status/{status}")
     public ResponseEntity<List<Incident>> getIncidentsByStatus(@PathVariable Incident.IncidentStatus status) {
-        return ResponseEntity.ok(incidentRepository.findByStatus(status));
+        return ResponseEntity.ok(shardFanOut.collect(() -> incidentRepository.findByStatus(status)));
     }
     
+    @Transactional
     @PostMapping
     public ResponseEntity<Incident> createIncident(@RequestBody Incident incident) {
         // Fetch and set the Room entity
@@ -72,19 +123,48 @@ public class IncidentController {
         incident.setCreatedAt(LocalDateTime.now());
         incident.setUpdatedAt(LocalDateTime.now());
         Incident savedIncident = incidentRepository.save(incident);
+        photoService.attachDataUrls(savedIncident, incident.getPhotoData());
+        statusBoard.incidentChanged(savedIncident);
         
         // Broadcast WebSocket notification
-        WebSocketNotification notification = new WebSocketNotification(
-            "INCIDENT_CREATED",
-            "Nueva incidencia reportada en Hab. " + (savedIncident.getRoom() != null ? savedIncident.getRoom().getNumber() : "N/A"),
-            savedIncident
-        );
-        messagingTemplate.convertAndSend("/topic/incidents", notification);
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
+        notificationDispatcher.publish(WebSocketNotification.Type.INCIDENT_CREATED,
+                WebSocketNotification.IncidentDelta.created(savedIncident), StompTopics.forIncident(savedIncident, true));
         
         return ResponseEntity.ok(savedIncident);
     }
     
+    /**
+     * Subir fotos como multipart (campo "files"); cada archivo se copia a disco por flujo
+     * POST /api/incidents/{id}/photos
+     */
+    @Transactional
+    @PostMapping(value = "/{id}/photos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Incident> uploadPhotos(@PathVariable Long id, @RequestParam("files") List<MultipartFile> files) {
+        // El formato lo valida photoService.attach con los bytes; el Content-Type del archivo lo pone el cliente
+        if (files.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return incidentRepository.findById(id)
+                .map(incident -> {
+                    for (MultipartFile file : files) {
+                        try (InputStream in = file.getInputStream()) {
+                            photoService.attach(incident, in);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("No se pudo leer la foto " + file.getOriginalFilename(), e);
+                        }
+                    }
+                    incident.setUpdatedAt(LocalDateTime.now());
+                    Incident updatedIncident = incidentRepository.save(incident);
+                    
+                    notificationDispatcher.publish(WebSocketNotification.Type.INCIDENT_UPDATED,
+                            WebSocketNotification.IncidentDelta.photos(updatedIncident), StompTopics.forIncident(updatedIncident, false));
+                    
+                    return ResponseEntity.ok(updatedIncident);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @Transactional
     @PutMapping("/{id}")
     public ResponseEntity<Incident> updateIncident(@PathVariable Long id, @RequestBody Incident incidentDetails) {
         return incidentRepository.findById(id)
@@ -95,20 +175,18 @@ public class IncidentController {
                     incident.setResolvedAt(incidentDetails.getResolvedAt());
                     incident.setUpdatedAt(LocalDateTime.now());
                     Incident updatedIncident = incidentRepository.save(incident);
+                    statusBoard.incidentChanged(updatedIncident);
                     
                     // Broadcast WebSocket notification
-                    WebSocketNotification notification = new WebSocketNotification(
-                        "INCIDENT_UPDATED",
-                        "Incidencia actualizada",
-                        updatedIncident
-                    );
-                    messagingTemplate.convertAndSend("/topic/incidents", notification);
+                    notificationDispatcher.publish(WebSocketNotification.Type.INCIDENT_UPDATED,
+                            WebSocketNotification.IncidentDelta.updated(updatedIncident), StompTopics.forIncident(updatedIncident, false));
                     
                     return ResponseEntity.ok(updatedIncident);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @Transactional
     @PatchMapping("/{id}/resolve")
     public ResponseEntity<Incident> resolveIncident(@PathVariable Long id, @RequestBody String resolutionNotes) {
         return incidentRepository.findById(id)
@@ -118,26 +196,26 @@ public class IncidentController {
                     incident.setResolvedAt(LocalDateTime.now());
                     incident.setUpdatedAt(LocalDateTime.now());
                     Incident resolvedIncident = incidentRepository.save(incident);
+                    statusBoard.incidentChanged(resolvedIncident);
                     
                     // Broadcast WebSocket notification
-                    WebSocketNotification notification = new WebSocketNotification(
-                        "INCIDENT_RESOLVED",
-                        "Incidencia resuelta en Hab. " + (resolvedIncident.getRoom() != null ? resolvedIncident.getRoom().getNumber() : "N/A"),
-                        resolvedIncident
-                    );
-                    messagingTemplate.convertAndSend("/topic/incidents", notification);
-                    messagingTemplate.convertAndSend("/topic/notifications", notification);
+                    notificationDispatcher.publish(WebSocketNotification.Type.INCIDENT_RESOLVED,
+                            WebSocketNotification.IncidentDelta.resolved(resolvedIncident), StompTopics.forIncident(resolvedIncident, true));
                     
                     return ResponseEntity.ok(resolvedIncident);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteIncident(@PathVariable Long id) {
         return incidentRepository.findById(id)
                 .map(incident -> {
+                    photoService.detachAll(id);
                     incidentRepository.delete(incident);
+                    syncService.recordDeletion(SyncTombstone.EntityType.INCIDENT, id);
+                    statusBoard.incidentRemoved(id);
                     return ResponseEntity.ok().<Void>build();
                 })
                 .orElse(ResponseEntity.notFound().build());
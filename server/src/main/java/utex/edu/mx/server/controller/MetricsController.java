@@ -0,0 +1,71 @@
+package utex.edu.mx.server.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import utex.edu.mx.server.config.VirtualThreadPinningMonitor;
+import utex.edu.mx.server.security.PasswordHashingService;
+import utex.edu.mx.server.service.NotificationDispatcher;
+import utex.edu.mx.server.service.NotificationLog;
+import utex.edu.mx.server.service.ReferenceDataCache;
+
+/**
+ * Métricas internas de operación, en JSON
+ */
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class MetricsController {
+    
+    private final PasswordHashingService hashingService;
+    private final ReferenceDataCache referenceDataCache;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationLog notificationLog;
+    
+    /**
+     * Pool de BCrypt: latencia, profundidad de cola y rechazos
+     * GET /api/metrics/password-hashing
+     */
+    @GetMapping("/password-hashing")
+    public ResponseEntity<PasswordHashingService.Metrics> getPasswordHashing() {
+        return ResponseEntity.ok(hashingService.metrics());
+    }
+    
+    /**
+     * Caché de segundo nivel: aciertos y fallos por región, para dimensionarla
+     * GET /api/metrics/entity-cache
+     */
+    @GetMapping("/entity-cache")
+    public ResponseEntity<ReferenceDataCache.Metrics> getEntityCache() {
+        return ResponseEntity.ok(referenceDataCache.metrics());
+    }
+    
+    /**
+     * Hilos virtuales fijados a su carrier (eventos JFR), agrupados por sitio
+     * GET /api/metrics/virtual-threads
+     */
+    @GetMapping("/virtual-threads")
+    public ResponseEntity<VirtualThreadPinningMonitor.Metrics> getVirtualThreads() {
+        return ResponseEntity.ok(pinningMonitor.metrics());
+    }
+    
+    /**
+     * Notificaciones WebSocket: profundidad de cola, eventos agrupados y descartados, latencia de envío
+     * GET /api/metrics/notifications
+     */
+    @GetMapping("/notifications")
+    public ResponseEntity<NotificationDispatcher.Metrics> getNotifications() {
+        return ResponseEntity.ok(notificationDispatcher.metrics());
+    }
+    
+    /**
+     * Buffer de eventos para reconexión: epoch actual y eventos retenidos
+     * GET /api/metrics/notification-log
+     */
+    @GetMapping("/notification-log")
+    public ResponseEntity<NotificationLog.Metrics> getNotificationLog() {
+        return ResponseEntity.ok(notificationLog.metrics());
+    }
+}
@@ -0,0 +1,124 @@
+package utex.edu.mx.server.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+import utex.edu.mx.server.model.IncidentPhoto;
+import utex.edu.mx.server.service.IncidentPhotoService;
+import utex.edu.mx.server.service.PhotoFormat;
+import utex.edu.mx.server.service.PhotoRenditionService;
+import utex.edu.mx.server.service.PhotoStore;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Descarga de fotos por hash de contenido.
+ * Las URL contienen el SHA-256 de la imagen, así que no se pueden adivinar y funcionan
+ * directamente en etiquetas <img> (sin cabecera Authorization). El archivo se envía con
+ * sendfile de Tomcat cuando está disponible, sin pasar por el heap de la JVM.
+ * El Content-Type sale de los primeros bytes del archivo (ver {@link PhotoFormat}), nunca de
+ * lo que declaró quien lo subió, y va con nosniff; lo que no es una imagen admitida no se sirve.
+ */
+@RestController
+@RequestMapping("/api/photos")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class PhotoController {
+    
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    
+    private final PhotoStore photoStore;
+    private final IncidentPhotoService photoService;
+    private final PhotoRenditionService renditionService;
+    
+    /**
+     * GET /api/photos/{sha256}?size=thumb|web
+     * Sin size se envía el original. Si la versión pedida aún no se genera, se envía el
+     * original sin caché de larga duración para que el navegador la pida de nuevo.
+     */
+    @GetMapping("/{hash}")
+    public void getPhoto(@PathVariable String hash,
+                         @RequestParam(required = false) String size,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Optional<Path> file;
+        try {
+            file = photoStore.find(hash);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        Optional<IncidentPhoto> photo = photoService.findByHash(hash);
+        if (file.isEmpty() || photo.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        // Filas anteriores guardaban el tipo que mandaba el cliente
+        Optional<PhotoFormat> format = PhotoFormat.detect(file.get());
+        if (format.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        
+        Optional<PhotoRenditionService.Size> rendition = PhotoRenditionService.Size.fromParam(size);
+        if (size != null && rendition.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (rendition.isPresent()) {
+            Optional<Path> scaled = renditionService.find(hash, rendition.get());
+            if (scaled.isPresent()) {
+                send(scaled.get(), "image/jpeg", "\"" + hash + "-" + size.toLowerCase() + "\"", IMMUTABLE, request, response);
+            } else {
+                send(file.get(), format.get().contentType(), null, "no-cache", request, response);
+            }
+            return;
+        }
+        send(file.get(), format.get().contentType(), "\"" + hash + "\"", IMMUTABLE, request, response);
+    }
+    
+    private void send(Path path, String contentType, String etag, String cacheControl,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (etag != null) {
+            // El contenido de un hash nunca cambia
+            response.setHeader(HttpHeaders.ETAG, etag);
+            if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        
+        long size = Files.size(path);
+        response.setContentType(contentType);
+        response.setContentLengthLong(size);
+        
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT)) && size >= SENDFILE_MIN_SIZE) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path);
+             WritableByteChannel out = Channels.newChannel(response.getOutputStream())) {
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+    }
+}
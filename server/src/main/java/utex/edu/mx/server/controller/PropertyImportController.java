@@ -0,0 +1,58 @@
+package utex.edu.mx.server.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import tools.jackson.databind.json.JsonMapper;
+import utex.edu.mx.server.service.PropertyImportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Importación masiva de hoteles, edificios y habitaciones.
+ * El cuerpo se lee como flujo y el reporte se escribe como NDJSON a medida que avanza,
+ * así que el cliente ve el progreso y los errores por línea sin esperar al final.
+ */
+@RestController
+@RequestMapping("/api/import")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class PropertyImportController {
+    
+    private final PropertyImportService importService;
+    private final JsonMapper jsonMapper;
+    
+    /**
+     * POST /api/import/property
+     * Content-Type text/csv (encabezado type,id,name,address,floors,number,floor,status)
+     * o application/x-ndjson (un objeto por línea con los mismos campos)
+     */
+    @PostMapping(value = "/property", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public void importProperty(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        PropertyImportService.Format format = request.getContentType().toLowerCase().startsWith("text/csv")
+                ? PropertyImportService.Format.CSV
+                : PropertyImportService.Format.NDJSON;
+        
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        PrintWriter writer = response.getWriter();
+        
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            importService.importProperty(reader, format, event -> {
+                writer.println(jsonMapper.writeValueAsString(event));
+                if (!"error".equals(event.type())) {
+                    // Errores se acumulan en el buffer; el progreso se envía de inmediato
+                    writer.flush();
+                }
+            });
+        }
+        writer.flush();
+    }
+}
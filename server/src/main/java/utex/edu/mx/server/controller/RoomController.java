@@ -1,15 +1,31 @@
 package utex.edu.mx.server.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import utex.edu.mx.server.config.ShardContext;
+import utex.edu.mx.server.config.ShardDirectory;
+import utex.edu.mx.server.config.ShardFanOut;
+import utex.edu.mx.server.config.StompTopics;
+import utex.edu.mx.server.dto.CursorPage;
+import utex.edu.mx.server.dto.RoomBatchRequest;
+import utex.edu.mx.server.dto.RoomBatchResult;
+import utex.edu.mx.server.dto.RoomSummary;
 import utex.edu.mx.server.dto.WebSocketNotification;
 import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.SyncTombstone;
 import utex.edu.mx.server.model.User;
 import utex.edu.mx.server.repository.RoomRepository;
 import utex.edu.mx.server.repository.UserRepository;
+import utex.edu.mx.server.service.MaidAssignmentService;
+import utex.edu.mx.server.service.NotificationDispatcher;
+import utex.edu.mx.server.service.RoomBatchService;
 import utex.edu.mx.server.service.RoomSchedulerService;
+import utex.edu.mx.server.service.RoomStatusBoard;
+import utex.edu.mx.server.service.SyncService;
+import utex.edu.mx.server.service.WorklistNotifier;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,12 +39,48 @@ public class RoomController {
     
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationDispatcher notificationDispatcher;
+    private final WorklistNotifier worklistNotifier;
     private final RoomSchedulerService schedulerService;
+    private final RoomStatusBoard statusBoard;
+    private final RoomBatchService batchService;
+    private final MaidAssignmentService assignmentService;
+    private final SyncService syncService;
+    private final ShardFanOut shardFanOut;
+    private final ShardDirectory shardDirectory;
     
     @GetMapping
     public ResponseEntity<List<Room>> getAllRooms() {
-        return ResponseEntity.ok(roomRepository.findAll());
+        return ResponseEntity.ok(shardFanOut.collect(roomRepository::findAll));
+    }
+    
+    /**
+     * Listado paginado por cursor con filtros opcionales
+     * GET /api/rooms/page?status=&buildingId=&floor=&maidId=&from=&to=&cursor=&limit=
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<RoomSummary>> getRoomsPage(
+            @RequestParam(required = false) Room.RoomStatus status,
+            @RequestParam(required = false) Long buildingId,
+            @RequestParam(required = false) Integer floor,
+            @RequestParam(required = false) Long maidId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Long afterId;
+        try {
+            afterId = CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Con edificio o mucama, solo el shard donde se crearon; si no, todos (ids únicos entre shards)
+        Long routingId = buildingId != null ? buildingId : maidId;
+        return ResponseEntity.ok(CursorPage.merge(
+                shardFanOut.collectOn(routingId != null ? shardDirectory.shardForId(routingId) : null,
+                        () -> List.of(roomRepository.findSlice(afterId, status, buildingId, floor, maidId, from, to,
+                                CursorPage.pageRequest(limit)))),
+                RoomSummary::id));
     }
     
     @GetMapping("/{id}")
@@ -45,7 +97,7 @@ public class RoomController {
     
     @GetMapping("/status/{status}")
     public ResponseEntity<List<Room>> getRoomsByStatus(@PathVariable Room.RoomStatus status) {
-        return ResponseEntity.ok(roomRepository.findByStatus(status));
+        return ResponseEntity.ok(shardFanOut.collect(() -> roomRepository.findByStatus(status)));
     }
     
     @GetMapping("/maid/{maidId}")
@@ -53,17 +105,30 @@ public class RoomController {
         return ResponseEntity.ok(roomRepository.findByAssignedToId(maidId));
     }
     
+    /**
+     * Lista de trabajo compacta de una mucama
+     * GET /api/rooms/maid/{maidId}/worklist
+     */
+    @GetMapping("/maid/{maidId}/worklist")
+    public ResponseEntity<List<RoomSummary>> getMaidWorklist(@PathVariable Long maidId) {
+        return ResponseEntity.ok(roomRepository.findWorklistByMaidId(maidId));
+    }
+    
     @PostMapping
     public ResponseEntity<Room> createRoom(@RequestBody Room room) {
         room.setCreatedAt(LocalDateTime.now());
         room.setUpdatedAt(LocalDateTime.now());
-        return ResponseEntity.ok(roomRepository.save(room));
+        Room savedRoom = roomRepository.save(room);
+        statusBoard.roomChanged(savedRoom);
+        return ResponseEntity.ok(savedRoom);
     }
     
+    @Transactional
     @PutMapping("/{id}")
     public ResponseEntity<Room> updateRoom(@PathVariable Long id, @RequestBody Room roomDetails) {
         return roomRepository.findById(id)
                 .map(room -> {
+                    User previousMaid = room.getAssignedTo();
                     room.setNumber(roomDetails.getNumber());
                     room.setFloor(roomDetails.getFloor());
                     room.setStatus(roomDetails.getStatus());
@@ -71,20 +136,19 @@ public class RoomController {
                     room.setAssignedAt(roomDetails.getAssignedAt());
                     room.setUpdatedAt(LocalDateTime.now());
                     Room updatedRoom = roomRepository.save(room);
+                    statusBoard.roomChanged(updatedRoom);
                     
                     // Broadcast WebSocket notification
-                    WebSocketNotification notification = new WebSocketNotification(
-                        "ROOM_UPDATED",
-                        "Habitación " + updatedRoom.getNumber() + " actualizada",
-                        updatedRoom
-                    );
-                    messagingTemplate.convertAndSend("/topic/rooms", notification);
+                    notificationDispatcher.publishRoom(WebSocketNotification.Type.ROOM_UPDATED,
+                            WebSocketNotification.RoomDelta.of(updatedRoom), StompTopics.forRoom(updatedRoom, false));
+                    worklistNotifier.assignmentChanged(previousMaid, updatedRoom);
                     
                     return ResponseEntity.ok(updatedRoom);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @Transactional
     @PatchMapping("/{id}/status")
     public ResponseEntity<Room> updateRoomStatus(@PathVariable Long id, @RequestBody Room.RoomStatus status) {
         return roomRepository.findById(id)
@@ -92,26 +156,26 @@ public class RoomController {
                     room.setStatus(status);
                     room.setUpdatedAt(LocalDateTime.now());
                     Room updatedRoom = roomRepository.save(room);
+                    statusBoard.roomChanged(updatedRoom);
                     
-                    // Broadcast WebSocket notification
-                    WebSocketNotification notification = new WebSocketNotification(
-                        "ROOM_STATUS_CHANGED",
-                        "Habitación " + updatedRoom.getNumber() + " ahora está " + status,
-                        updatedRoom
-                    );
-                    messagingTemplate.convertAndSend("/topic/rooms", notification);
-                    messagingTemplate.convertAndSend("/topic/notifications", notification);
+                    // Particiones de habitaciones (recepción) y la lista de trabajo de la mucama asignada
+                    notificationDispatcher.publishRoom(WebSocketNotification.Type.ROOM_STATUS_CHANGED,
+                            WebSocketNotification.RoomDelta.status(updatedRoom), StompTopics.forRoom(updatedRoom, false));
+                    worklistNotifier.statusChanged(updatedRoom);
                     
                     return ResponseEntity.ok(updatedRoom);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteRoom(@PathVariable Long id) {
         return roomRepository.findById(id)
                 .map(room -> {
                     roomRepository.delete(room);
+                    syncService.recordDeletion(SyncTombstone.EntityType.ROOM, id);
+                    statusBoard.roomRemoved(id);
                     return ResponseEntity.ok().<Void>build();
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -121,12 +185,14 @@ public class RoomController {
      * Reasignar una habitación a otra mucama
      * PATCH /api/rooms/{id}/assign
      */
+    @Transactional
     @PatchMapping("/{id}/assign")
     public ResponseEntity<Room> reassignRoom(@PathVariable Long id, @RequestBody Map<String, Long> body) {
         Long maidId = body.get("maidId");
         
         return roomRepository.findById(id)
                 .map(room -> {
+                    User previousMaid = room.getAssignedTo();
                     if (maidId != null) {
                         User maid = userRepository.findById(maidId)
                             .orElseThrow(() -> new RuntimeException("Mucama no encontrada"));
@@ -141,21 +207,51 @@ public class RoomController {
                     
                     room.setUpdatedAt(LocalDateTime.now());
                     Room updatedRoom = roomRepository.save(room);
+                    statusBoard.roomChanged(updatedRoom);
                     
-                    // Notificar vía WebSocket
-                    WebSocketNotification notification = new WebSocketNotification(
-                        "ROOM_REASSIGNED",
-                        "Habitación " + updatedRoom.getNumber() + " reasignada",
-                        updatedRoom
-                    );
-                    messagingTemplate.convertAndSend("/topic/rooms", notification);
-                    messagingTemplate.convertAndSend("/topic/notifications", notification);
+                    // Notificar vía WebSocket: particiones de habitaciones y, en lugar de todo el
+                    // hotel, solo la mucama anterior y la nueva
+                    notificationDispatcher.publishRoom(WebSocketNotification.Type.ROOM_REASSIGNED,
+                            WebSocketNotification.RoomDelta.assignment(updatedRoom), StompTopics.forRoom(updatedRoom, false));
+                    worklistNotifier.assignmentChanged(previousMaid, updatedRoom);
                     
                     return ResponseEntity.ok(updatedRoom);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * Cambiar estado y/o asignación de varias habitaciones en una sola transacción (todo o nada)
+     * PATCH /api/rooms/batch
+     * Body: {"changes": [{"roomId": 1, "status": "CLEAN"}, {"roomId": 2, "maidId": 5}, {"roomId": 3, "unassign": true}]}
+     */
+    @PatchMapping("/batch")
+    public ResponseEntity<?> batchUpdate(@RequestBody RoomBatchRequest request) {
+        if (request.getChanges() == null || request.getChanges().isEmpty()) {
+            return ResponseEntity.badRequest().body("Se requiere al menos un cambio");
+        }
+        if (request.getChanges().size() > batchService.getMaxSize()) {
+            return ResponseEntity.badRequest().body("Máximo " + batchService.getMaxSize() + " cambios por solicitud");
+        }
+        RoomBatchResult result = batchService.applyChanges(request.getChanges());
+        // Con un cambio inválido no se aplica ninguno; el detalle va en results
+        return result.failed() > 0 ? ResponseEntity.badRequest().body(result) : ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Repartir automáticamente las habitaciones sucias entre las mucamas activas
+     * POST /api/rooms/auto-assign?hotelId=
+     */
+    @PostMapping("/auto-assign")
+    public ResponseEntity<List<MaidAssignmentService.AssignmentResult>> autoAssign(
+            @RequestParam(required = false) Long hotelId) {
+        if (hotelId != null) {
+            return ResponseEntity.ok(List.of(ShardContext.runOn(shardDirectory.shardFor(hotelId),
+                    () -> assignmentService.assignHotel(hotelId))));
+        }
+        return ResponseEntity.ok(assignmentService.assignAll());
+    }
+    
     /**
      * Ejecutar reinicio manual de habitaciones (marca limpias como sucias)
      * POST /api/rooms/reset
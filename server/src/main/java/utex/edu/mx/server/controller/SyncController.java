@@ -0,0 +1,68 @@
+package utex.edu.mx.server.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import tools.jackson.databind.json.JsonMapper;
+import utex.edu.mx.server.config.ReplicaRoutingDataSource;
+import utex.edu.mx.server.dto.EventReplay;
+import utex.edu.mx.server.dto.SyncChanges;
+import utex.edu.mx.server.security.JwtPrincipal;
+import utex.edu.mx.server.service.NotificationLog;
+import utex.edu.mx.server.service.SyncService;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class SyncController {
+    
+    private final SyncService syncService;
+    private final NotificationLog notificationLog;
+    private final JsonMapper jsonMapper;
+    
+    /**
+     * Habitaciones e incidentes creados, modificados o eliminados desde el token
+     * GET /api/sync/changes?since=&limit=
+     * Sin token devuelve la copia completa, paginada igual que los cambios.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<SyncChanges> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            // Del primario: el token marca como visto todo lo confirmado hasta su límite,
+            // y en la réplica eso dependería del retraso de replicación
+            return ResponseEntity.ok(ReplicaRoutingDataSource.onPrimary(() -> syncService.changesSince(since, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Eventos WebSocket del hotel posteriores a since, para reanudar tras una reconexión
+     * GET /api/sync/events?epoch=&since=&hotelId=
+     * Sin since solo devuelve epoch y latestSeq. hotelId solo lo elige un ADMIN; los demás
+     * reciben los de su propio hotel.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<EventReplay> getEvents(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam(required = false) String epoch,
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Long hotelId) {
+        boolean admin = "ADMIN".equals(principal.role());
+        Long hotel = admin && hotelId != null ? hotelId : principal.hotelId();
+        if (hotel == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (hotelId != null && !hotelId.equals(hotel)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        NotificationLog.Replay replay = notificationLog.since(hotel, epoch, since);
+        return ResponseEntity.ok(new EventReplay(replay.epoch(), replay.latestSeq(), replay.resetRequired(),
+                replay.events().stream().map(jsonMapper::readTree).toList()));
+    }
+}
@@ -1,14 +1,27 @@
 package utex.edu.mx.server.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import utex.edu.mx.server.config.ShardContext;
+import utex.edu.mx.server.config.ShardDirectory;
+import utex.edu.mx.server.config.ShardFanOut;
+import utex.edu.mx.server.dto.CursorPage;
+import utex.edu.mx.server.dto.UserImportResult;
+import utex.edu.mx.server.dto.UserImportRow;
 import utex.edu.mx.server.model.User;
 import utex.edu.mx.server.repository.UserRepository;
+import utex.edu.mx.server.security.UserStateCache;
+import utex.edu.mx.server.service.UserImportService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/users")
@@ -18,6 +31,10 @@ public class UserController {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserStateCache userStateCache;
+    private final UserImportService importService;
+    private final ShardFanOut shardFanOut;
+    private final ShardDirectory shardDirectory;
     
     /**
      * GET /api/users
@@ -25,7 +42,32 @@ public class UserController {
      */
     @GetMapping
     public List<User> getAllUsers() {
-        return userRepository.findAll();
+        return shardFanOut.collect(userRepository::findAll);
+    }
+    
+    /**
+     * GET /api/users/page?role=&hotelId=&active=&cursor=&limit=
+     * Obtener usuarios paginados por cursor con filtros opcionales
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<User>> getUsersPage(
+            @RequestParam(required = false) User.Role role,
+            @RequestParam(required = false) Long hotelId,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Long afterId;
+        try {
+            afterId = CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Con hotel, solo su shard (como getUsersByHotel); si no, todos (ids únicos entre shards)
+        return ResponseEntity.ok(CursorPage.merge(
+                shardFanOut.collectOn(hotelId != null ? shardDirectory.shardFor(hotelId) : null,
+                        () -> List.of(userRepository.findSlice(afterId, role, hotelId, active,
+                                CursorPage.pageRequest(limit)))),
+                User::getId));
     }
     
     /**
@@ -47,7 +89,7 @@ public class UserController {
     public List<User> getUsersByRole(@PathVariable String role) {
         try {
             User.Role roleEnum = User.Role.valueOf(role.toUpperCase());
-            return userRepository.findByRole(roleEnum);
+            return shardFanOut.collect(() -> userRepository.findByRole(roleEnum));
         } catch (IllegalArgumentException e) {
             return List.of();
         }
@@ -59,7 +101,7 @@ public class UserController {
      */
     @GetMapping("/hotel/{hotelId}")
     public List<User> getUsersByHotel(@PathVariable Long hotelId) {
-        return userRepository.findByHotelId(hotelId);
+        return ShardContext.runOn(shardDirectory.shardFor(hotelId), () -> userRepository.findByHotelId(hotelId));
     }
     
     /**
@@ -68,7 +110,7 @@ public class UserController {
      */
     @GetMapping("/active")
     public List<User> getActiveUsers() {
-        return userRepository.findByActive(true);
+        return shardFanOut.collect(() -> userRepository.findByActive(true));
     }
     
     /**
@@ -91,7 +133,7 @@ public class UserController {
         }
         
         // Verificar que el username no exista
-        if (userRepository.findByUsername(user.getUsername()).isPresent()) {
+        if (usernameTaken(user.getUsername())) {
             return ResponseEntity.badRequest().body("Username ya existe");
         }
         
@@ -111,14 +153,51 @@ public class UserController {
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         
-        User savedUser = userRepository.save(user);
+        // En el shard de su hotel, que es donde el filtro JWT y STOMP verifican su estado
+        Long hotelId = user.getHotel() != null ? user.getHotel().getId() : null;
+        User savedUser = ShardContext.runOn(shardDirectory.shardFor(hotelId), () -> userRepository.save(user));
         return ResponseEntity.ok(savedUser);
     }
     
+    /**
+     * POST /api/users/bulk
+     * Alta masiva en JSON: [{"username": "...", "password": "...", "name": "...", "role": "MAID", "hotelId": 1}]
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createUsersBulk(@RequestBody List<UserImportRow> rows) {
+        return importUsers(rows);
+    }
+    
+    /**
+     * POST /api/users/bulk (text/csv)
+     * Encabezado: username,password,name,email,role,hotelId
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<?> createUsersBulkCsv(@RequestBody String csv) {
+        return importUsers(importService.parseCsv(csv));
+    }
+    
+    private ResponseEntity<?> importUsers(List<UserImportRow> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return ResponseEntity.badRequest().body("Se requiere al menos un usuario");
+        }
+        if (rows.size() > importService.getMaxSize()) {
+            return ResponseEntity.badRequest().body("Máximo " + importService.getMaxSize() + " usuarios por solicitud");
+        }
+        try {
+            UserImportResult result = importService.importUsers(rows);
+            return ResponseEntity.ok(result);
+        } catch (DuplicateKeyException e) {
+            // Otro alta creó uno de los usernames entre la validación y el INSERT; no se guardó nada
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Username creado concurrentemente, reintente el lote");
+        }
+    }
+    
     /**
      * PUT /api/users/{id}
      * Actualizar usuario existente
      */
+    @Transactional
     @PutMapping("/{id}")
     public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody User userDetails) {
         return userRepository.findById(id)
@@ -127,13 +206,23 @@ public class UserController {
                     if (userDetails.getName() != null && userDetails.getName().trim().isEmpty()) {
                         return ResponseEntity.badRequest().body("Nombre no puede estar vacío");
                     }
+                    // La fila vive en el shard de su hotel; moverla a otro shard no se hace aquí
+                    if (userDetails.getHotel() != null && !shardDirectory.shardFor(userDetails.getHotel().getId())
+                            .equals(shardDirectory.shardFor(user.getHotel() != null ? user.getHotel().getId() : null))) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body("El hotel nuevo está en otro shard");
+                    }
+                    
+                    // Cambios que invalidan los tokens emitidos: username, rol, hotel y password
+                    // (el claim hotelId decide el shard y los tópicos STOMP permitidos)
+                    boolean credentialsChanged = false;
                     
                     // Actualizar username solo si cambió y no existe
                     if (userDetails.getUsername() != null && !userDetails.getUsername().equals(user.getUsername())) {
-                        if (userRepository.findByUsername(userDetails.getUsername()).isPresent()) {
+                        if (usernameTaken(userDetails.getUsername())) {
                             return ResponseEntity.badRequest().body("Username ya existe");
                         }
                         user.setUsername(userDetails.getUsername());
+                        credentialsChanged = true;
                     }
                     
                     // Actualizar campos permitidos
@@ -143,10 +232,15 @@ public class UserController {
                     if (userDetails.getEmail() != null) {
                         user.setEmail(userDetails.getEmail());
                     }
-                    if (userDetails.getRole() != null) {
+                    if (userDetails.getRole() != null && userDetails.getRole() != user.getRole()) {
                         user.setRole(userDetails.getRole());
+                        credentialsChanged = true;
                     }
                     if (userDetails.getHotel() != null) {
+                        Long currentHotelId = user.getHotel() != null ? user.getHotel().getId() : null;
+                        if (!Objects.equals(currentHotelId, userDetails.getHotel().getId())) {
+                            credentialsChanged = true;
+                        }
                         user.setHotel(userDetails.getHotel());
                     }
                     
@@ -156,8 +250,12 @@ public class UserController {
                             return ResponseEntity.badRequest().body("Password debe tener al menos 4 caracteres");
                         }
                         user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
+                        credentialsChanged = true;
                     }
                     
+                    if (credentialsChanged) {
+                        revokeTokens(user);
+                    }
                     user.setUpdatedAt(LocalDateTime.now());
                     User updatedUser = userRepository.save(user);
                     return ResponseEntity.ok(updatedUser);
@@ -169,6 +267,7 @@ public class UserController {
      * PATCH /api/users/{id}/activate
      * Activar/desactivar usuario
      */
+    @Transactional
     @PatchMapping("/{id}/activate")
     public ResponseEntity<?> toggleUserStatus(@PathVariable Long id, @RequestBody Boolean active) {
         return userRepository.findById(id)
@@ -178,9 +277,13 @@ public class UserController {
                         return ResponseEntity.badRequest().body("No se puede desactivar un usuario administrador");
                     }
                     
+                    if (!active) {
+                        revokeTokens(user);
+                    }
                     user.setActive(active);
                     user.setUpdatedAt(LocalDateTime.now());
                     User updatedUser = userRepository.save(user);
+                    userStateCache.invalidate(id);
                     return ResponseEntity.ok(updatedUser);
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -190,6 +293,7 @@ public class UserController {
      * DELETE /api/users/{id}
      * Eliminar usuario (soft delete - marca como inactivo)
      */
+    @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         return userRepository.findById(id)
@@ -200,6 +304,7 @@ public class UserController {
                     }
                     
                     // Soft delete: marcar como inactivo en lugar de eliminar
+                    revokeTokens(user);
                     user.setActive(false);
                     user.setUpdatedAt(LocalDateTime.now());
                     userRepository.save(user);
@@ -212,13 +317,30 @@ public class UserController {
      * DELETE /api/users/{id}/hard
      * Eliminar usuario permanentemente (solo para admin)
      */
+    @Transactional
     @DeleteMapping("/{id}/hard")
     public ResponseEntity<Void> hardDeleteUser(@PathVariable Long id) {
         return userRepository.findById(id)
                 .map(user -> {
                     userRepository.delete(user);
+                    userStateCache.invalidate(id);
                     return ResponseEntity.ok().<Void>build();
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
+    
+    /**
+     * Los usernames son únicos en todos los shards: el login busca en todos.
+     */
+    private boolean usernameTaken(String username) {
+        return !shardFanOut.collectAll(() -> userRepository.findByUsername(username).stream().toList()).isEmpty();
+    }
+    
+    /**
+     * Invalida los tokens ya emitidos del usuario: suben la versión y se descarta su estado en caché.
+     */
+    private void revokeTokens(User user) {
+        user.setTokenVersion((user.getTokenVersion() != null ? user.getTokenVersion() : 0) + 1);
+        userStateCache.invalidate(user.getId());
+    }
 }
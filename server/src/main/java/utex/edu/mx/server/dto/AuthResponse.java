@@ -13,4 +13,5 @@ public class AuthResponse {
     private String username;
     private String name;
     private String role;
+    private Long hotelId; // Partición de tópicos WebSocket a la que se suscribe el cliente
 }
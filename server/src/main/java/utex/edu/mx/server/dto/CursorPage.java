@@ -0,0 +1,91 @@
+package utex.edu.mx.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados con paginación por cursor (keyset sobre id).
+ * El cliente envía el nextCursor recibido para pedir la siguiente página
+ * mientras hasMore sea true. No se ejecuta ningún COUNT.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+    
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    
+    public static <T> CursorPage<T> of(Slice<T> slice, Function<T, Long> idOf) {
+        List<T> items = slice.getContent();
+        String next = slice.hasNext() && !items.isEmpty()
+                ? encodeCursor(idOf.apply(items.get(items.size() - 1)))
+                : null;
+        return new CursorPage<>(items, next, slice.hasNext());
+    }
+    
+    /**
+     * Une las páginas de varios shards pedidas con el mismo cursor y tamaño. Los ids no se
+     * repiten entre shards, así que basta ordenar por id y cortar en el tamaño pedido.
+     */
+    public static <T> CursorPage<T> merge(List<? extends Slice<T>> slices, Function<T, Long> idOf) {
+        if (slices.size() == 1) {
+            return of(slices.get(0), idOf);
+        }
+        int size = slices.get(0).getSize();
+        List<T> merged = new ArrayList<>();
+        boolean shardHasMore = false;
+        for (Slice<T> slice : slices) {
+            merged.addAll(slice.getContent());
+            shardHasMore |= slice.hasNext();
+        }
+        merged.sort(Comparator.comparing(idOf));
+        boolean hasMore = shardHasMore || merged.size() > size;
+        List<T> items = new ArrayList<>(merged.subList(0, Math.min(size, merged.size())));
+        String next = hasMore && !items.isEmpty() ? encodeCursor(idOf.apply(items.get(items.size() - 1))) : null;
+        return new CursorPage<>(items, next, hasMore);
+    }
+    
+    /**
+     * Primera página (sin orden adicional: las consultas ya ordenan por id)
+     * con el tamaño solicitado acotado a [1, MAX_LIMIT].
+     */
+    public static Pageable pageRequest(Integer limit) {
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        return PageRequest.of(0, size);
+    }
+    
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * @return último id visto, o 0 si no hay cursor
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package utex.edu.mx.server.dto;
+
+import utex.edu.mx.server.model.Room;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumen del tablero de estados (GET /api/dashboard/summary).
+ * Los conteos de habitaciones se agrupan por estado a nivel hotel, edificio y piso.
+ */
+public record DashboardSummary(
+        Map<Room.RoomStatus, Integer> rooms,
+        int openIncidents,
+        int blockedRooms,
+        List<BuildingSummary> buildings,
+        List<MaidSummary> maids) {
+
+    public record BuildingSummary(
+            Long buildingId,
+            Long hotelId,
+            Map<Room.RoomStatus, Integer> rooms,
+            int openIncidents,
+            List<FloorSummary> floors) {
+    }
+
+    public record FloorSummary(int floor, Map<Room.RoomStatus, Integer> rooms) {
+    }
+
+    public record MaidSummary(Long maidId, String name, int total, int clean) {
+    }
+}
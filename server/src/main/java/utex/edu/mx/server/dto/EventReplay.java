@@ -0,0 +1,18 @@
+package utex.edu.mx.server.dto;
+
+import tools.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Eventos WebSocket que un cliente se perdió mientras estaba desconectado, en orden de seq.
+ * epoch y latestSeq se guardan en el cliente para la siguiente reconexión. Con resetRequired
+ * los eventos ya no están en memoria (o el servidor se reinició) y el cliente debe recargar
+ * sus datos en lugar de aplicar cambios.
+ */
+public record EventReplay(
+        String epoch,
+        long latestSeq,
+        boolean resetRequired,
+        List<JsonNode> events) {
+}
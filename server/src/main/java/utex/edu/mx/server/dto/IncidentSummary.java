@@ -0,0 +1,23 @@
+package utex.edu.mx.server.dto;
+
+import utex.edu.mx.server.model.Incident;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de lectura de una incidencia para listados (sin fotos).
+ * Se construye directamente en la consulta JPQL, sin cargar entidades relacionadas.
+ */
+public record IncidentSummary(
+        Long id,
+        Long roomId,
+        String roomNumber,
+        Long reportedById,
+        String reportedByName,
+        String description,
+        Incident.IncidentStatus status,
+        String resolutionNotes,
+        LocalDateTime resolvedAt,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,36 @@
+package utex.edu.mx.server.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Evento del reporte de importación, uno por línea NDJSON en la respuesta:
+ * hotel/building (creado, con id), error (por línea), progress (tras cada lote) y done.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PropertyImportEvent(
+        String type,
+        long line,
+        Long id,
+        String message,
+        Long hotels,
+        Long buildings,
+        Long rooms,
+        Long errors,
+        Long millis) {
+
+    public static PropertyImportEvent created(String type, long line, Long id) {
+        return new PropertyImportEvent(type, line, id, null, null, null, null, null, null);
+    }
+
+    public static PropertyImportEvent error(long line, String message) {
+        return new PropertyImportEvent("error", line, null, message, null, null, null, null, null);
+    }
+
+    public static PropertyImportEvent progress(long line, long rooms, long errors) {
+        return new PropertyImportEvent("progress", line, null, null, null, null, rooms, errors, null);
+    }
+
+    public static PropertyImportEvent done(long line, long hotels, long buildings, long rooms, long errors, long millis) {
+        return new PropertyImportEvent("done", line, null, null, hotels, buildings, rooms, errors, millis);
+    }
+}
@@ -0,0 +1,27 @@
+package utex.edu.mx.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Una línea de importación de propiedad (POST /api/import/property).
+ * type es hotel, building o room; cada edificio pertenece al último hotel leído y cada
+ * habitación al último edificio. Con id se reutiliza un hotel o edificio existente.
+ *
+ * NDJSON: {"type":"room","number":"101","floor":1,"status":"CLEAN"}
+ * CSV: type,id,name,address,floors,number,floor,status
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PropertyImportLine {
+    private String type;
+    private Long id;
+    private String name;
+    private String address;
+    private Integer floors;
+    private String number;
+    private Integer floor;
+    private String status;
+}
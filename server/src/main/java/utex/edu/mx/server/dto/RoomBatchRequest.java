@@ -0,0 +1,29 @@
+package utex.edu.mx.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import utex.edu.mx.server.model.Room;
+
+import java.util.List;
+
+/**
+ * Cambios masivos de habitaciones (PATCH /api/rooms/batch).
+ * Cada cambio puede modificar el estado, la mucama asignada, o ambos.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoomBatchRequest {
+    private List<RoomChange> changes;
+    
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RoomChange {
+        private Long roomId;
+        private Room.RoomStatus status;
+        private Long maidId;
+        private Boolean unassign; // true para quitar la asignación
+    }
+}
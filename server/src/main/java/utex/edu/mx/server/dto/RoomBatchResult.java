@@ -0,0 +1,23 @@
+package utex.edu.mx.server.dto;
+
+import utex.edu.mx.server.model.Room;
+
+import java.util.List;
+
+/**
+ * Resultado por elemento de un cambio masivo de habitaciones.
+ */
+public record RoomBatchResult(int applied, int failed, List<Item> results) {
+
+    public record Item(Long roomId, boolean success, String error, Room.RoomStatus status, Long assignedToId) {
+
+        public static Item ok(Room room) {
+            return new Item(room.getId(), true, null, room.getStatus(),
+                    room.getAssignedTo() != null ? room.getAssignedTo().getId() : null);
+        }
+
+        public static Item error(Long roomId, String error) {
+            return new Item(roomId, false, error, null, null);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package utex.edu.mx.server.dto;
+
+import utex.edu.mx.server.model.Room;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de lectura de una habitación para listados y la lista de trabajo de mucamas.
+ * Se construye directamente en la consulta JPQL, sin cargar entidades relacionadas.
+ */
+public record RoomSummary(
+        Long id,
+        String number,
+        Integer floor,
+        Room.RoomStatus status,
+        Long buildingId,
+        String buildingName,
+        Long assignedToId,
+        String assignedToName,
+        LocalDateTime assignedAt,
+        LocalDateTime updatedAt) {
+}
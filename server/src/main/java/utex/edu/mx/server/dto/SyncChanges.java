@@ -0,0 +1,25 @@
+package utex.edu.mx.server.dto;
+
+import utex.edu.mx.server.model.Incident;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.SyncTombstone;
+
+import java.util.List;
+
+/**
+ * Página de cambios para sincronización incremental.
+ * nextToken se guarda en el cliente y se envía en la siguiente llamada; mientras hasMore
+ * sea true hay más cambios pendientes. Con resetRequired el cliente debe descartar su
+ * copia local, porque el token era demasiado antiguo y la página parte desde cero.
+ */
+public record SyncChanges(
+        List<Room> rooms,
+        List<Incident> incidents,
+        List<Deletion> deleted,
+        String nextToken,
+        boolean hasMore,
+        boolean resetRequired) {
+
+    public record Deletion(SyncTombstone.EntityType type, Long id) {
+    }
+}
@@ -0,0 +1,20 @@
+package utex.edu.mx.server.dto;
+
+import java.util.List;
+
+/**
+ * Resultado por fila de un alta masiva de usuarios, en el orden recibido (row empieza en 1).
+ */
+public record UserImportResult(int created, int failed, List<Item> results) {
+
+    public record Item(int row, String username, boolean success, Long userId, String error) {
+
+        public static Item ok(int row, String username, Long userId) {
+            return new Item(row, username, true, userId, null);
+        }
+
+        public static Item error(int row, String username, String error) {
+            return new Item(row, username, false, null, error);
+        }
+    }
+}
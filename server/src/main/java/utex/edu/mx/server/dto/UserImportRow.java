@@ -0,0 +1,21 @@
+package utex.edu.mx.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Una fila de alta masiva de usuarios (POST /api/users/bulk).
+ * En CSV las columnas son: username,password,name,email,role,hotelId
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportRow {
+    private String username;
+    private String password;
+    private String name;
+    private String email;
+    private String role;
+    private Long hotelId;
+}
@@ -1,56 +1,235 @@
 package utex.edu.mx.server.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import tools.jackson.databind.json.JsonMapper;
+import utex.edu.mx.server.model.Building;
+import utex.edu.mx.server.model.Incident;
+import utex.edu.mx.server.model.Room;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
 /**
- * DTO para notificaciones WebSocket
- * Enviado a clientes suscritos a /topic/notifications
+ * Evento WebSocket, versión 2 del esquema: {"v":2,"seq":...,"type":...,"ts":...,"actorId":...,"body":{...}}.
+ * El cuerpo trae solo el id, los campos que cambiaron y la versión nueva de la entidad
+ * (updatedAt en milisegundos, la misma marca que usa la sincronización), para que el cliente
+ * parchee su copia local sin volver a pedirla. El texto para mostrar lo arma el cliente a
+ * partir del tipo. Los campos nulos no se envían.
+ * seq es el número de secuencia del evento en su hotel (ver NotificationLog); con él el
+ * cliente pide al reconectarse solo lo que se perdió.
+ * Se serializa una sola vez; los mismos bytes van a todos los destinos.
  */
-public class WebSocketNotification {
-    private String type; // INCIDENT_CREATED, ROOM_UPDATED, USER_ASSIGNED, etc.
-    private String message;
-    private Object data;
-    private Long timestamp;
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"v", "seq", "type", "ts", "actorId", "body"})
+public final class WebSocketNotification {
+
+    public static final int SCHEMA_VERSION = 2;
 
-    public WebSocketNotification() {
-        this.timestamp = System.currentTimeMillis();
+    public enum Type {
+        ROOM_UPDATED, ROOM_STATUS_CHANGED, ROOM_REASSIGNED,
+        ROOMS_BATCH_UPDATED, ROOMS_AUTO_ASSIGNED, DAILY_RESET, MANUAL_RESET,
+        INCIDENT_CREATED, INCIDENT_UPDATED, INCIDENT_RESOLVED,
+        WORKLIST_UPDATED
     }
 
-    public WebSocketNotification(String type, String message, Object data) {
-        this.type = type;
-        this.message = message;
-        this.data = data;
-        this.timestamp = System.currentTimeMillis();
+    /**
+     * Cuerpos posibles de un evento.
+     */
+    public sealed interface Body permits RoomDelta, IncidentDelta, RoomsBatch, RoomsReset, RoomsAssigned, Worklist {
     }
 
-    // Getters y Setters
-    public String getType() {
-        return type;
+    /**
+     * Cambio de una habitación. unassigned=true indica que se quitó la mucama.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record RoomDelta(Long id, Long version, String number, Integer floor, Room.RoomStatus status,
+                            Long assignedToId, Boolean unassigned) implements Body {
+
+        /** Todos los campos editables (PUT) */
+        public static RoomDelta of(Room room) {
+            return new RoomDelta(room.getId(), versionOf(room.getUpdatedAt()), room.getNumber(), room.getFloor(),
+                    room.getStatus(), assignedToId(room), unassigned(room));
+        }
+
+        public static RoomDelta status(Room room) {
+            return new RoomDelta(room.getId(), versionOf(room.getUpdatedAt()), null, null, room.getStatus(), null, null);
+        }
+
+        public static RoomDelta assignment(Room room) {
+            return new RoomDelta(room.getId(), versionOf(room.getUpdatedAt()), null, null, null,
+                    assignedToId(room), unassigned(room));
+        }
+
+        /**
+         * Estado y asignación (cambios masivos)
+         */
+        public static RoomDelta statusAndAssignment(Room room) {
+            return new RoomDelta(room.getId(), versionOf(room.getUpdatedAt()), null, null, room.getStatus(),
+                    assignedToId(room), unassigned(room));
+        }
+
+        /**
+         * Une dos cambios seguidos de la misma habitación; los campos de next ganan.
+         */
+        public RoomDelta merge(RoomDelta next) {
+            boolean assignmentChanged = next.assignedToId != null || next.unassigned != null;
+            return new RoomDelta(id,
+                    version == null ? next.version : next.version == null ? version : Math.max(version, next.version),
+                    next.number != null ? next.number : number,
+                    next.floor != null ? next.floor : floor,
+                    next.status != null ? next.status : status,
+                    assignmentChanged ? next.assignedToId : assignedToId,
+                    assignmentChanged ? next.unassigned : unassigned);
+        }
+
+        private static Long assignedToId(Room room) {
+            return room.getAssignedTo() != null ? room.getAssignedTo().getId() : null;
+        }
+
+        private static Boolean unassigned(Room room) {
+            return room.getAssignedTo() == null ? Boolean.TRUE : null;
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record IncidentDelta(Long id, Long version, Long roomId, String roomNumber, Incident.IncidentStatus status,
+                                String description, Long reportedById, Integer photoCount) implements Body {
+
+        public static IncidentDelta created(Incident incident) {
+            Room room = incident.getRoom();
+            return new IncidentDelta(incident.getId(), versionOf(incident.getUpdatedAt()),
+                    room != null ? room.getId() : null, room != null ? room.getNumber() : null,
+                    incident.getStatus(), incident.getDescription(),
+                    incident.getReportedBy() != null ? incident.getReportedBy().getId() : null,
+                    incident.getPhotos().size());
+        }
+
+        public static IncidentDelta updated(Incident incident) {
+            return new IncidentDelta(incident.getId(), versionOf(incident.getUpdatedAt()), null, null,
+                    incident.getStatus(), incident.getDescription(), null, null);
+        }
+
+        public static IncidentDelta photos(Incident incident) {
+            return new IncidentDelta(incident.getId(), versionOf(incident.getUpdatedAt()), null, null,
+                    null, null, null, incident.getPhotos().size());
+        }
+
+        public static IncidentDelta resolved(Incident incident) {
+            Room room = incident.getRoom();
+            return new IncidentDelta(incident.getId(), versionOf(incident.getUpdatedAt()),
+                    room != null ? room.getId() : null, room != null ? room.getNumber() : null,
+                    incident.getStatus(), null, null, null);
+        }
     }
 
-    public void setType(String type) {
+    public record RoomsBatch(List<RoomDelta> rooms) implements Body {
+    }
+
+    public record RoomsReset(Long hotelId, int count) implements Body {
+    }
+
+    public record RoomsAssigned(Long hotelId, Map<Long, Integer> roomsPerMaid) implements Body {
+    }
+
+    /**
+     * Cambios en la lista de trabajo de una mucama; va solo a sus sesiones (ver WorklistNotifier).
+     */
+    public record Worklist(List<WorklistItem> items) implements Body {
+    }
+
+    /**
+     * Habitación de la lista de trabajo. Al asignarla trae lo necesario para mostrarla sin
+     * pedirla al backend; removed=true indica que ya no es de esta mucama.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record WorklistItem(Long id, Long version, String number, Integer floor, Room.RoomStatus status,
+                               Long buildingId, String buildingName, Boolean removed) {
+
+        public static WorklistItem of(Room room) {
+            Building building = room.getBuilding();
+            return new WorklistItem(room.getId(), versionOf(room.getUpdatedAt()), room.getNumber(), room.getFloor(),
+                    room.getStatus(), building != null ? building.getId() : null,
+                    building != null ? building.getName() : null, null);
+        }
+
+        public static WorklistItem status(Room room) {
+            return new WorklistItem(room.getId(), versionOf(room.getUpdatedAt()), null, null, room.getStatus(),
+                    null, null, null);
+        }
+
+        public static WorklistItem removed(Long roomId, Long version) {
+            return new WorklistItem(roomId, version, null, null, null, null, null, Boolean.TRUE);
+        }
+    }
+
+    private final Type type;
+    private final Long actorId;
+    private final Body body;
+    private final long ts;
+    private final Long seq;
+    @JsonIgnore
+    private volatile byte[] encoded;
+
+    public WebSocketNotification(Type type, Long actorId, Body body) {
+        this(type, actorId, body, System.currentTimeMillis(), null);
+    }
+
+    private WebSocketNotification(Type type, Long actorId, Body body, long ts, Long seq) {
         this.type = type;
+        this.actorId = actorId;
+        this.body = body;
+        this.ts = ts;
+        this.seq = seq;
+    }
+
+    /**
+     * Copia del evento con su número de secuencia
+     */
+    public WebSocketNotification withSeq(long seq) {
+        return new WebSocketNotification(type, actorId, body, ts, seq);
     }
 
-    public String getMessage() {
-        return message;
+    public int getV() {
+        return SCHEMA_VERSION;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public Type getType() {
+        return type;
     }
 
-    public void setMessage(String message) {
-        this.message = message;
+    public long getTs() {
+        return ts;
     }
 
-    public Object getData() {
-        return data;
+    public Long getActorId() {
+        return actorId;
     }
 
-    public void setData(Object data) {
-        this.data = data;
+    public Body getBody() {
+        return body;
     }
 
-    public Long getTimestamp() {
-        return timestamp;
+    /**
+     * JSON del evento; se calcula la primera vez y se reutiliza para cada destino.
+     */
+    public byte[] encode(JsonMapper jsonMapper) {
+        byte[] bytes = encoded;
+        if (bytes == null) {
+            bytes = jsonMapper.writeValueAsBytes(this);
+            encoded = bytes;
+        }
+        return bytes;
     }
 
-    public void setTimestamp(Long timestamp) {
-        this.timestamp = timestamp;
+    public static Long versionOf(LocalDateTime updatedAt) {
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null;
     }
 }
@@ -5,10 +5,15 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "buildings")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "buildings")
 @Data
 @NoArgsConstructor
@@ -25,7 +30,7 @@ public class Building {
     @Column
     private Integer floors;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "hotel_id", nullable = false)
     @JsonIgnoreProperties({"buildings"})
     private Hotel hotel;
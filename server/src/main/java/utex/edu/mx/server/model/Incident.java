@@ -1,14 +1,21 @@
 package utex.edu.mx.server.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "incidents")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "incidents", indexes = {
+    @Index(name = "idx_incidents_updated_at", columnList = "updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,12 +25,12 @@ public class Incident {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id", nullable = false)
     @JsonIgnoreProperties({"building", "assignedTo"})
     private Room room;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "reported_by", nullable = false)
     @JsonIgnoreProperties({"password", "hotel"})
     private User reportedBy;
@@ -35,8 +42,17 @@ public class Incident {
     @Column(nullable = false)
     private IncidentStatus status = IncidentStatus.OPEN;
     
+    @JsonIgnore
     @Column(name = "photos", columnDefinition = "TEXT")
-    private String photos; // JSON array of base64 images
+    private String legacyPhotos; // JSON array de base64 anterior al almacén de fotos; PhotoMigrationService lo vacía
+    
+    @JsonIgnore
+    @Column(name = "photo_refs", length = 2000)
+    private String photoRefs; // "id:sha256,..." de incident_photos, para no consultar esa tabla en los listados
+    
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private List<String> photoData; // Fotos nuevas (data URL o base64), solo de entrada
     
     @Column(name = "resolution_notes", length = 2000)
     private String resolutionNotes;
@@ -50,6 +66,22 @@ public class Incident {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
     
+    /**
+     * Fotos como id y URL; el binario se descarga aparte desde /api/photos/{sha256}.
+     */
+    @JsonProperty(value = "photos", access = JsonProperty.Access.READ_ONLY)
+    public List<IncidentPhoto.Ref> getPhotos() {
+        if (photoRefs == null || photoRefs.isBlank()) {
+            return List.of();
+        }
+        List<IncidentPhoto.Ref> refs = new ArrayList<>();
+        for (String entry : photoRefs.split(",")) {
+            int sep = entry.indexOf(':');
+            refs.add(IncidentPhoto.Ref.of(Long.valueOf(entry.substring(0, sep)), entry.substring(sep + 1)));
+        }
+        return refs;
+    }
+    
     public enum IncidentStatus {
         OPEN, RESOLVED
     }
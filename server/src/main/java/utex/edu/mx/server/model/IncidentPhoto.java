@@ -0,0 +1,67 @@
+package utex.edu.mx.server.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Foto de una incidencia. El binario vive en el almacén de fotos (PhotoStore), nombrado
+ * por su SHA-256, así que varias filas pueden apuntar al mismo archivo.
+ */
+@Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "incident_photos", indexes = {
+    @Index(name = "idx_incident_photos_incident", columnList = "incident_id"),
+    @Index(name = "idx_incident_photos_sha256", columnList = "sha256")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentPhoto {
+    
+    public static final String URL_PREFIX = "/api/photos/";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "incident_id", nullable = false)
+    private Incident incident;
+    
+    @Column(nullable = false, length = 64)
+    private String sha256;
+    
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+    
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+    
+    @Column(nullable = false)
+    private Integer position;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    /**
+     * Referencia ligera que viaja en el JSON de la incidencia en lugar del binario:
+     * original, miniatura para listados y versión web para el detalle.
+     */
+    public record Ref(Long id, String url, String thumbnailUrl, String webUrl) {
+        
+        public static Ref of(Long id, String sha256) {
+            String url = URL_PREFIX + sha256;
+            return new Ref(id, url, url + "?size=thumb", url + "?size=web");
+        }
+    }
+    
+    public Ref toRef() {
+        return Ref.of(id, sha256);
+    }
+}
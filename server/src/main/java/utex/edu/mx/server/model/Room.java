@@ -8,7 +8,10 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "rooms")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "rooms", indexes = {
+    @Index(name = "idx_rooms_updated_at", columnList = "updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,12 +31,12 @@ public class Room {
     @Column(nullable = false)
     private RoomStatus status = RoomStatus.DIRTY;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "building_id", nullable = false)
     @JsonIgnoreProperties({"rooms", "hotel"})
     private Building building;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_to")
     @JsonIgnoreProperties({"password", "rooms"})
     private User assignedTo;
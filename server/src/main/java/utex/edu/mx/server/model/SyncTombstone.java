@@ -0,0 +1,39 @@
+package utex.edu.mx.server.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Registro de una eliminación, para que los clientes offline la reciban en la
+ * sincronización incremental (GET /api/sync/changes).
+ */
+@Entity
+@Table(name = "sync_tombstones", indexes = {
+    @Index(name = "idx_sync_tombstones_deleted_at", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncTombstone {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private EntityType entityType;
+    
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt = LocalDateTime.now();
+    
+    public enum EntityType {
+        ROOM, INCIDENT
+    }
+}
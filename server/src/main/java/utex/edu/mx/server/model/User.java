@@ -7,10 +7,15 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "users")
 @Data
 @NoArgsConstructor
@@ -38,7 +43,7 @@ public class User {
     @Column(nullable = false)
     private Role role;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "hotel_id")
     @JsonIgnoreProperties({"buildings"})
     private Hotel hotel;
@@ -46,6 +51,10 @@ public class User {
     @Column(name = "active")
     private Boolean active = true;
     
+    @JsonIgnore
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0; // Se incrementa al desactivar o cambiar rol/credenciales: invalida tokens previos
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
     
@@ -1,11 +1,25 @@
 package utex.edu.mx.server.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import utex.edu.mx.server.model.Building;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface BuildingRepository extends JpaRepository<Building, Long> {
     List<Building> findByHotelId(Long hotelId);
+    
+    @Query("select distinct b.hotel.id from Building b")
+    List<Long> findDistinctHotelIds();
+    
+    @Query("select b.hotel.id from Building b where b.id = :id")
+    Optional<Long> findHotelIdById(@Param("id") Long id);
+    
+    @Query("select b.id from Building b where b.hotel.id = :hotelId order by b.id")
+    List<Long> findIdsByHotelId(@Param("hotelId") Long hotelId);
 }
@@ -2,8 +2,10 @@ package utex.edu.mx.server.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import utex.edu.mx.server.model.Hotel;
 
 @Repository
+@Transactional(readOnly = true)
 public interface HotelRepository extends JpaRepository<Hotel, Long> {
 }
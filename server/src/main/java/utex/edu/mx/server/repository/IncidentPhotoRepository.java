@@ -0,0 +1,19 @@
+package utex.edu.mx.server.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import utex.edu.mx.server.model.IncidentPhoto;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Transactional(readOnly = true)
+public interface IncidentPhotoRepository extends JpaRepository<IncidentPhoto, Long> {
+    List<IncidentPhoto> findByIncidentIdOrderByPosition(Long incidentId);
+    Optional<IncidentPhoto> findFirstBySha256(String sha256);
+    long countByIncidentId(Long incidentId);
+    
+    @Transactional
+    void deleteByIncidentId(Long incidentId);
+}
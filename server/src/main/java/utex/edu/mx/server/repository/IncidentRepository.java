@@ -1,13 +1,87 @@
 package utex.edu.mx.server.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import utex.edu.mx.server.dto.IncidentSummary;
 import utex.edu.mx.server.model.Incident;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface IncidentRepository extends JpaRepository<Incident, Long> {
+    
+    // Plan de carga de las entidades que se serializan completas en la API y por WebSocket
+    @Override
+    @EntityGraph(attributePaths = {"room", "reportedBy"})
+    List<Incident> findAll();
+    
+    @Override
+    @EntityGraph(attributePaths = {"room", "reportedBy"})
+    Optional<Incident> findById(Long id);
+    
+    @EntityGraph(attributePaths = {"room", "reportedBy"})
     List<Incident> findByRoomId(Long roomId);
+    
+    @EntityGraph(attributePaths = {"room", "reportedBy"})
     List<Incident> findByReportedById(Long userId);
+    
+    @EntityGraph(attributePaths = {"room", "reportedBy"})
     List<Incident> findByStatus(Incident.IncidentStatus status);
+    
+    /**
+     * Ids de incidencias que aún guardan fotos en base64 en la columna antigua, por bloques.
+     */
+    @Query("select i.id from Incident i where i.legacyPhotos is not null and i.id > :afterId order by i.id")
+    List<Long> findIdsWithLegacyPhotos(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Cambios desde una marca (updatedAt, id) hasta el límite indicado, para sincronización incremental.
+     */
+    @EntityGraph(attributePaths = {"room", "reportedBy"})
+    @Query("select i from Incident i " +
+           "where (i.updatedAt > :since or (i.updatedAt = :since and i.id > :afterId)) and i.updatedAt <= :until " +
+           "order by i.updatedAt, i.id")
+    Slice<Incident> findChangedSince(@Param("since") LocalDateTime since,
+                                     @Param("afterId") Long afterId,
+                                     @Param("until") LocalDateTime until,
+                                     Pageable pageable);
+    
+    /**
+     * Filas compactas para el tablero de estados: [incidentId, hotelId, buildingId, roomId]
+     */
+    @Query("select i.id, b.hotel.id, b.id, r.id from Incident i join i.room r join r.building b " +
+           "where i.status = :status")
+    List<Object[]> findStatusBoardRows(@Param("status") Incident.IncidentStatus status);
+    
+    long countByStatus(Incident.IncidentStatus status);
+    
+    /**
+     * Página por cursor (id > afterId) con filtros opcionales; los parámetros nulos no filtran.
+     */
+    @Query("select new utex.edu.mx.server.dto.IncidentSummary(i.id, r.id, r.number, u.id, u.name, " +
+           "i.description, i.status, i.resolutionNotes, i.resolvedAt, i.createdAt, i.updatedAt) " +
+           "from Incident i join i.room r join i.reportedBy u where i.id > :afterId " +
+           "and (:status is null or i.status = :status) " +
+           "and (:roomId is null or r.id = :roomId) " +
+           "and (:buildingId is null or r.building.id = :buildingId) " +
+           "and (:reportedBy is null or u.id = :reportedBy) " +
+           "and (:createdFrom is null or i.createdAt >= :createdFrom) " +
+           "and (:createdTo is null or i.createdAt < :createdTo) " +
+           "order by i.id")
+    Slice<IncidentSummary> findSlice(@Param("afterId") Long afterId,
+                                     @Param("status") Incident.IncidentStatus status,
+                                     @Param("roomId") Long roomId,
+                                     @Param("buildingId") Long buildingId,
+                                     @Param("reportedBy") Long reportedBy,
+                                     @Param("createdFrom") LocalDateTime createdFrom,
+                                     @Param("createdTo") LocalDateTime createdTo,
+                                     Pageable pageable);
 }
@@ -1,13 +1,138 @@
 package utex.edu.mx.server.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import utex.edu.mx.server.dto.RoomSummary;
 import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.User;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface RoomRepository extends JpaRepository<Room, Long> {
+    
+    // Plan de carga de las entidades que se serializan completas en la API y por WebSocket
+    @Override
+    @EntityGraph(attributePaths = {"building", "assignedTo", "assignedTo.hotel"})
+    List<Room> findAll();
+    
+    @Override
+    @EntityGraph(attributePaths = {"building", "assignedTo", "assignedTo.hotel"})
+    Optional<Room> findById(Long id);
+    
+    @EntityGraph(attributePaths = {"building", "assignedTo", "assignedTo.hotel"})
     List<Room> findByBuildingId(Long buildingId);
+    
+    @EntityGraph(attributePaths = {"building", "assignedTo", "assignedTo.hotel"})
     List<Room> findByStatus(Room.RoomStatus status);
+    
+    @EntityGraph(attributePaths = {"building", "assignedTo", "assignedTo.hotel"})
     List<Room> findByAssignedToId(Long maidId);
+    
+    /**
+     * Cambios desde una marca (updatedAt, id) hasta el límite indicado, para sincronización incremental.
+     */
+    @EntityGraph(attributePaths = {"building", "assignedTo", "assignedTo.hotel"})
+    @Query("select r from Room r " +
+           "where (r.updatedAt > :since or (r.updatedAt = :since and r.id > :afterId)) and r.updatedAt <= :until " +
+           "order by r.updatedAt, r.id")
+    Slice<Room> findChangedSince(@Param("since") LocalDateTime since,
+                                 @Param("afterId") Long afterId,
+                                 @Param("until") LocalDateTime until,
+                                 Pageable pageable);
+    
+    /**
+     * Lista de trabajo de una mucama, ordenada por edificio, piso y número.
+     */
+    @Query("select new utex.edu.mx.server.dto.RoomSummary(r.id, r.number, r.floor, r.status, " +
+           "b.id, b.name, m.id, m.name, r.assignedAt, r.updatedAt) " +
+           "from Room r join r.building b join r.assignedTo m " +
+           "where m.id = :maidId order by b.id, r.floor, r.number")
+    List<RoomSummary> findWorklistByMaidId(@Param("maidId") Long maidId);
+    
+    /**
+     * Página por cursor (id > afterId) con filtros opcionales; los parámetros nulos no filtran.
+     */
+    @Query("select new utex.edu.mx.server.dto.RoomSummary(r.id, r.number, r.floor, r.status, " +
+           "b.id, b.name, m.id, m.name, r.assignedAt, r.updatedAt) " +
+           "from Room r join r.building b left join r.assignedTo m where r.id > :afterId " +
+           "and (:status is null or r.status = :status) " +
+           "and (:buildingId is null or b.id = :buildingId) " +
+           "and (:floor is null or r.floor = :floor) " +
+           "and (:maidId is null or m.id = :maidId) " +
+           "and (:updatedFrom is null or r.updatedAt >= :updatedFrom) " +
+           "and (:updatedTo is null or r.updatedAt < :updatedTo) " +
+           "order by r.id")
+    Slice<RoomSummary> findSlice(@Param("afterId") Long afterId,
+                                 @Param("status") Room.RoomStatus status,
+                                 @Param("buildingId") Long buildingId,
+                                 @Param("floor") Integer floor,
+                                 @Param("maidId") Long maidId,
+                                 @Param("updatedFrom") LocalDateTime updatedFrom,
+                                 @Param("updatedTo") LocalDateTime updatedTo,
+                                 Pageable pageable);
+    
+    /**
+     * Filas compactas para reconstruir el tablero de estados:
+     * [roomId, hotelId, buildingId, floor, status, maidId, maidName]
+     */
+    @Query("select r.id, b.hotel.id, b.id, r.floor, r.status, m.id, m.name " +
+           "from Room r join r.building b left join r.assignedTo m")
+    List<Object[]> findStatusBoardRows();
+    
+    /**
+     * Conteo por edificio, piso y estado: [buildingId, floor, status, count]
+     */
+    @Query("select r.building.id, r.floor, r.status, count(r) from Room r " +
+           "group by r.building.id, r.floor, r.status")
+    List<Object[]> countByBuildingFloorAndStatus();
+    
+    /**
+     * Filas compactas para el motor de asignación: [roomId, buildingId, floor, number, maidId]
+     */
+    @Query("select r.id, b.id, r.floor, r.number, m.id " +
+           "from Room r join r.building b left join r.assignedTo m " +
+           "where b.hotel.id = :hotelId and r.status = :status")
+    List<Object[]> findAssignmentRows(@Param("hotelId") Long hotelId, @Param("status") Room.RoomStatus status);
+    
+    /**
+     * Asigna todas las habitaciones indicadas a una mucama en una sola sentencia UPDATE.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Room r set r.assignedTo = :maid, r.assignedAt = :now, r.updatedAt = :now where r.id in :ids")
+    int bulkAssign(@Param("maid") User maid, @Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    /**
+     * Rango de ids [min, max] de las habitaciones de un edificio con el estado dado.
+     * Se usa para dividir las actualizaciones masivas en bloques acotados.
+     */
+    @Query("select min(r.id), max(r.id) from Room r where r.building.id = :buildingId and r.status = :status")
+    List<Object[]> findIdRangeByBuildingIdAndStatus(@Param("buildingId") Long buildingId,
+                                                    @Param("status") Room.RoomStatus status);
+    
+    /**
+     * Cambia de estado, en una sola sentencia UPDATE, las habitaciones de un edificio
+     * cuyo id cae dentro del rango indicado. No carga entidades.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Room r set r.status = :to, r.updatedAt = :now " +
+           "where r.building.id = :buildingId and r.status = :from and r.id between :fromId and :toId")
+    int bulkUpdateStatus(@Param("buildingId") Long buildingId,
+                         @Param("from") Room.RoomStatus from,
+                         @Param("to") Room.RoomStatus to,
+                         @Param("fromId") Long fromId,
+                         @Param("toId") Long toId,
+                         @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,26 @@
+package utex.edu.mx.server.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import utex.edu.mx.server.model.SyncTombstone;
+import java.time.LocalDateTime;
+
+@Repository
+@Transactional(readOnly = true)
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+    Slice<SyncTombstone> findByIdGreaterThanAndDeletedAtLessThanEqualOrderByIdAsc(Long afterId, LocalDateTime until, Pageable pageable);
+    
+    @Query("select coalesce(max(t.id), 0) from SyncTombstone t")
+    Long findMaxId();
+    
+    @Transactional
+    @Modifying
+    @Query("delete from SyncTombstone t where t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
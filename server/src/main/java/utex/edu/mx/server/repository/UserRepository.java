@@ -1,16 +1,96 @@
 package utex.edu.mx.server.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.service.ReferenceDataCache;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+    
+    // Plan de carga de las entidades que se serializan completas en la API
+    @Override
+    @EntityGraph(attributePaths = {"hotel"})
+    List<User> findAll();
+    
+    @Override
+    @EntityGraph(attributePaths = {"hotel"})
+    Optional<User> findById(Long id);
+    
+    // Vistas de equipo: resultados en la caché de consultas (región user-lookups). Se invalidan solos
+    // con cualquier escritura a users u hotels por JPA; los INSERT por JDBC llaman a ReferenceDataCache.
+    // Con varios shards la caché de consultas está apagada (ver EntityCacheConfig) y los hints no tienen efecto.
+    @EntityGraph(attributePaths = {"hotel"})
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.USER_LOOKUPS)
+    })
     List<User> findByRole(User.Role role);
+    
+    @EntityGraph(attributePaths = {"hotel"})
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.USER_LOOKUPS)
+    })
     List<User> findByHotelId(Long hotelId);
+    
+    /**
+     * Personal activo de un hotel con un rol (asignación automática); usa idx_users_hotel_role.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.USER_LOOKUPS)
+    })
+    List<User> findByHotelIdAndRoleAndActiveTrue(Long hotelId, User.Role role);
+    
+    @EntityGraph(attributePaths = {"hotel"})
     List<User> findByActive(Boolean active);
     Boolean existsByUsername(String username);
+    
+    /**
+     * Usernames del conjunto que ya existen, en una sola consulta.
+     */
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+    
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+    
+    /**
+     * Estado mínimo para autorizar peticiones: [active, role, tokenVersion].
+     */
+    @Query("select u.active, u.role, u.tokenVersion from User u where u.id = :id")
+    List<Object[]> findAuthStateById(@Param("id") Long id);
+    
+    /**
+     * Página por cursor (id > afterId) con filtros opcionales; los parámetros nulos no filtran.
+     */
+    @EntityGraph(attributePaths = {"hotel"})
+    @Query("select u from User u where u.id > :afterId " +
+           "and (:role is null or u.role = :role) " +
+           "and (:hotelId is null or u.hotel.id = :hotelId) " +
+           "and (:active is null or u.active = :active) " +
+           "order by u.id")
+    Slice<User> findSlice(@Param("afterId") Long afterId,
+                          @Param("role") User.Role role,
+                          @Param("hotelId") Long hotelId,
+                          @Param("active") Boolean active,
+                          Pageable pageable);
 }
@@ -7,19 +7,27 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import utex.edu.mx.server.config.ShardContext;
+import utex.edu.mx.server.config.ShardDirectory;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    /** Un administrador sin hotel elige con esta cabecera el hotel (y por lo tanto el shard) de la petición */
+    public static final String HOTEL_HEADER = "X-Hotel-Id";
+    
     private final JwtService jwtService;
-    private final CustomUserDetailsService userDetailsService;
+    private final UserStateCache userStateCache;
+    private final ShardDirectory shardDirectory;
     
     @Override
     protected void doFilterInternal(
@@ -29,31 +37,52 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
         
-        jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        // Una sola verificación por token (y ninguna si ya está en caché); el principal
+        // sale de los claims y el estado del usuario de UserStateCache, sin consultar la BD
+        Optional<JwtPrincipal> principal = jwtService.verify(authHeader.substring(7));
         
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            
-            if (jwtService.validateToken(jwt, userDetails)) {
+        // Shard de la petición: el del hotel del usuario; un administrador trabaja sobre todos
+        // (las consultas de listado recorren cada shard) salvo que elija un hotel con la cabecera
+        String shard;
+        try {
+            shard = principal.map(p -> requestShard(p, request)).orElse(null);
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, HOTEL_HEADER + " inválido");
+            return;
+        }
+        try {
+            // El usuario vive en el shard de su propio hotel
+            if (principal.isPresent()
+                    && ShardContext.runOn(shardDirectory.shardFor(principal.get().hotelId()),
+                            () -> userStateCache.isCurrent(principal.get()))
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal.get(),
                         null,
-                        userDetails.getAuthorities()
+                        List.of(new SimpleGrantedAuthority("ROLE_" + principal.get().role()))
                 );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
+            
+            ShardContext.bind(shard);
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardContext.clear();
         }
-        
-        filterChain.doFilter(request, response);
+    }
+    
+    private String requestShard(JwtPrincipal principal, HttpServletRequest request) {
+        if (!"ADMIN".equals(principal.role())) {
+            return shardDirectory.shardFor(principal.hotelId());
+        }
+        String header = request.getHeader(HOTEL_HEADER);
+        return header != null && !header.isBlank() ? shardDirectory.shardFor(Long.valueOf(header.trim())) : null;
     }
 }
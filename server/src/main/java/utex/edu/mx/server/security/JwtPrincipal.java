@@ -0,0 +1,21 @@
+package utex.edu.mx.server.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Datos de un token ya verificado. Inmutable: se comparte entre peticiones desde la
+ * caché de JwtService y es el principal de la autenticación (sin consultar la base de datos).
+ */
+public record JwtPrincipal(String username, Long userId, String role, Long hotelId, int tokenVersion,
+                           Instant issuedAt, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
@@ -6,53 +6,98 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Emisión y verificación de JWT.
+ * La clave HMAC y el parser se construyen una sola vez. Cada token se verifica y
+ * se interpreta una vez y el resultado (JwtPrincipal) se guarda en una caché acotada,
+ * indexada por el SHA-256 del token, hasta que el token expira.
+ */
 @Service
 public class JwtService {
     
-    @Value("${jwt.secret}")
-    private String secret;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Long expiration;
+    private final int cacheMaxEntries;
+    private final Map<ByteBuffer, JwtPrincipal> verified = new ConcurrentHashMap<>();
     
-    @Value("${jwt.expiration}")
-    private Long expiration;
-    
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
-    }
-    
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public JwtService(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.expiration}") Long expiration,
+                      @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.expiration = expiration;
+        this.cacheMaxEntries = cacheMaxEntries;
     }
     
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Verifica firma y expiración del token.
+     *
+     * @return el principal, o vacío si el token es inválido o expiró
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        Instant now = Instant.now();
+        ByteBuffer key = digest(token);
+        JwtPrincipal cached = verified.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return Optional.of(cached);
+            }
+            verified.remove(key);
+            return Optional.empty();
+        }
+        
+        JwtPrincipal principal = parse(token);
+        if (principal == null || principal.isExpired(now)) {
+            return Optional.empty();
+        }
+        remember(key, principal, now);
+        return Optional.of(principal);
     }
     
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-    
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-    
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Verificación sin caché: firma, expiración y lectura de claims en un solo paso.
+     *
+     * @return el principal, o null si el token no es válido
+     */
+    public JwtPrincipal parse(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Object userId = claims.get("userId");
+            Object hotelId = claims.get("hotelId");
+            Object version = claims.get("ver");
+            return new JwtPrincipal(
+                    claims.getSubject(),
+                    userId instanceof Number n ? n.longValue() : null,
+                    claims.get("role", String.class),
+                    hotelId instanceof Number h ? h.longValue() : null,
+                    version instanceof Number v ? v.intValue() : 0,
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
     
     public String generateToken(UserDetails userDetails, Map<String, Object> extraClaims) {
         return createToken(extraClaims, userDetails.getUsername());
     }
     
+    public String generateToken(String username, Map<String, Object> extraClaims) {
+        return createToken(extraClaims, username);
+    }
+    
     public String generateToken(UserDetails userDetails) {
         return generateToken(userDetails, new HashMap<>());
     }
@@ -63,12 +108,26 @@ public class JwtService {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    private void remember(ByteBuffer key, JwtPrincipal principal, Instant now) {
+        if (verified.size() >= cacheMaxEntries) {
+            // Primero se descartan los expirados; si no alcanza, se vacía la caché
+            verified.values().removeIf(p -> p.isExpired(now));
+            if (verified.size() >= cacheMaxEntries) {
+                verified.clear();
+            }
+        }
+        verified.put(key, principal);
+    }
+    
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
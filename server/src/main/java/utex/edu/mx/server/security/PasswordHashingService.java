@@ -0,0 +1,153 @@
+package utex.edu.mx.server.security;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ejecuta BCrypt fuera de los hilos de Tomcat, en un pool de tamaño fijo con cola
+ * acotada. Cuando la cola se llena la petición se rechaza de inmediato en lugar de
+ * esperar, para que un pico de logins (cambio de turno) no bloquee el resto de la API.
+ * Si el costo configurado cambió, el hash se recalcula tras un login correcto.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int strength;
+    private final int queueCapacity;
+    private final String dummyHash;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong rehashed = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Resultado de verificar un password; rehashed trae el nuevo hash si hay que guardarlo.
+     */
+    public record VerifyResult(boolean matches, String rehashed) {
+    }
+
+    public record Metrics(int threads, int active, int queueDepth, int queueCapacity,
+                          long completed, long rejected, long rehashed,
+                          double avgMillis, double maxMillis, int bcryptStrength) {
+    }
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${auth.hashing.threads:0}") int threads,
+                                  @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${auth.bcrypt.strength:10}") int strength) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Usuario inexistente: se compara contra este hash para que la respuesta tarde lo mismo
+        this.dummyHash = passwordEncoder.encode("dummy-password");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Compara el password con el hash guardado en el pool de hashing.
+     * Con encoded null se hace el mismo trabajo y el resultado es siempre falso.
+     * El futuro falla con RejectedExecutionException si la cola está llena.
+     */
+    public CompletableFuture<VerifyResult> verify(String rawPassword, String encoded) {
+        return submit(() -> {
+            String raw = rawPassword != null ? rawPassword : "";
+            if (encoded == null) {
+                passwordEncoder.matches(raw, dummyHash);
+                return new VerifyResult(false, null);
+            }
+            if (!passwordEncoder.matches(raw, encoded)) {
+                return new VerifyResult(false, null);
+            }
+            if (needsRehash(encoded)) {
+                rehashed.incrementAndGet();
+                return new VerifyResult(true, passwordEncoder.encode(raw));
+            }
+            return new VerifyResult(true, null);
+        });
+    }
+
+    /**
+     * Calcula el hash de un password nuevo en el pool de hashing.
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * true si el hash es BCrypt con un costo distinto al configurado.
+     */
+    public boolean needsRehash(String encoded) {
+        Matcher matcher = BCRYPT_COST.matcher(encoded);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    public Metrics metrics() {
+        long done = completed.get();
+        return new Metrics(
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                done,
+                rejected.get(),
+                rehashed.get(),
+                done == 0 ? 0 : totalNanos.get() / (double) done / 1_000_000,
+                maxNanos.get() / 1_000_000.0,
+                strength);
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    future.complete(task.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    completed.incrementAndGet();
+                    totalNanos.addAndGet(elapsed);
+                    maxNanos.accumulate(elapsed);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("Cola de hashing llena ({} en espera), petición rechazada", executor.getQueue().size());
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
@@ -0,0 +1,94 @@
+package utex.edu.mx.server.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import utex.edu.mx.server.config.ShardContext;
+import utex.edu.mx.server.config.ShardDirectory;
+import utex.edu.mx.server.config.StompTopics;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Autenticación y autorización de la sesión STOMP. El handshake HTTP de /ws es público
+ * (SockJS no puede enviar cabeceras); el JWT llega en la cabecera Authorization del frame
+ * CONNECT y se valida igual que en {@link JwtAuthenticationFilter}. Cada SUBSCRIBE debe
+ * apuntar a una partición de {@link StompTopics} del hotel del token (un ADMIN puede elegir
+ * cualquiera) o a la lista de trabajo propia ({@link StompTopics#WORKLIST}); los destinos
+ * /queue ya resueltos de otras sesiones no se aceptan. Los clientes solo pueden enviar a
+ * /app, nunca directo al broker.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final JwtService jwtService;
+    private final UserStateCache userStateCache;
+    private final ShardDirectory shardDirectory;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        switch (accessor.getCommand()) {
+            case CONNECT -> accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+            case SUBSCRIBE -> authorizeSubscription(principal(accessor), accessor.getDestination());
+            case SEND -> {
+                String destination = accessor.getDestination();
+                if (destination == null || !destination.startsWith("/app/")) {
+                    throw new AccessDeniedException("Solo se puede enviar a /app");
+                }
+            }
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new AccessDeniedException("Se requiere un token en el frame CONNECT");
+        }
+        Optional<JwtPrincipal> verified = jwtService.verify(authHeader.substring(7));
+        JwtPrincipal principal = verified
+                .filter(p -> ShardContext.runOn(shardDirectory.shardFor(p.hotelId()), () -> userStateCache.isCurrent(p)))
+                .orElseThrow(() -> new AccessDeniedException("Token inválido o revocado"));
+        return new UsernamePasswordAuthenticationToken(principal, null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + principal.role())));
+    }
+
+    private static JwtPrincipal principal(StompHeaderAccessor accessor) {
+        Principal user = accessor.getUser();
+        if (user instanceof UsernamePasswordAuthenticationToken token && token.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal;
+        }
+        throw new AccessDeniedException("Sesión STOMP sin autenticar");
+    }
+
+    static void authorizeSubscription(JwtPrincipal principal, String destination) {
+        if (StompTopics.WORKLIST.equals(destination)) {
+            return;
+        }
+        Long hotelId = StompTopics.hotelOfDestination(destination);
+        if (hotelId == null) {
+            throw new AccessDeniedException("Destino no permitido: " + destination);
+        }
+        if (!"ADMIN".equals(principal.role()) && !hotelId.equals(principal.hotelId())) {
+            log.warn("Suscripción rechazada: {} (hotel {}) a {}", principal.username(), principal.hotelId(), destination);
+            throw new AccessDeniedException("Destino de otro hotel: " + destination);
+        }
+    }
+}
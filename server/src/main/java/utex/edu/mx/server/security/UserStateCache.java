@@ -0,0 +1,103 @@
+package utex.edu.mx.server.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado de autorización de cada usuario (activo, rol, versión de token) en memoria.
+ * El filtro JWT lo consulta en lugar de cargar el usuario en cada petición: la base de
+ * datos se lee como mucho una vez por usuario y TTL. UserController invalida la entrada
+ * al confirmar un cambio, así que en este nodo la revocación es inmediata; en otros
+ * nodos tarda como máximo el TTL.
+ * La consulta se hace fuera del mapa, sin retener el bloqueo de su casilla (ni fijar el
+ * carrier de un hilo virtual) mientras dura el viaje a la base de datos.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStateCache {
+
+    private final UserRepository userRepository;
+    private final Map<Long, UserState> states = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Value("${auth.user-state.ttl-seconds:60}")
+    private long ttlSeconds = 60;
+
+    /**
+     * Estado conocido de un usuario; exists=false si ya no está en la base de datos.
+     */
+    public record UserState(boolean exists, boolean active, String role, int tokenVersion, long loadedAt) {
+    }
+
+    /**
+     * true si el token sigue vigente para el estado actual del usuario: activo, mismo rol
+     * y versión de token no anterior a la registrada.
+     */
+    public boolean isCurrent(JwtPrincipal principal) {
+        if (principal.userId() == null) {
+            return false;
+        }
+        UserState state = get(principal.userId());
+        return state.exists()
+                && state.active()
+                && state.role() != null && state.role().equals(principal.role())
+                && principal.tokenVersion() >= state.tokenVersion();
+    }
+
+    public UserState get(Long userId) {
+        long now = System.nanoTime();
+        long ttl = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        UserState cached = states.get(userId);
+        if (cached != null && now - cached.loadedAt() < ttl) {
+            return cached;
+        }
+        long generation = invalidations.get();
+        UserState loaded = load(userId, now);
+        // Si hubo una invalidación durante la consulta, lo leído puede ser anterior al cambio
+        if (invalidations.get() == generation) {
+            states.merge(userId, loaded, (current, fresh) -> current.loadedAt() - fresh.loadedAt() > 0 ? current : fresh);
+        }
+        return loaded;
+    }
+
+    /**
+     * Descarta el estado del usuario ahora y, si hay transacción, otra vez al confirmarla
+     * (para no volver a cachear el valor anterior mientras la transacción sigue abierta).
+     */
+    public void invalidate(Long userId) {
+        invalidations.incrementAndGet();
+        states.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidations.incrementAndGet();
+                    states.remove(userId);
+                }
+            });
+        }
+    }
+
+    private UserState load(Long userId, long now) {
+        List<Object[]> rows = userRepository.findAuthStateById(userId);
+        if (rows.isEmpty()) {
+            return new UserState(false, false, null, 0, now);
+        }
+        Object[] row = rows.get(0);
+        User.Role role = (User.Role) row[1];
+        Integer version = (Integer) row[2];
+        return new UserState(true, Boolean.TRUE.equals(row[0]), role != null ? role.name() : null,
+                version != null ? version : 0, now);
+    }
+}
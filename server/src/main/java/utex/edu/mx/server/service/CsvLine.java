@@ -0,0 +1,55 @@
+package utex.edu.mx.server.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Separa una línea CSV (RFC 4180, sin saltos de línea dentro de comillas).
+ * Los campos entre comillas pueden contener comas y "" como comilla escapada.
+ */
+public final class CsvLine {
+
+    private CsvLine() {
+    }
+
+    public static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+
+    /**
+     * Campo en la posición indicada, o null si no existe o está vacío.
+     */
+    public static String field(List<String> fields, int index) {
+        if (index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+}
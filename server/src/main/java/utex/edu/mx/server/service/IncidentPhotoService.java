@@ -0,0 +1,115 @@
+package utex.edu.mx.server.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import utex.edu.mx.server.config.ShardFanOut;
+import utex.edu.mx.server.model.Incident;
+import utex.edu.mx.server.model.IncidentPhoto;
+import utex.edu.mx.server.repository.IncidentPhotoRepository;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Registra fotos de incidencias: guarda el binario en PhotoStore, crea la fila en
+ * incident_photos, programa sus miniaturas y mantiene las referencias compactas
+ * (photoRefs) de la incidencia.
+ * Debe llamarse dentro de la transacción que guarda la incidencia.
+ */
+@Service
+@RequiredArgsConstructor
+public class IncidentPhotoService {
+
+    private final PhotoStore photoStore;
+    private final IncidentPhotoRepository photoRepository;
+    private final PhotoRenditionService renditionService;
+    private final ShardFanOut shardFanOut;
+
+    /**
+     * Agrega fotos recibidas como data URL ("data:image/png;base64,...") o base64 simple.
+     * El tipo declarado en la data URL se ignora; se validan todas antes de guardar
+     * ninguna, así una foto no admitida no deja las demás a medias.
+     *
+     * @throws UnsupportedPhotoException si alguna no es JPEG, PNG ni WebP
+     */
+    public void attachDataUrls(Incident incident, List<String> dataUrls) {
+        if (dataUrls == null || dataUrls.isEmpty()) {
+            return;
+        }
+        List<byte[]> photos = new ArrayList<>(dataUrls.size());
+        for (String dataUrl : dataUrls) {
+            if (dataUrl == null || dataUrl.isBlank()) {
+                continue;
+            }
+            int comma = dataUrl.indexOf(',');
+            String base64 = dataUrl.startsWith("data:") && comma > 0 ? dataUrl.substring(comma + 1) : dataUrl;
+            byte[] bytes = Base64.getMimeDecoder().decode(base64);
+            if (PhotoFormat.detect(bytes).isEmpty()) {
+                throw new UnsupportedPhotoException("Foto en formato no admitido");
+            }
+            photos.add(bytes);
+        }
+        for (byte[] bytes : photos) {
+            attach(incident, new ByteArrayInputStream(bytes));
+        }
+    }
+
+    /**
+     * Agrega una foto leyendo el flujo directamente a disco. El formato se reconoce por los
+     * primeros bytes; el tipo que declare el cliente no se usa.
+     *
+     * @throws UnsupportedPhotoException si no es JPEG, PNG ni WebP
+     */
+    public IncidentPhoto attach(Incident incident, InputStream in) {
+        PhotoFormat format;
+        PhotoStore.StoredPhoto stored;
+        try {
+            BufferedInputStream buffered = new BufferedInputStream(in);
+            buffered.mark(PhotoFormat.HEADER_BYTES);
+            format = PhotoFormat.detect(buffered.readNBytes(PhotoFormat.HEADER_BYTES))
+                    .orElseThrow(() -> new UnsupportedPhotoException("Foto en formato no admitido"));
+            buffered.reset();
+            stored = photoStore.store(buffered);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar la foto", e);
+        }
+        IncidentPhoto photo = new IncidentPhoto();
+        photo.setIncident(incident);
+        photo.setSha256(stored.sha256());
+        photo.setContentType(format.contentType());
+        photo.setSizeBytes(stored.size());
+        photo.setPosition((int) photoRepository.countByIncidentId(incident.getId()));
+        photo = photoRepository.save(photo);
+        renditionService.submit(stored.sha256());
+
+        String ref = photo.getId() + ":" + photo.getSha256();
+        String refs = incident.getPhotoRefs();
+        incident.setPhotoRefs(refs == null || refs.isBlank() ? ref : refs + "," + ref);
+        return photo;
+    }
+
+    /**
+     * Borra las filas de fotos de la incidencia. Los archivos se conservan porque otras
+     * incidencias pueden compartir el mismo contenido.
+     */
+    public void detachAll(Long incidentId) {
+        photoRepository.deleteByIncidentId(incidentId);
+    }
+
+    /**
+     * Busca el hash en todos los shards: las fotos se piden desde etiquetas img, sin token,
+     * así que la petición no trae el shard del hotel.
+     */
+    public Optional<IncidentPhoto> findByHash(String sha256) {
+        return shardFanOut.collectAll(() -> photoRepository.findFirstBySha256(sha256).stream().toList())
+                .stream()
+                .findFirst();
+    }
+}
@@ -0,0 +1,235 @@
+package utex.edu.mx.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import utex.edu.mx.server.config.ShardFanOut;
+import utex.edu.mx.server.config.StompTopics;
+import utex.edu.mx.server.dto.WebSocketNotification;
+import utex.edu.mx.server.model.Building;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.BuildingRepository;
+import utex.edu.mx.server.repository.RoomRepository;
+import utex.edu.mx.server.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Motor de asignación automática de habitaciones sucias a mucamas.
+ * Ordena las habitaciones DIRTY de un hotel por edificio, piso y número y las reparte en
+ * bloques contiguos de tamaño casi igual (difieren como mucho en una habitación), de modo
+ * que cada mucama trabaja en pisos y edificios consecutivos. Cada bloque se entrega, cuando
+ * es posible, a la mucama que ya tenía más habitaciones en él para minimizar reasignaciones.
+ * Cada mucama afectada recibe en su lista de trabajo las habitaciones que gana y las que pierde.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MaidAssignmentService {
+
+    private static final int UPDATE_CHUNK = 1000;
+
+    private final RoomRepository roomRepository;
+    private final UserRepository userRepository;
+    private final BuildingRepository buildingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RoomStatusBoard statusBoard;
+    private final NotificationDispatcher notificationDispatcher;
+    private final WorklistNotifier worklistNotifier;
+    private final ShardFanOut shardFanOut;
+
+    /**
+     * Habitación candidata, ordenable por ubicación.
+     */
+    public record RoomSlot(Long roomId, Long buildingId, int floor, String number, Long currentMaidId) {
+    }
+
+    /**
+     * Resultado de una asignación: solo conteos.
+     */
+    public record AssignmentResult(Long hotelId, int rooms, int maids, int changed, Map<Long, Integer> roomsPerMaid) {
+    }
+
+    private static final Comparator<RoomSlot> LOCATION_ORDER = Comparator
+            .comparing(RoomSlot::buildingId)
+            .thenComparingInt(RoomSlot::floor)
+            .thenComparing(RoomSlot::number, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(RoomSlot::roomId);
+
+    /**
+     * Asigna las habitaciones sucias de todos los hoteles (cada shard los suyos).
+     */
+    public List<AssignmentResult> assignAll() {
+        return shardFanOut.collect(() -> {
+            List<AssignmentResult> results = new ArrayList<>();
+            for (Long hotelId : buildingRepository.findDistinctHotelIds()) {
+                results.add(assignHotel(hotelId));
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Reparte las habitaciones DIRTY del hotel entre sus mucamas activas.
+     */
+    public AssignmentResult assignHotel(Long hotelId) {
+        long start = System.nanoTime();
+
+        List<User> maids = userRepository.findByHotelIdAndRoleAndActiveTrue(hotelId, User.Role.MAID).stream()
+                .sorted(Comparator.comparing(User::getId))
+                .toList();
+
+        List<RoomSlot> slots = new ArrayList<>();
+        for (Object[] row : roomRepository.findAssignmentRows(hotelId, Room.RoomStatus.DIRTY)) {
+            slots.add(new RoomSlot((Long) row[0], (Long) row[1], (Integer) row[2], (String) row[3], (Long) row[4]));
+        }
+
+        if (maids.isEmpty() || slots.isEmpty()) {
+            return new AssignmentResult(hotelId, slots.size(), maids.size(), 0, Map.of());
+        }
+
+        List<Long> maidIds = maids.stream().map(User::getId).toList();
+        Map<Long, List<Long>> plan = plan(slots, maidIds);
+
+        // Solo se escriben las habitaciones cuya mucama cambia
+        Map<Long, Long> current = new HashMap<>(slots.size() * 2);
+        for (RoomSlot slot : slots) {
+            if (slot.currentMaidId() != null) {
+                current.put(slot.roomId(), slot.currentMaidId());
+            }
+        }
+        Map<Long, List<Long>> changes = new LinkedHashMap<>();
+        Map<Long, Integer> perMaid = new LinkedHashMap<>();
+        plan.forEach((maidId, roomIds) -> {
+            perMaid.put(maidId, roomIds.size());
+            List<Long> changed = roomIds.stream().filter(id -> !maidId.equals(current.get(id))).toList();
+            if (!changed.isEmpty()) {
+                changes.put(maidId, changed);
+            }
+        });
+
+        Map<Long, User> maidsById = new HashMap<>();
+        maids.forEach(m -> maidsById.put(m.getId(), m));
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> changes.forEach((maidId, roomIds) -> {
+            for (int i = 0; i < roomIds.size(); i += UPDATE_CHUNK) {
+                roomRepository.bulkAssign(maidsById.get(maidId),
+                        roomIds.subList(i, Math.min(i + UPDATE_CHUNK, roomIds.size())), now);
+            }
+        }));
+
+        int changedCount = 0;
+        for (Map.Entry<Long, List<Long>> e : changes.entrySet()) {
+            statusBoard.roomsAssigned(e.getKey(), maidsById.get(e.getKey()).getName(), e.getValue());
+            changedCount += e.getValue().size();
+        }
+
+        log.info("Asignación automática hotel {}: {} habitaciones entre {} mucamas, {} reasignadas en {} ms",
+                hotelId, slots.size(), maids.size(), changedCount, (System.nanoTime() - start) / 1_000_000);
+
+        if (changedCount > 0) {
+            notificationDispatcher.publish(WebSocketNotification.Type.ROOMS_AUTO_ASSIGNED,
+                    new WebSocketNotification.RoomsAssigned(hotelId, perMaid),
+                    StompTopics.rooms(hotelId), StompTopics.notifications(hotelId));
+            notifyWorklists(slots, current, changes, maidsById, now);
+        }
+
+        return new AssignmentResult(hotelId, slots.size(), maids.size(), changedCount, perMaid);
+    }
+
+    /**
+     * Habitación completa para la mucama que la recibe y removed para la que la tenía (si
+     * sigue activa). Los datos salen de las filas ya leídas; solo los nombres de edificio
+     * se consultan, desde la caché de segundo nivel.
+     */
+    private void notifyWorklists(List<RoomSlot> slots, Map<Long, Long> current, Map<Long, List<Long>> changes,
+                                 Map<Long, User> maidsById, LocalDateTime now) {
+        Map<Long, RoomSlot> slotsById = new HashMap<>(slots.size() * 2);
+        slots.forEach(slot -> slotsById.put(slot.roomId(), slot));
+        Map<Long, String> buildingNames = new HashMap<>();
+        Long version = WebSocketNotification.versionOf(now);
+
+        WorklistNotifier.Changes worklists = worklistNotifier.changes();
+        changes.forEach((maidId, roomIds) -> {
+            for (Long roomId : roomIds) {
+                RoomSlot slot = slotsById.get(roomId);
+                String buildingName = buildingNames.computeIfAbsent(slot.buildingId(),
+                        id -> buildingRepository.findById(id).map(Building::getName).orElse(""));
+                worklists.add(maidsById.get(maidId).getUsername(), new WebSocketNotification.WorklistItem(
+                        roomId, version, slot.number(), slot.floor(), Room.RoomStatus.DIRTY,
+                        slot.buildingId(), buildingName.isEmpty() ? null : buildingName, null));
+                User previous = maidsById.get(current.get(roomId));
+                if (previous != null) {
+                    worklists.add(previous.getUsername(), WebSocketNotification.WorklistItem.removed(roomId, version));
+                }
+            }
+        });
+        worklists.publish();
+    }
+
+    /**
+     * Calcula el reparto sin tocar la base de datos.
+     * Las habitaciones se ordenan por ubicación y se cortan en bloques contiguos; luego cada
+     * bloque se empareja (voraz, por mayor coincidencia) con la mucama que ya tenía más
+     * habitaciones en él. Coste O(n log n) en el número de habitaciones.
+     *
+     * @return habitaciones asignadas por id de mucama, en orden de recorrido
+     */
+    public static Map<Long, List<Long>> plan(List<RoomSlot> slots, List<Long> maidIds) {
+        List<RoomSlot> ordered = new ArrayList<>(slots);
+        ordered.sort(LOCATION_ORDER);
+
+        int n = ordered.size();
+        int k = maidIds.size();
+        int base = n / k;
+        int extra = n % k;
+
+        List<List<RoomSlot>> segments = new ArrayList<>(k);
+        int from = 0;
+        for (int i = 0; i < k; i++) {
+            int size = base + (i < extra ? 1 : 0);
+            segments.add(ordered.subList(from, from + size));
+            from += size;
+        }
+
+        // Coincidencias (bloque, mucama, habitaciones que ya tenía) ordenadas de mayor a menor
+        Set<Long> eligible = new HashSet<>(maidIds);
+        List<long[]> overlaps = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            Map<Long, Integer> counts = new HashMap<>();
+            for (RoomSlot slot : segments.get(i)) {
+                if (slot.currentMaidId() != null && eligible.contains(slot.currentMaidId())) {
+                    counts.merge(slot.currentMaidId(), 1, Integer::sum);
+                }
+            }
+            int segment = i;
+            counts.forEach((maidId, count) -> overlaps.add(new long[]{segment, maidId, count}));
+        }
+        overlaps.sort((a, b) -> Long.compare(b[2], a[2]));
+
+        Long[] owner = new Long[k];
+        Set<Long> used = new HashSet<>();
+        for (long[] o : overlaps) {
+            int segment = (int) o[0];
+            if (owner[segment] == null && !used.contains(o[1])) {
+                owner[segment] = o[1];
+                used.add(o[1]);
+            }
+        }
+        Iterator<Long> free = maidIds.stream().filter(id -> !used.contains(id)).iterator();
+        for (int i = 0; i < k; i++) {
+            if (owner[i] == null) {
+                owner[i] = free.next();
+            }
+        }
+
+        Map<Long, List<Long>> plan = new LinkedHashMap<>();
+        for (int i = 0; i < k; i++) {
+            plan.put(owner[i], segments.get(i).stream().map(RoomSlot::roomId).toList());
+        }
+        return plan;
+    }
+}
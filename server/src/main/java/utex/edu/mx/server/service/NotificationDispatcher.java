@@ -0,0 +1,243 @@
+package utex.edu.mx.server.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.MimeTypeUtils;
+import tools.jackson.databind.json.JsonMapper;
+import utex.edu.mx.server.config.StompTopics;
+import utex.edu.mx.server.dto.WebSocketNotification;
+import utex.edu.mx.server.security.JwtPrincipal;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Envía las notificaciones WebSocket fuera del hilo de la petición. Si hay transacción, el
+ * evento sale solo después del commit (un rollback lo descarta); la serialización y el envío
+ * a cada sesión corren en un pool propio con cola acotada, y si la cola se llena el evento se
+ * descarta y se cuenta en lugar de frenar la API. Los cambios seguidos de una misma habitación
+ * dentro de la ventana de agrupación salen como un solo evento con los cambios combinados.
+ * Cada evento se serializa una vez y los mismos bytes se envían a todos sus destinos.
+ * Al enviarse recibe el siguiente número de secuencia de su hotel y queda en el
+ * {@link NotificationLog} para que los clientes que se reconectan pidan lo que perdieron.
+ * Con un solo hilo (el valor por defecto) los eventos salen en el orden en que se publicaron.
+ */
+@Service
+@Slf4j
+public class NotificationDispatcher {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final JsonMapper jsonMapper;
+    private final NotificationLog notificationLog;
+    private final ScheduledThreadPoolExecutor executor;
+    private final long coalesceWindowMillis;
+    private final int queueCapacity;
+    private final Map<String, Pending> pendingRooms = new ConcurrentHashMap<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public record Metrics(int threads, int queueDepth, int queueCapacity, int pendingRooms,
+                          long published, long coalesced, long dropped, long failed,
+                          double avgDispatchMillis, double maxDispatchMillis, long coalesceWindowMillis) {
+    }
+
+    /**
+     * Cambios de una habitación que esperan a que cierre su ventana de agrupación.
+     */
+    private static final class Pending {
+        private final long since = System.nanoTime();
+        private volatile WebSocketNotification.Type type;
+        private volatile WebSocketNotification.RoomDelta delta;
+        private volatile Long actorId;
+
+        private Pending(WebSocketNotification.Type type, WebSocketNotification.RoomDelta delta, Long actorId) {
+            this.type = type;
+            this.delta = delta;
+            this.actorId = actorId;
+        }
+    }
+
+    public NotificationDispatcher(SimpMessagingTemplate messagingTemplate,
+                                  JsonMapper jsonMapper,
+                                  NotificationLog notificationLog,
+                                  @Value("${notifications.dispatch.threads:1}") int threads,
+                                  @Value("${notifications.dispatch.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${notifications.coalesce-window-ms:100}") long coalesceWindowMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.jsonMapper = jsonMapper;
+        this.notificationLog = notificationLog;
+        this.queueCapacity = queueCapacity;
+        this.coalesceWindowMillis = coalesceWindowMillis;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "ws-dispatch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Publica el evento en los destinos indicados (ver StompTopics) en cuanto se confirme la
+     * transacción actual. Sin destinos no hace nada.
+     */
+    public void publish(WebSocketNotification.Type type, WebSocketNotification.Body body, String... destinations) {
+        if (destinations.length == 0) {
+            return;
+        }
+        WebSocketNotification notification = new WebSocketNotification(type, currentActorId(), body);
+        List<String> targets = List.of(destinations);
+        afterCommit(() -> enqueue(0, System.nanoTime(), () -> send(notification, targets)));
+    }
+
+    /**
+     * Como {@link #publish}, pero si la misma habitación ya tiene cambios esperando para los
+     * mismos destinos, este se combina con ellos (gana el tipo y los campos más recientes) y
+     * sale un solo evento al cerrar la ventana.
+     */
+    public void publishRoom(WebSocketNotification.Type type, WebSocketNotification.RoomDelta delta, String... destinations) {
+        if (destinations.length == 0) {
+            return;
+        }
+        if (delta.id() == null || coalesceWindowMillis <= 0) {
+            publish(type, delta, destinations);
+            return;
+        }
+        Long actorId = currentActorId();
+        List<String> targets = List.of(destinations);
+        String key = delta.id() + "|" + String.join(",", targets);
+        afterCommit(() -> {
+            Pending[] created = new Pending[1];
+            pendingRooms.compute(key, (k, existing) -> {
+                if (existing == null) {
+                    created[0] = new Pending(type, delta, actorId);
+                    return created[0];
+                }
+                existing.type = type;
+                existing.delta = existing.delta.merge(delta);
+                existing.actorId = actorId;
+                coalesced.incrementAndGet();
+                return existing;
+            });
+            if (created[0] != null) {
+                boolean accepted = enqueue(coalesceWindowMillis, created[0].since, () -> {
+                    Pending pending = pendingRooms.remove(key);
+                    if (pending != null) {
+                        send(new WebSocketNotification(pending.type, pending.actorId, pending.delta), targets);
+                    }
+                });
+                if (!accepted) {
+                    pendingRooms.remove(key, created[0]);
+                }
+            }
+        });
+    }
+
+    public Metrics metrics() {
+        long done = published.get();
+        return new Metrics(
+                executor.getCorePoolSize(),
+                queued.get(),
+                queueCapacity,
+                pendingRooms.size(),
+                done,
+                coalesced.get(),
+                dropped.get(),
+                failed.get(),
+                done == 0 ? 0 : totalNanos.get() / (double) done / 1_000_000,
+                maxNanos.get() / 1_000_000.0,
+                coalesceWindowMillis);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private boolean enqueue(long delayMillis, long since, Runnable delivery) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            long total = dropped.incrementAndGet();
+            if (total == 1 || total % 1000 == 0) {
+                log.warn("Cola de notificaciones WebSocket llena ({}); {} eventos descartados", queueCapacity, total);
+            }
+            return false;
+        }
+        executor.schedule(() -> {
+            queued.decrementAndGet();
+            delivery.run();
+            long elapsed = System.nanoTime() - since;
+            totalNanos.addAndGet(elapsed);
+            maxNanos.accumulate(elapsed);
+        }, delayMillis, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    private void send(WebSocketNotification notification, List<String> destinations) {
+        byte[] payload;
+        try {
+            // Todos los destinos de un evento son del mismo hotel
+            Long hotelId = StompTopics.hotelOfDestination(destinations.get(0));
+            payload = hotelId != null
+                    ? notificationLog.append(hotelId, seq -> notification.withSeq(seq).encode(jsonMapper))
+                    : notification.encode(jsonMapper);
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("No se pudo serializar {}: {}", notification.getType(), e.getMessage());
+            return;
+        }
+        for (String destination : destinations) {
+            try {
+                SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+                headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+                headers.setLeaveMutable(true);
+                messagingTemplate.send(destination, MessageBuilder.createMessage(payload, headers.getMessageHeaders()));
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                log.warn("No se pudo enviar {} a {}: {}", notification.getType(), destination, e.getMessage());
+            }
+        }
+        published.incrementAndGet();
+    }
+
+    private static Long currentActorId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal
+                ? principal.userId()
+                : null;
+    }
+}
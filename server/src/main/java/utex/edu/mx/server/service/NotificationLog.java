@@ -0,0 +1,108 @@
+package utex.edu.mx.server.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * Registro en memoria de los últimos eventos WebSocket de cada hotel.
+ * Cada evento recibe un número de secuencia creciente por hotel y se guarda ya serializado
+ * en un buffer circular de tamaño fijo. Un cliente que se reconecta envía el último seq que
+ * vio y recibe solo los eventos posteriores; si alguno ya salió del buffer, o el servidor se
+ * reinició (epoch distinto), se le indica que recargue todo.
+ */
+@Service
+public class NotificationLog {
+
+    /**
+     * Identifica esta instancia del registro; las secuencias vuelven a empezar al reiniciar.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int capacity;
+    private final Map<Long, Ring> rings = new ConcurrentHashMap<>();
+
+    /**
+     * Eventos perdidos desde since. Con resetRequired, events viene vacío y el cliente debe
+     * recargar su copia y continuar desde latestSeq.
+     */
+    public record Replay(String epoch, long latestSeq, boolean resetRequired, List<byte[]> events) {
+    }
+
+    public record Metrics(String epoch, int capacityPerHotel, int hotels, long retainedEvents) {
+    }
+
+    private static final class Ring {
+        private final byte[][] payloads;
+        private long latest;
+
+        private Ring(int capacity) {
+            this.payloads = new byte[capacity][];
+        }
+    }
+
+    public NotificationLog(@Value("${notifications.replay.buffer-size:1000}") int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * Asigna el siguiente seq del hotel, serializa el evento con él y lo guarda.
+     * La serialización ocurre dentro del candado del hotel para que el orden del buffer sea
+     * el de las secuencias.
+     */
+    public byte[] append(Long hotelId, LongFunction<byte[]> encoder) {
+        Ring ring = rings.computeIfAbsent(hotelId, id -> new Ring(capacity));
+        synchronized (ring) {
+            long seq = ring.latest + 1;
+            byte[] payload = encoder.apply(seq);
+            ring.payloads[(int) (seq % capacity)] = payload;
+            ring.latest = seq;
+            return payload;
+        }
+    }
+
+    /**
+     * Eventos del hotel con seq mayor que since, en orden. Sin since (primera conexión) solo
+     * devuelve la secuencia actual.
+     */
+    public Replay since(Long hotelId, String clientEpoch, Long since) {
+        Ring ring = rings.get(hotelId);
+        if (ring == null) {
+            boolean reset = since != null && (since > 0 || !epoch.equals(clientEpoch));
+            return new Replay(epoch, 0, reset, List.of());
+        }
+        synchronized (ring) {
+            long latest = ring.latest;
+            if (since == null) {
+                return new Replay(epoch, latest, false, List.of());
+            }
+            long oldest = Math.max(1, latest - capacity + 1);
+            if (!epoch.equals(clientEpoch) || since > latest || since + 1 < oldest) {
+                return new Replay(epoch, latest, true, List.of());
+            }
+            List<byte[]> events = new ArrayList<>((int) (latest - since));
+            for (long seq = since + 1; seq <= latest; seq++) {
+                events.add(ring.payloads[(int) (seq % capacity)]);
+            }
+            return new Replay(epoch, latest, false, events);
+        }
+    }
+
+    public Metrics metrics() {
+        long retained = 0;
+        for (Ring ring : rings.values()) {
+            synchronized (ring) {
+                retained += Math.min(ring.latest, capacity);
+            }
+        }
+        return new Metrics(epoch, capacity, rings.size(), retained);
+    }
+}
@@ -0,0 +1,70 @@
+package utex.edu.mx.server.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Formatos de foto aceptados, reconocidos por los primeros bytes del contenido.
+ * El tipo que declara el cliente (data URL o cabecera del multipart) no se usa: las fotos
+ * se sirven sin autenticación desde el mismo origen que la API, y un HTML o SVG guardado
+ * como "foto" se ejecutaría en él.
+ */
+public enum PhotoFormat {
+    JPEG("image/jpeg"),
+    PNG("image/png"),
+    WEBP("image/webp");
+
+    /**
+     * Bytes necesarios para reconocer cualquiera de los formatos.
+     */
+    public static final int HEADER_BYTES = 12;
+
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] RIFF = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP_MAGIC = {'W', 'E', 'B', 'P'};
+
+    private final String contentType;
+
+    PhotoFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public static Optional<PhotoFormat> detect(byte[] header) {
+        if (startsWith(header, 0, JPEG_MAGIC)) {
+            return Optional.of(JPEG);
+        }
+        if (startsWith(header, 0, PNG_MAGIC)) {
+            return Optional.of(PNG);
+        }
+        if (startsWith(header, 0, RIFF) && startsWith(header, 8, WEBP_MAGIC)) {
+            return Optional.of(WEBP);
+        }
+        return Optional.empty();
+    }
+
+    public static Optional<PhotoFormat> detect(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return detect(in.readNBytes(HEADER_BYTES));
+        }
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] magic) {
+        if (data.length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (data[offset + i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
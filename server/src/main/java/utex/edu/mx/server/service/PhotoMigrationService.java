@@ -0,0 +1,102 @@
+package utex.edu.mx.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+import utex.edu.mx.server.config.ShardFanOut;
+import utex.edu.mx.server.model.Incident;
+import utex.edu.mx.server.repository.IncidentRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Migra las fotos en base64 de la columna incidents.photos al almacén de fotos.
+ * Corre al arrancar en cada shard, por bloques de incidencias con una transacción cada uno;
+ * es idempotente porque solo toma filas que aún tienen la columna antigua con datos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PhotoMigrationService {
+
+    private static final int CHUNK = 50;
+
+    private final IncidentRepository incidentRepository;
+    private final IncidentPhotoService photoService;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final ShardFanOut shardFanOut;
+
+    @Value("${photos.migration.enabled:true}")
+    private boolean enabled = true;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (enabled) {
+            migrateLegacyPhotos();
+        }
+    }
+
+    /**
+     * @return número de incidencias migradas, sumando todos los shards
+     */
+    public int migrateLegacyPhotos() {
+        int migrated = shardFanOut.collectAll(() -> List.of(migrateShard())).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        if (migrated > 0) {
+            log.info("Fotos migradas al almacén en {} incidencias", migrated);
+        }
+        return migrated;
+    }
+
+    private int migrateShard() {
+        int migrated = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = incidentRepository.findIdsWithLegacyPhotos(afterId, PageRequest.of(0, CHUNK));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer count = transactionTemplate.execute(status -> {
+                int done = 0;
+                for (Incident incident : incidentRepository.findAllById(ids)) {
+                    if (migrate(incident)) {
+                        done++;
+                    }
+                }
+                return done;
+            });
+            migrated += count != null ? count : 0;
+            afterId = ids.get(ids.size() - 1);
+        }
+        return migrated;
+    }
+
+    private boolean migrate(Incident incident) {
+        List<String> photos;
+        try {
+            photos = jsonMapper.readValue(incident.getLegacyPhotos(), new TypeReference<List<String>>() { });
+        } catch (RuntimeException e) {
+            log.warn("Incidencia {}: fotos en formato no reconocido, se dejan sin migrar", incident.getId());
+            return false;
+        }
+        try {
+            photoService.attachDataUrls(incident, photos);
+        } catch (IllegalArgumentException e) {
+            log.warn("Incidencia {}: fotos que no son JPEG, PNG ni WebP, se dejan sin migrar", incident.getId());
+            return false;
+        }
+        incident.setLegacyPhotos(null);
+        incident.setUpdatedAt(LocalDateTime.now());
+        return true;
+    }
+}
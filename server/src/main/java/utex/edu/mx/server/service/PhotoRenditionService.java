@@ -0,0 +1,196 @@
+package utex.edu.mx.server.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Genera y guarda en disco las versiones reducidas de cada foto: miniatura para listados
+ * y versión web para el detalle, ambas en JPEG.
+ * El trabajo corre fuera del hilo de la petición en un pool acotado con cola limitada;
+ * si la cola está llena la tarea se descarta y la versión se vuelve a pedir la próxima
+ * vez que alguien la solicite. Mientras tanto se sirve el original.
+ */
+@Service
+@Slf4j
+public class PhotoRenditionService {
+
+    public enum Size {
+        THUMB("thumb", 320),
+        WEB("web", 1280);
+
+        private final String variant;
+        private final int maxDimension;
+
+        Size(String variant, int maxDimension) {
+            this.variant = variant;
+            this.maxDimension = maxDimension;
+        }
+
+        public static Optional<Size> fromParam(String value) {
+            for (Size size : values()) {
+                if (size.variant.equalsIgnoreCase(value)) {
+                    return Optional.of(size);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final PhotoStore photoStore;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${photos.renditions.quality:0.8}")
+    private float quality = 0.8f;
+
+    public PhotoRenditionService(PhotoStore photoStore,
+                                 @Value("${photos.renditions.threads:2}") int threads,
+                                 @Value("${photos.renditions.queue-capacity:100}") int queueCapacity) {
+        this.photoStore = photoStore;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "photo-rendition-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Programa la generación de todas las versiones que aún no existen.
+     */
+    public void submit(String sha256) {
+        for (Size size : Size.values()) {
+            submit(sha256, size);
+        }
+    }
+
+    /**
+     * Versión ya generada, o vacío (programándola) si todavía no existe.
+     */
+    public Optional<Path> find(String sha256, Size size) {
+        Path path = photoStore.renditionPath(sha256, size.variant);
+        if (Files.isRegularFile(path)) {
+            return Optional.of(path);
+        }
+        submit(sha256, size);
+        return Optional.empty();
+    }
+
+    /**
+     * Genera la versión en el hilo actual. Visible para pruebas y tareas de mantenimiento.
+     */
+    public Optional<Path> generate(String sha256, Size size) throws IOException {
+        Path target = photoStore.renditionPath(sha256, size.variant);
+        if (Files.isRegularFile(target)) {
+            return Optional.of(target);
+        }
+        Optional<Path> original = photoStore.find(sha256);
+        if (original.isEmpty()) {
+            return Optional.empty();
+        }
+        BufferedImage source = ImageIO.read(original.get().toFile());
+        if (source == null) {
+            // Formato que ImageIO no entiende: se seguirá sirviendo el original
+            return Optional.empty();
+        }
+
+        BufferedImage scaled = scale(source, size.maxDimension);
+        Path temp = photoStore.tempFile();
+        try {
+            writeJpeg(scaled, temp);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return Optional.of(target);
+    }
+
+    private void submit(String sha256, Size size) {
+        if (Files.isRegularFile(photoStore.renditionPath(sha256, size.variant))) {
+            return;
+        }
+        String key = sha256 + "/" + size.variant;
+        if (!inFlight.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(sha256, size);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("No se pudo generar la versión {} de la foto {}: {}", size.variant, sha256, e.getMessage());
+                } finally {
+                    inFlight.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key);
+            log.debug("Cola de versiones llena, {} queda pendiente", key);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double factor = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * factor));
+        int targetHeight = Math.max(1, (int) Math.round(height * factor));
+
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            // Fondo blanco para imágenes con transparencia (JPEG no la soporta)
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, targetWidth, targetHeight);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
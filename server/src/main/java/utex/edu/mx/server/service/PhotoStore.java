@@ -0,0 +1,118 @@
+package utex.edu.mx.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Almacén de fotos en disco direccionado por contenido.
+ * Cada archivo se nombra por su SHA-256 (data/photos/ab/cd/abcd...), así que una misma
+ * imagen subida varias veces ocupa espacio una sola vez. Los archivos nunca cambian
+ * después de escritos: se pueden servir con caché inmutable.
+ */
+@Service
+@Slf4j
+public class PhotoStore {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tmp;
+
+    public PhotoStore(@Value("${photos.storage-dir:data/photos}") String storageDir) {
+        this.root = Paths.get(storageDir).toAbsolutePath().normalize();
+        this.tmp = root.resolve("tmp");
+        try {
+            Files.createDirectories(tmp);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el almacén de fotos en " + root, e);
+        }
+        log.info("Almacén de fotos en {}", root);
+    }
+
+    /**
+     * Archivo guardado: hash del contenido y tamaño en bytes.
+     */
+    public record StoredPhoto(String sha256, long size) {
+    }
+
+    /**
+     * Copia el flujo a disco calculando el hash al vuelo, sin cargarlo completo en memoria.
+     * Si el contenido ya existía, el archivo temporal se descarta.
+     */
+    public StoredPhoto store(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            long size;
+            try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+                size = Files.copy(digestIn, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Otra petición guardó el mismo contenido al mismo tiempo
+                }
+            }
+            return new StoredPhoto(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Ruta del archivo para un hash, exista o no.
+     *
+     * @throws IllegalArgumentException si el hash no es un SHA-256 en hexadecimal
+     */
+    public Path pathFor(String sha256) {
+        if (sha256 == null || !SHA256_HEX.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Hash de foto inválido");
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    /**
+     * Ruta de una versión derivada (miniatura, web) de la foto, en renditions/{variante}/.
+     */
+    public Path renditionPath(String sha256, String variant) {
+        Path original = pathFor(sha256);
+        return root.resolve("renditions").resolve(variant).resolve(sha256.substring(0, 2))
+                .resolve(original.getFileName() + ".jpg");
+    }
+
+    /**
+     * Archivo temporal dentro del almacén, para escribir y luego mover de forma atómica.
+     */
+    public Path tempFile() throws IOException {
+        return Files.createTempFile(tmp, "rendition-", ".part");
+    }
+
+    public Optional<Path> find(String sha256) {
+        Path path = pathFor(sha256);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package utex.edu.mx.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+import utex.edu.mx.server.dto.PropertyImportEvent;
+import utex.edu.mx.server.dto.PropertyImportLine;
+import utex.edu.mx.server.model.Building;
+import utex.edu.mx.server.model.Hotel;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.repository.BuildingRepository;
+import utex.edu.mx.server.repository.HotelRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Importa hotel → edificios → habitaciones desde CSV o NDJSON leyendo línea por línea,
+ * sin cargar el archivo en memoria. Hoteles y edificios (pocos) se guardan al leerlos para
+ * obtener su id; las habitaciones se acumulan y se insertan con INSERT en lotes JDBC, cada
+ * lote en su propia transacción. Las entidades usan IDENTITY, que impide a Hibernate agrupar
+ * los INSERT, por eso las habitaciones se escriben con JdbcTemplate y sin leer ids de vuelta.
+ * Cada línea inválida o lote fallido se reporta con su número de línea; la importación sigue.
+ */
+@Service
+@Slf4j
+public class PropertyImportService {
+
+    private static final String INSERT_ROOM_SQL = "insert into rooms "
+            + "(number, floor, status, building_id, active, created_at, updated_at) "
+            + "values (?, ?, ?, ?, true, ?, ?)";
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final HotelRepository hotelRepository;
+    private final BuildingRepository buildingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final RoomStatusBoard statusBoard;
+    private final int batchSize;
+
+    public PropertyImportService(HotelRepository hotelRepository,
+                                 BuildingRepository buildingRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 JsonMapper jsonMapper,
+                                 RoomStatusBoard statusBoard,
+                                 @Value("${imports.rooms.batch-size:1000}") int batchSize) {
+        this.hotelRepository = hotelRepository;
+        this.buildingRepository = buildingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jsonMapper = jsonMapper;
+        this.statusBoard = statusBoard;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Habitación pendiente de insertar, con la línea de origen para reportar errores.
+     */
+    private record PendingRoom(long line, String number, int floor, Room.RoomStatus status, Long buildingId) {
+    }
+
+    /**
+     * Estado de una importación en curso.
+     */
+    private final class Run {
+        final Consumer<PropertyImportEvent> listener;
+        final List<PendingRoom> pending = new ArrayList<>(batchSize);
+        final Set<String> buildingNumbers = new HashSet<>();
+        Long hotelId;
+        Long buildingId;
+        long line;
+        long hotels;
+        long buildings;
+        long rooms;
+        long errors;
+
+        Run(Consumer<PropertyImportEvent> listener) {
+            this.listener = listener;
+        }
+
+        void error(long atLine, String message) {
+            errors++;
+            listener.accept(PropertyImportEvent.error(atLine, message));
+        }
+    }
+
+    /**
+     * Lee el archivo completo y emite los eventos del reporte al listener, en orden.
+     * En CSV la primera línea es el encabezado y no se importa.
+     *
+     * @return el evento final con los totales
+     */
+    public PropertyImportEvent importProperty(BufferedReader reader, Format format,
+                                              Consumer<PropertyImportEvent> listener) throws IOException {
+        long start = System.nanoTime();
+        Run run = new Run(listener);
+
+        String text;
+        if (format == Format.CSV) {
+            reader.readLine();
+            run.line++;
+        }
+        while ((text = reader.readLine()) != null) {
+            run.line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            PropertyImportLine record;
+            try {
+                record = format == Format.CSV ? parseCsv(text) : jsonMapper.readValue(text, PropertyImportLine.class);
+            } catch (JacksonException | IllegalArgumentException e) {
+                run.error(run.line, "Línea mal formada");
+                continue;
+            }
+            String type = record.getType() != null ? record.getType().trim().toLowerCase() : "";
+            switch (type) {
+                case "hotel" -> hotel(run, record);
+                case "building" -> building(run, record);
+                case "room" -> room(run, record);
+                default -> run.error(run.line, "Tipo desconocido: " + record.getType());
+            }
+        }
+        flush(run);
+
+        if (run.rooms > 0) {
+            statusBoard.rebuild();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Importación de propiedad: {} hoteles, {} edificios, {} habitaciones, {} errores en {} ms",
+                run.hotels, run.buildings, run.rooms, run.errors, millis);
+        PropertyImportEvent done = PropertyImportEvent.done(run.line, run.hotels, run.buildings, run.rooms, run.errors, millis);
+        listener.accept(done);
+        return done;
+    }
+
+    private void hotel(Run run, PropertyImportLine record) {
+        // Las habitaciones pendientes pertenecen al edificio anterior; se escriben antes de cambiar
+        flush(run);
+        run.buildingId = null;
+        run.buildingNumbers.clear();
+        if (record.getId() != null) {
+            if (!hotelRepository.existsById(record.getId())) {
+                run.hotelId = null;
+                run.error(run.line, "Hotel no encontrado");
+                return;
+            }
+            run.hotelId = record.getId();
+            return;
+        }
+        if (isBlank(record.getName())) {
+            run.hotelId = null;
+            run.error(run.line, "Nombre de hotel es requerido");
+            return;
+        }
+        Hotel hotel = new Hotel();
+        hotel.setName(record.getName().trim());
+        hotel.setAddress(record.getAddress());
+        run.hotelId = hotelRepository.save(hotel).getId();
+        run.hotels++;
+        run.listener.accept(PropertyImportEvent.created("hotel", run.line, run.hotelId));
+    }
+
+    private void building(Run run, PropertyImportLine record) {
+        flush(run);
+        run.buildingNumbers.clear();
+        if (record.getId() != null) {
+            Optional<Long> hotelId = buildingRepository.findHotelIdById(record.getId());
+            if (hotelId.isEmpty()) {
+                run.buildingId = null;
+                run.error(run.line, "Edificio no encontrado");
+                return;
+            }
+            run.hotelId = hotelId.get();
+            run.buildingId = record.getId();
+            return;
+        }
+        if (run.hotelId == null) {
+            run.buildingId = null;
+            run.error(run.line, "Edificio sin hotel válido");
+            return;
+        }
+        if (isBlank(record.getName())) {
+            run.buildingId = null;
+            run.error(run.line, "Nombre de edificio es requerido");
+            return;
+        }
+        Building building = new Building();
+        building.setName(record.getName().trim());
+        building.setFloors(record.getFloors());
+        building.setHotel(hotelRepository.getReferenceById(run.hotelId));
+        run.buildingId = buildingRepository.save(building).getId();
+        run.buildings++;
+        run.listener.accept(PropertyImportEvent.created("building", run.line, run.buildingId));
+    }
+
+    private void room(Run run, PropertyImportLine record) {
+        if (run.buildingId == null) {
+            run.error(run.line, "Habitación sin edificio válido");
+            return;
+        }
+        if (isBlank(record.getNumber())) {
+            run.error(run.line, "Número de habitación es requerido");
+            return;
+        }
+        if (record.getFloor() == null || record.getFloor() < 0) {
+            run.error(run.line, "Piso inválido");
+            return;
+        }
+        Room.RoomStatus status = Room.RoomStatus.DIRTY;
+        if (!isBlank(record.getStatus())) {
+            try {
+                status = Room.RoomStatus.valueOf(record.getStatus().trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                run.error(run.line, "Estado inválido: " + record.getStatus());
+                return;
+            }
+        }
+        String number = record.getNumber().trim();
+        if (!run.buildingNumbers.add(number)) {
+            run.error(run.line, "Habitación repetida en el edificio: " + number);
+            return;
+        }
+        run.pending.add(new PendingRoom(run.line, number, record.getFloor(), status, run.buildingId));
+        if (run.pending.size() >= batchSize) {
+            flush(run);
+        }
+    }
+
+    /**
+     * Inserta las habitaciones pendientes en un lote JDBC y su propia transacción.
+     */
+    private void flush(Run run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(run.pending.size());
+        for (PendingRoom room : run.pending) {
+            args.add(new Object[]{room.number(), room.floor(), room.status().name(), room.buildingId(), now, now});
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_ROOM_SQL, args));
+            run.rooms += run.pending.size();
+        } catch (DataAccessException e) {
+            log.warn("Lote de habitaciones rechazado (líneas {}-{}): {}",
+                    run.pending.get(0).line(), run.pending.get(run.pending.size() - 1).line(), e.getMessage());
+            for (PendingRoom room : run.pending) {
+                run.error(room.line(), "Lote rechazado por la base de datos");
+            }
+        }
+        run.pending.clear();
+        run.listener.accept(PropertyImportEvent.progress(run.line, run.rooms, run.errors));
+    }
+
+    private static PropertyImportLine parseCsv(String text) {
+        List<String> fields = CsvLine.parse(text);
+        String id = CsvLine.field(fields, 1);
+        String floors = CsvLine.field(fields, 4);
+        String floor = CsvLine.field(fields, 6);
+        return new PropertyImportLine(
+                CsvLine.field(fields, 0),
+                id != null ? Long.valueOf(id) : null,
+                CsvLine.field(fields, 2),
+                CsvLine.field(fields, 3),
+                floors != null ? Integer.valueOf(floors) : null,
+                CsvLine.field(fields, 5),
+                floor != null ? Integer.valueOf(floor) : null,
+                CsvLine.field(fields, 7));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
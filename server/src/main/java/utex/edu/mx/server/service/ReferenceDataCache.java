@@ -0,0 +1,87 @@
+package utex.edu.mx.server.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Regiones de la caché de segundo nivel de Hibernate para datos de referencia (hoteles,
+ * edificios, usuarios) y las consultas de usuarios por rol y por hotel. Las escrituras por
+ * JPA las invalida Hibernate; los INSERT hechos con JdbcTemplate no los ve, y quien los
+ * hace debe llamar aquí. Los tamaños y la expiración están en caffeine.conf.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataCache {
+
+    public static final String HOTELS = "hotels";
+    public static final String BUILDINGS = "buildings";
+    public static final String USERS = "users";
+    public static final String USER_LOOKUPS = "user-lookups";
+
+    private static final List<String> ENTITY_REGIONS = List.of(HOTELS, BUILDINGS, USERS);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public record RegionMetrics(String region, long hits, long misses, long puts, long size, double hitRatio) {
+    }
+
+    public record Metrics(boolean statisticsEnabled, List<RegionMetrics> regions) {
+    }
+
+    /**
+     * Descarta ahora los resultados cacheados de las consultas de usuarios por rol y por hotel
+     * y, si hay transacción, otra vez al confirmarla (un lector podría cachear el estado anterior
+     * mientras los INSERT siguen sin confirmar).
+     */
+    public void evictUserLookups() {
+        Runnable evict = () -> sessionFactory().getCache().evictQueryRegion(USER_LOOKUPS);
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Aciertos, fallos, escrituras y entradas por región. Requiere hibernate.generate_statistics.
+     */
+    public Metrics metrics() {
+        Statistics statistics = sessionFactory().getStatistics();
+        List<RegionMetrics> regions = new ArrayList<>();
+        if (statistics.isStatisticsEnabled()) {
+            for (String region : ENTITY_REGIONS) {
+                regions.add(toMetrics(region, statistics.getDomainDataRegionStatistics(region)));
+            }
+            regions.add(toMetrics(USER_LOOKUPS, statistics.getQueryRegionStatistics(USER_LOOKUPS)));
+        }
+        return new Metrics(statistics.isStatisticsEnabled(), regions);
+    }
+
+    private RegionMetrics toMetrics(String region, CacheRegionStatistics stats) {
+        if (stats == null) {
+            return new RegionMetrics(region, 0, 0, 0, 0, 0);
+        }
+        long hits = stats.getHitCount();
+        long misses = stats.getMissCount();
+        long size = Math.max(0, stats.getElementCountInMemory());
+        return new RegionMetrics(region, hits, misses, stats.getPutCount(), size,
+                hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
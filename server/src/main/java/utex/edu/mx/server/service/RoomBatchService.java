@@ -0,0 +1,185 @@
+package utex.edu.mx.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import utex.edu.mx.server.config.StompTopics;
+import utex.edu.mx.server.dto.RoomBatchRequest;
+import utex.edu.mx.server.dto.RoomBatchResult;
+import utex.edu.mx.server.dto.WebSocketNotification;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.RoomRepository;
+import utex.edu.mx.server.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica cambios de estado y asignación sobre muchas habitaciones en una sola transacción.
+ * Carga habitaciones y mucamas con una consulta cada una, deja que Hibernate agrupe los
+ * UPDATE en lotes JDBC al hacer flush y emite un único evento WebSocket agregado por hotel,
+ * más uno por mucama afectada en su lista de trabajo (ver {@link WorklistNotifier}).
+ * El lote es todo o nada: si un cambio no es válido no se aplica ninguno, y el tablero y los
+ * eventos solo reflejan lotes confirmados.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomBatchService {
+
+    private static final String NOT_APPLIED = "No aplicado: el lote tiene errores";
+
+    private final RoomRepository roomRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RoomStatusBoard statusBoard;
+    private final NotificationDispatcher notificationDispatcher;
+    private final WorklistNotifier worklistNotifier;
+
+    @Value("${rooms.batch.max-size:500}")
+    private int maxSize = 500;
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public RoomBatchResult applyChanges(List<RoomBatchRequest.RoomChange> changes) {
+        Map<Long, List<WebSocketNotification.RoomDelta>> appliedPerHotel = new LinkedHashMap<>();
+        WorklistNotifier.Changes worklists = worklistNotifier.changes();
+        List<RoomBatchResult.Item> results = transactionTemplate.execute(status -> apply(changes, appliedPerHotel, worklists));
+        if (results == null) {
+            results = List.of();
+        }
+
+        long failed = results.stream().filter(item -> !item.success()).count();
+        if (failed > 0) {
+            log.info("Cambio masivo de habitaciones rechazado: {} de {} cambios con error",
+                    results.stream().filter(item -> !NOT_APPLIED.equals(item.error())).count(), results.size());
+            return new RoomBatchResult(0, results.size(), results);
+        }
+        log.info("Cambio masivo de habitaciones: {} aplicados", results.size());
+
+        // Un solo evento por hotel para todo el lote
+        appliedPerHotel.forEach((hotelId, deltas) -> notificationDispatcher.publish(
+                WebSocketNotification.Type.ROOMS_BATCH_UPDATED, new WebSocketNotification.RoomsBatch(deltas),
+                StompTopics.rooms(hotelId), StompTopics.notifications(hotelId)));
+        worklists.publish();
+
+        return new RoomBatchResult(results.size(), 0, results);
+    }
+
+    private List<RoomBatchResult.Item> apply(List<RoomBatchRequest.RoomChange> changes,
+                                             Map<Long, List<WebSocketNotification.RoomDelta>> appliedPerHotel,
+                                             WorklistNotifier.Changes worklists) {
+        Set<Long> roomIds = new HashSet<>();
+        Set<Long> maidIds = new HashSet<>();
+        for (RoomBatchRequest.RoomChange change : changes) {
+            if (change != null && change.getRoomId() != null) {
+                roomIds.add(change.getRoomId());
+            }
+            if (change != null && change.getMaidId() != null) {
+                maidIds.add(change.getMaidId());
+            }
+        }
+
+        Map<Long, Room> rooms = roomRepository.findAllById(roomIds).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        Map<Long, User> maids = maidIds.isEmpty() ? Map.of() : userRepository.findAllById(maidIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // Primero se validan todos; con un error no se modifica ninguna habitación
+        List<String> errors = new ArrayList<>(changes.size());
+        Set<Long> seen = new HashSet<>();
+        for (RoomBatchRequest.RoomChange change : changes) {
+            String error = validate(change, rooms, maids);
+            if (error == null && !seen.add(change.getRoomId())) {
+                // Aplicarla dos veces duplicaría los deltas del tablero y de las listas de trabajo
+                error = "Habitación repetida en el lote";
+            }
+            errors.add(error);
+        }
+        if (errors.stream().anyMatch(Objects::nonNull)) {
+            List<RoomBatchResult.Item> results = new ArrayList<>(changes.size());
+            for (int i = 0; i < changes.size(); i++) {
+                RoomBatchRequest.RoomChange change = changes.get(i);
+                results.add(RoomBatchResult.Item.error(change != null ? change.getRoomId() : null,
+                        errors.get(i) != null ? errors.get(i) : NOT_APPLIED));
+            }
+            return results;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RoomBatchResult.Item> results = new ArrayList<>(changes.size());
+        List<Room> changed = new ArrayList<>(changes.size());
+        for (RoomBatchRequest.RoomChange change : changes) {
+            boolean unassign = Boolean.TRUE.equals(change.getUnassign());
+            Room room = rooms.get(change.getRoomId());
+            User maid = change.getMaidId() != null ? maids.get(change.getMaidId()) : null;
+
+            User previousMaid = room.getAssignedTo();
+            if (change.getStatus() != null) {
+                room.setStatus(change.getStatus());
+            }
+            if (maid != null) {
+                room.setAssignedTo(maid);
+                room.setAssignedAt(now);
+            } else if (unassign) {
+                room.setAssignedTo(null);
+                room.setAssignedAt(null);
+            }
+            room.setUpdatedAt(now);
+            changed.add(room);
+            results.add(RoomBatchResult.Item.ok(room));
+            Long hotelId = StompTopics.hotelOf(room);
+            if (hotelId != null) {
+                appliedPerHotel.computeIfAbsent(hotelId, id -> new ArrayList<>())
+                        .add(WebSocketNotification.RoomDelta.statusAndAssignment(room));
+            }
+            // Dentro de la transacción: username y edificio pueden ser proxies perezosos
+            if (maid != null || unassign) {
+                worklists.assignment(previousMaid, room);
+            } else {
+                worklists.status(room);
+            }
+        }
+        // El tablero toma los datos ahora y los aplica solo si la transacción se confirma
+        statusBoard.roomsChanged(changed);
+        // Las entidades están gestionadas: el flush al confirmar agrupa los UPDATE en lotes
+        return results;
+    }
+
+    private static String validate(RoomBatchRequest.RoomChange change, Map<Long, Room> rooms, Map<Long, User> maids) {
+        if (change == null || change.getRoomId() == null) {
+            return "roomId es requerido";
+        }
+        if (change.getStatus() == null && change.getMaidId() == null && !Boolean.TRUE.equals(change.getUnassign())) {
+            return "Sin cambios";
+        }
+        if (!rooms.containsKey(change.getRoomId())) {
+            return "Habitación no encontrada";
+        }
+        if (change.getMaidId() != null) {
+            // Mismo criterio que la asignación automática (findByHotelIdAndRoleAndActiveTrue)
+            User maid = maids.get(change.getMaidId());
+            if (maid == null) {
+                return "Mucama no encontrada";
+            }
+            if (maid.getRole() != User.Role.MAID) {
+                return "El usuario no es mucama";
+            }
+            if (!Boolean.TRUE.equals(maid.getActive())) {
+                return "Mucama inactiva";
+            }
+            Long hotelId = StompTopics.hotelOf(rooms.get(change.getRoomId()));
+            if (maid.getHotel() == null || !maid.getHotel().getId().equals(hotelId)) {
+                return "La mucama es de otro hotel";
+            }
+        }
+        return null;
+    }
+}
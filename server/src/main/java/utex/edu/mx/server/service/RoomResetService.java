@@ -0,0 +1,101 @@
+package utex.edu.mx.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import utex.edu.mx.server.config.ShardFanOut;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.repository.BuildingRepository;
+import utex.edu.mx.server.repository.RoomRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Motor de reinicio masivo de habitaciones.
+ * En lugar de cargar y guardar cada habitación, ejecuta sentencias UPDATE por edificio,
+ * divididas en rangos de id de tamaño fijo. Cada bloque corre en su propia transacción
+ * para que los bloqueos se liberen pronto aunque el hotel tenga miles de habitaciones.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomResetService {
+
+    private final RoomRepository roomRepository;
+    private final BuildingRepository buildingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RoomStatusBoard statusBoard;
+    private final ShardFanOut shardFanOut;
+
+    @Value("${rooms.reset.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    /**
+     * Resultado del reinicio: solo conteos, nunca entidades.
+     */
+    public record ResetResult(int total, Map<Long, Integer> perHotel) {
+    }
+
+    /**
+     * Marca como DIRTY todas las habitaciones CLEAN, hotel por hotel y edificio por edificio.
+     * Las asignaciones de mucamas y las habitaciones OCCUPIED no se modifican.
+     * Con varios shards, cada uno se reinicia en paralelo.
+     */
+    public ResetResult resetCleanRooms() {
+        Map<Long, Integer> perHotel = new LinkedHashMap<>();
+        int total = 0;
+        for (ResetResult shard : shardFanOut.collect(() -> List.of(resetShard()))) {
+            perHotel.putAll(shard.perHotel());
+            total += shard.total();
+        }
+        return new ResetResult(total, Collections.unmodifiableMap(perHotel));
+    }
+
+    private ResetResult resetShard() {
+        Map<Long, Integer> perHotel = new LinkedHashMap<>();
+        int total = 0;
+
+        for (Long hotelId : buildingRepository.findDistinctHotelIds()) {
+            int hotelCount = 0;
+            for (Long buildingId : buildingRepository.findIdsByHotelId(hotelId)) {
+                hotelCount += resetBuilding(buildingId, Room.RoomStatus.CLEAN, Room.RoomStatus.DIRTY);
+            }
+            if (hotelCount > 0) {
+                perHotel.put(hotelId, hotelCount);
+                total += hotelCount;
+            }
+            log.debug("Hotel {}: {} habitaciones reiniciadas", hotelId, hotelCount);
+        }
+
+        return new ResetResult(total, Collections.unmodifiableMap(perHotel));
+    }
+
+    private int resetBuilding(Long buildingId, Room.RoomStatus from, Room.RoomStatus to) {
+        List<Object[]> range = roomRepository.findIdRangeByBuildingIdAndStatus(buildingId, from);
+        if (range.isEmpty() || range.get(0)[0] == null) {
+            return 0;
+        }
+        long minId = ((Number) range.get(0)[0]).longValue();
+        long maxId = ((Number) range.get(0)[1]).longValue();
+
+        int updated = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (long lo = minId; lo <= maxId; lo += chunkSize) {
+            long fromId = lo;
+            long toId = Math.min(lo + chunkSize - 1, maxId);
+            Integer count = transactionTemplate.execute(status ->
+                    roomRepository.bulkUpdateStatus(buildingId, from, to, fromId, toId, now));
+            updated += count != null ? count : 0;
+        }
+        if (updated > 0) {
+            statusBoard.buildingStatusChanged(buildingId, from, to);
+        }
+        return updated;
+    }
+}
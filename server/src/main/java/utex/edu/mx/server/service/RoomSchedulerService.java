@@ -2,69 +2,47 @@ package utex.edu.mx.server.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import utex.edu.mx.server.config.StompTopics;
 import utex.edu.mx.server.dto.WebSocketNotification;
-import utex.edu.mx.server.model.Room;
-import utex.edu.mx.server.repository.RoomRepository;
-
-import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RoomSchedulerService {
 
-    private final RoomRepository roomRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomResetService roomResetService;
+    private final MaidAssignmentService maidAssignmentService;
+    private final NotificationDispatcher notificationDispatcher;
+    
+    @Value("${rooms.auto-assign.enabled:true}")
+    private boolean autoAssignEnabled = true;
 
     /**
      * Reinicia el estado de las habitaciones cada día a las 8:00 AM
      * - Las habitaciones CLEAN pasan a DIRTY
      * - Se mantienen las asignaciones de mucamas
      * - Las habitaciones OCCUPIED no se modifican
+     * La actualización es masiva (ver {@link RoomResetService}) y se notifica una vez por hotel.
+     * Después se reparten las habitaciones sucias entre las mucamas activas
+     * (ver {@link MaidAssignmentService}), salvo que rooms.auto-assign.enabled=false.
      */
     @Scheduled(cron = "0 0 8 * * *") // Ejecutar a las 8:00 AM todos los días
-    @Transactional
     public void dailyRoomReset() {
         log.info("🕐 Iniciando reinicio diario de habitaciones a las 8:00 AM");
         
         try {
-            // Obtener todas las habitaciones que están limpias
-            List<Room> cleanRooms = roomRepository.findByStatus(Room.RoomStatus.CLEAN);
+            RoomResetService.ResetResult result = roomResetService.resetCleanRooms();
             
-            int updatedCount = 0;
+            log.info("✅ Reinicio diario completado: {} habitaciones marcadas como DIRTY", result.total());
             
-            for (Room room : cleanRooms) {
-                // Cambiar estado a DIRTY
-                room.setStatus(Room.RoomStatus.DIRTY);
-                room.setUpdatedAt(LocalDateTime.now());
-                
-                // Mantener la asignación de mucama (assignedTo no se modifica)
-                // La mucama ya asignada seguirá viendo esta habitación
-                
-                roomRepository.save(room);
-                updatedCount++;
-                
-                log.debug("Habitación {} marcada como DIRTY, asignada a: {}", 
-                    room.getNumber(), 
-                    room.getAssignedTo() != null ? room.getAssignedTo().getUsername() : "sin asignar");
-            }
+            // Notificar a los clientes conectados vía WebSocket (un evento por hotel)
+            notifyPerHotel(result, WebSocketNotification.Type.DAILY_RESET);
             
-            log.info("✅ Reinicio diario completado: {} habitaciones marcadas como DIRTY", updatedCount);
-            
-            // Notificar a todos los clientes conectados vía WebSocket
-            if (updatedCount > 0) {
-                WebSocketNotification notification = new WebSocketNotification(
-                    "DAILY_RESET",
-                    String.format("Reinicio diario: %d habitaciones marcadas como pendientes de limpieza", updatedCount),
-                    null
-                );
-                messagingTemplate.convertAndSend("/topic/rooms", notification);
-                messagingTemplate.convertAndSend("/topic/notifications", notification);
+            if (autoAssignEnabled) {
+                maidAssignmentService.assignAll();
             }
             
         } catch (Exception e) {
@@ -75,32 +53,22 @@ public class RoomSchedulerService {
     /**
      * Método para ejecutar el reinicio manualmente (útil para pruebas)
      */
-    @Transactional
     public int manualReset() {
         log.info("🔧 Reinicio manual de habitaciones solicitado");
         
-        List<Room> cleanRooms = roomRepository.findByStatus(Room.RoomStatus.CLEAN);
-        
-        for (Room room : cleanRooms) {
-            room.setStatus(Room.RoomStatus.DIRTY);
-            room.setUpdatedAt(LocalDateTime.now());
-            roomRepository.save(room);
-        }
-        
-        int count = cleanRooms.size();
-        log.info("✅ Reinicio manual completado: {} habitaciones actualizadas", count);
+        RoomResetService.ResetResult result = roomResetService.resetCleanRooms();
+        log.info("✅ Reinicio manual completado: {} habitaciones actualizadas", result.total());
         
         // Notificar
-        if (count > 0) {
-            WebSocketNotification notification = new WebSocketNotification(
-                "MANUAL_RESET",
-                String.format("Reinicio manual: %d habitaciones marcadas como pendientes", count),
-                null
-            );
-            messagingTemplate.convertAndSend("/topic/rooms", notification);
-            messagingTemplate.convertAndSend("/topic/notifications", notification);
-        }
+        notifyPerHotel(result, WebSocketNotification.Type.MANUAL_RESET);
         
-        return count;
+        return result.total();
+    }
+    
+    private void notifyPerHotel(RoomResetService.ResetResult result, WebSocketNotification.Type type) {
+        result.perHotel().forEach((hotelId, count) -> {
+            notificationDispatcher.publish(type, new WebSocketNotification.RoomsReset(hotelId, count),
+                    StompTopics.rooms(hotelId), StompTopics.notifications(hotelId));
+        });
     }
 }
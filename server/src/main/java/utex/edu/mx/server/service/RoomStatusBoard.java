@@ -0,0 +1,415 @@
+package utex.edu.mx.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import utex.edu.mx.server.config.ShardFanOut;
+import utex.edu.mx.server.dto.DashboardSummary;
+import utex.edu.mx.server.model.Incident;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.repository.BuildingRepository;
+import utex.edu.mx.server.repository.IncidentRepository;
+import utex.edu.mx.server.repository.RoomRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tablero de estados en memoria.
+ * Mantiene un índice compacto por id de habitación y contadores por hotel/edificio/piso,
+ * actualizados en línea desde los controladores (write-through) y reconstruidos desde la
+ * base de datos al arrancar. Permite responder el resumen del dashboard sin consultar MySQL.
+ * Los cambios se pueden informar dentro de la transacción: se toman los datos en ese momento
+ * y se aplican al confirmarla, así un rollback no deja en el tablero un estado que nunca se guardó.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomStatusBoard {
+
+    private static final Room.RoomStatus[] STATUSES = Room.RoomStatus.values();
+
+    private static final Comparator<FloorKey> FLOOR_ORDER = Comparator
+            .comparing(FloorKey::hotelId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(FloorKey::buildingId)
+            .thenComparingInt(FloorKey::floor);
+
+    private final RoomRepository roomRepository;
+    private final IncidentRepository incidentRepository;
+    private final BuildingRepository buildingRepository;
+    private final ShardFanOut shardFanOut;
+
+    private record RoomEntry(Long hotelId, Long buildingId, int floor, Room.RoomStatus status, Long maidId) {
+    }
+
+    private record IncidentEntry(Long hotelId, Long buildingId, Long roomId) {
+    }
+
+    private record FloorKey(Long hotelId, Long buildingId, int floor) {
+    }
+
+    private record MaidKey(Long hotelId, Long maidId) {
+    }
+
+    /**
+     * Resultado de comparar los contadores en memoria con la base de datos.
+     */
+    public record ConsistencyReport(boolean consistent, List<String> mismatches) {
+    }
+
+    private final Map<Long, Long> buildingHotels = new ConcurrentHashMap<>();
+
+    // Estado protegido por el monitor de this
+    private Map<Long, RoomEntry> rooms = new HashMap<>();
+    private Map<Long, Set<Long>> roomsByBuilding = new HashMap<>();
+    private Map<Long, IncidentEntry> openIncidents = new HashMap<>();
+    private Map<FloorKey, int[]> floorCounts = new TreeMap<>(FLOOR_ORDER);
+    private Map<MaidKey, int[]> maidCounts = new HashMap<>();
+    private Map<Long, String> maidNames = new HashMap<>();
+
+    /**
+     * Reconstruye el tablero completo con dos consultas de proyección (por shard).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> roomRows = shardFanOut.collectAll(roomRepository::findStatusBoardRows);
+        List<Object[]> incidentRows = shardFanOut.collectAll(
+                () -> incidentRepository.findStatusBoardRows(Incident.IncidentStatus.OPEN));
+
+        synchronized (this) {
+            rooms = new HashMap<>(roomRows.size() * 2);
+            roomsByBuilding = new HashMap<>();
+            openIncidents = new HashMap<>();
+            floorCounts = new TreeMap<>(FLOOR_ORDER);
+            maidCounts = new HashMap<>();
+            maidNames = new HashMap<>();
+
+            for (Object[] row : roomRows) {
+                Long hotelId = (Long) row[1];
+                Long buildingId = (Long) row[2];
+                buildingHotels.put(buildingId, hotelId);
+                if (row[5] != null) {
+                    maidNames.put((Long) row[5], (String) row[6]);
+                }
+                add((Long) row[0], new RoomEntry(hotelId, buildingId, (Integer) row[3],
+                        (Room.RoomStatus) row[4], (Long) row[5]));
+            }
+            for (Object[] row : incidentRows) {
+                openIncidents.put((Long) row[0], new IncidentEntry((Long) row[1], (Long) row[2], (Long) row[3]));
+            }
+        }
+        log.info("Tablero de estados reconstruido: {} habitaciones, {} incidencias abiertas",
+                roomRows.size(), incidentRows.size());
+    }
+
+    public void roomChanged(Room room) {
+        roomsChanged(Collections.singletonList(room));
+    }
+
+    /**
+     * Refleja varios cambios de habitación con una sola aplicación al confirmar.
+     */
+    public void roomsChanged(Collection<Room> changed) {
+        Map<Long, RoomEntry> entries = new LinkedHashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        for (Room room : changed) {
+            if (room == null || room.getId() == null || room.getBuilding() == null) {
+                continue;
+            }
+            Long buildingId = room.getBuilding().getId();
+            Long maidId = room.getAssignedTo() != null ? room.getAssignedTo().getId() : null;
+            int floor = room.getFloor() != null ? room.getFloor() : 0;
+            entries.put(room.getId(), new RoomEntry(hotelOf(buildingId), buildingId, floor, room.getStatus(), maidId));
+            if (maidId != null && room.getAssignedTo().getName() != null) {
+                names.put(maidId, room.getAssignedTo().getName());
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        afterCommit(() -> {
+            synchronized (this) {
+                maidNames.putAll(names);
+                entries.forEach((roomId, entry) -> {
+                    remove(roomId);
+                    add(roomId, entry);
+                });
+            }
+        });
+    }
+
+    public void roomRemoved(Long roomId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                remove(roomId);
+            }
+        });
+    }
+
+    /**
+     * Refleja una actualización masiva (p. ej. el reinicio diario) sobre todo un edificio.
+     */
+    public void buildingStatusChanged(Long buildingId, Room.RoomStatus from, Room.RoomStatus to) {
+        afterCommit(() -> {
+            synchronized (this) {
+                for (Long roomId : List.copyOf(roomsByBuilding.getOrDefault(buildingId, Set.of()))) {
+                    RoomEntry entry = rooms.get(roomId);
+                    if (entry != null && entry.status() == from) {
+                        remove(roomId);
+                        add(roomId, new RoomEntry(entry.hotelId(), entry.buildingId(), entry.floor(), to, entry.maidId()));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Refleja una asignación masiva de habitaciones a una mucama.
+     */
+    public void roomsAssigned(Long maidId, String maidName, Collection<Long> roomIds) {
+        List<Long> assigned = List.copyOf(roomIds);
+        afterCommit(() -> {
+            synchronized (this) {
+                if (maidName != null) {
+                    maidNames.put(maidId, maidName);
+                }
+                for (Long roomId : assigned) {
+                    RoomEntry entry = rooms.get(roomId);
+                    if (entry != null) {
+                        remove(roomId);
+                        add(roomId, new RoomEntry(entry.hotelId(), entry.buildingId(), entry.floor(), entry.status(), maidId));
+                    }
+                }
+            }
+        });
+    }
+
+    public void incidentChanged(Incident incident) {
+        if (incident == null || incident.getId() == null) {
+            return;
+        }
+        if (incident.getStatus() != Incident.IncidentStatus.OPEN || incident.getRoom() == null) {
+            incidentRemoved(incident.getId());
+            return;
+        }
+        Long roomId = incident.getRoom().getId();
+        Long buildingId;
+        synchronized (this) {
+            RoomEntry room = rooms.get(roomId);
+            buildingId = room != null ? room.buildingId() : null;
+        }
+        if (buildingId == null && incident.getRoom().getBuilding() != null) {
+            buildingId = incident.getRoom().getBuilding().getId();
+        }
+        IncidentEntry entry = new IncidentEntry(buildingId != null ? hotelOf(buildingId) : null, buildingId, roomId);
+        Long incidentId = incident.getId();
+        afterCommit(() -> {
+            synchronized (this) {
+                openIncidents.put(incidentId, entry);
+            }
+        });
+    }
+
+    public void incidentRemoved(Long incidentId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                openIncidents.remove(incidentId);
+            }
+        });
+    }
+
+    /**
+     * Resumen del tablero, opcionalmente limitado a un hotel.
+     */
+    public synchronized DashboardSummary summary(Long hotelId) {
+        int[] total = new int[STATUSES.length];
+        Map<Long, int[]> buildingTotals = new LinkedHashMap<>();
+        Map<Long, List<DashboardSummary.FloorSummary>> buildingFloors = new LinkedHashMap<>();
+        Map<Long, Long> buildingHotel = new HashMap<>();
+
+        for (Map.Entry<FloorKey, int[]> e : floorCounts.entrySet()) {
+            FloorKey key = e.getKey();
+            if (hotelId != null && !hotelId.equals(key.hotelId())) {
+                continue;
+            }
+            int[] counts = e.getValue();
+            int[] building = buildingTotals.computeIfAbsent(key.buildingId(), id -> new int[STATUSES.length]);
+            for (int i = 0; i < counts.length; i++) {
+                total[i] += counts[i];
+                building[i] += counts[i];
+            }
+            buildingHotel.put(key.buildingId(), key.hotelId());
+            buildingFloors.computeIfAbsent(key.buildingId(), id -> new ArrayList<>())
+                    .add(new DashboardSummary.FloorSummary(key.floor(), toMap(counts)));
+        }
+
+        Map<Long, Integer> incidentsByBuilding = new HashMap<>();
+        Set<Long> blockedRooms = new HashSet<>();
+        int open = 0;
+        for (IncidentEntry incident : openIncidents.values()) {
+            if (hotelId != null && !hotelId.equals(incident.hotelId())) {
+                continue;
+            }
+            open++;
+            blockedRooms.add(incident.roomId());
+            if (incident.buildingId() != null) {
+                incidentsByBuilding.merge(incident.buildingId(), 1, Integer::sum);
+            }
+        }
+
+        List<DashboardSummary.BuildingSummary> buildings = new ArrayList<>(buildingTotals.size());
+        buildingTotals.forEach((buildingId, counts) -> buildings.add(new DashboardSummary.BuildingSummary(
+                buildingId,
+                buildingHotel.get(buildingId),
+                toMap(counts),
+                incidentsByBuilding.getOrDefault(buildingId, 0),
+                buildingFloors.get(buildingId))));
+
+        Map<Long, int[]> maids = new TreeMap<>();
+        maidCounts.forEach((key, counts) -> {
+            if (hotelId == null || hotelId.equals(key.hotelId())) {
+                int[] m = maids.computeIfAbsent(key.maidId(), id -> new int[2]);
+                m[0] += counts[0];
+                m[1] += counts[1];
+            }
+        });
+        List<DashboardSummary.MaidSummary> maidSummaries = new ArrayList<>(maids.size());
+        maids.forEach((maidId, counts) -> maidSummaries.add(
+                new DashboardSummary.MaidSummary(maidId, maidNames.get(maidId), counts[0], counts[1])));
+
+        return new DashboardSummary(toMap(total), open, blockedRooms.size(), buildings, maidSummaries);
+    }
+
+    /**
+     * Compara los contadores en memoria contra conteos agregados en la base de datos.
+     */
+    public ConsistencyReport checkConsistency() {
+        Map<String, Long> expected = new TreeMap<>();
+        List<Object[]> dbRows = shardFanOut.collectAll(roomRepository::countByBuildingFloorAndStatus);
+        for (Object[] row : dbRows) {
+            expected.put(row[0] + "/" + row[1] + "/" + row[2], (Long) row[3]);
+        }
+        long expectedOpen = shardFanOut.collectAll(() -> List.of(incidentRepository.countByStatus(Incident.IncidentStatus.OPEN)))
+                .stream().mapToLong(Long::longValue).sum();
+
+        Map<String, Long> actual = new TreeMap<>();
+        long actualOpen;
+        synchronized (this) {
+            floorCounts.forEach((key, counts) -> {
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] != 0) {
+                        actual.put(key.buildingId() + "/" + key.floor() + "/" + STATUSES[i], (long) counts[i]);
+                    }
+                }
+            });
+            actualOpen = openIncidents.size();
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        Set<String> keys = new TreeSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        for (String key : keys) {
+            long db = expected.getOrDefault(key, 0L);
+            long memory = actual.getOrDefault(key, 0L);
+            if (db != memory) {
+                mismatches.add("habitaciones " + key + ": db=" + db + " memoria=" + memory);
+            }
+        }
+        if (expectedOpen != actualOpen) {
+            mismatches.add("incidencias abiertas: db=" + expectedOpen + " memoria=" + actualOpen);
+        }
+        return new ConsistencyReport(mismatches.isEmpty(), mismatches);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Long hotelOf(Long buildingId) {
+        if (buildingId == null) {
+            return null;
+        }
+        Long hotelId = buildingHotels.get(buildingId);
+        if (hotelId == null) {
+            hotelId = buildingRepository.findHotelIdById(buildingId).orElse(null);
+            if (hotelId != null) {
+                buildingHotels.put(buildingId, hotelId);
+            }
+        }
+        return hotelId;
+    }
+
+    // Debe llamarse con el monitor tomado
+    private void add(Long roomId, RoomEntry entry) {
+        rooms.put(roomId, entry);
+        roomsByBuilding.computeIfAbsent(entry.buildingId(), id -> new HashSet<>()).add(roomId);
+        if (entry.status() != null) {
+            floorCounts.computeIfAbsent(new FloorKey(entry.hotelId(), entry.buildingId(), entry.floor()),
+                    k -> new int[STATUSES.length])[entry.status().ordinal()]++;
+        }
+        if (entry.maidId() != null) {
+            int[] counts = maidCounts.computeIfAbsent(new MaidKey(entry.hotelId(), entry.maidId()), k -> new int[2]);
+            counts[0]++;
+            if (entry.status() == Room.RoomStatus.CLEAN) {
+                counts[1]++;
+            }
+        }
+    }
+
+    // Debe llamarse con el monitor tomado
+    private void remove(Long roomId) {
+        RoomEntry entry = rooms.remove(roomId);
+        if (entry == null) {
+            return;
+        }
+        Set<Long> buildingRooms = roomsByBuilding.get(entry.buildingId());
+        if (buildingRooms != null) {
+            buildingRooms.remove(roomId);
+        }
+        if (entry.status() != null) {
+            FloorKey key = new FloorKey(entry.hotelId(), entry.buildingId(), entry.floor());
+            int[] counts = floorCounts.get(key);
+            if (counts != null) {
+                counts[entry.status().ordinal()]--;
+                if (Arrays.stream(counts).allMatch(c -> c == 0)) {
+                    floorCounts.remove(key);
+                }
+            }
+        }
+        if (entry.maidId() != null) {
+            MaidKey key = new MaidKey(entry.hotelId(), entry.maidId());
+            int[] counts = maidCounts.get(key);
+            if (counts != null) {
+                counts[0]--;
+                if (entry.status() == Room.RoomStatus.CLEAN) {
+                    counts[1]--;
+                }
+                if (counts[0] == 0) {
+                    maidCounts.remove(key);
+                }
+            }
+        }
+    }
+
+    private static Map<Room.RoomStatus, Integer> toMap(int[] counts) {
+        Map<Room.RoomStatus, Integer> map = new EnumMap<>(Room.RoomStatus.class);
+        for (Room.RoomStatus status : STATUSES) {
+            map.put(status, counts[status.ordinal()]);
+        }
+        return map;
+    }
+}
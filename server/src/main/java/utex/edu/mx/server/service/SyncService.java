@@ -0,0 +1,179 @@
+package utex.edu.mx.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import utex.edu.mx.server.config.ShardFanOut;
+import utex.edu.mx.server.dto.SyncChanges;
+import utex.edu.mx.server.model.Incident;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.SyncTombstone;
+import utex.edu.mx.server.repository.IncidentRepository;
+import utex.edu.mx.server.repository.RoomRepository;
+import utex.edu.mx.server.repository.SyncTombstoneRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Sincronización incremental para clientes offline.
+ * Cada flujo (habitaciones, incidentes, eliminaciones) avanza con su propio cursor por
+ * clave (updated_at, id) o id de tombstone, de modo que cada consulta usa el índice y
+ * nunca relee lo ya entregado. Solo se devuelven filas con algunos segundos de antigüedad
+ * (settle lag) para no saltarse escrituras que aún no se confirman.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SyncService {
+
+    public static final int DEFAULT_LIMIT = 200;
+    public static final int MAX_LIMIT = 1000;
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final RoomRepository roomRepository;
+    private final IncidentRepository incidentRepository;
+    private final SyncTombstoneRepository tombstoneRepository;
+    private final ShardFanOut shardFanOut;
+
+    @Value("${sync.settle-lag-ms:2000}")
+    private long settleLagMs = 2000;
+
+    @Value("${sync.tombstone-retention-days:30}")
+    private int retentionDays = 30;
+
+    /**
+     * Posición de un cliente en cada flujo de cambios.
+     */
+    record SyncToken(LocalDateTime issuedAt,
+                     LocalDateTime roomsSince, long roomsAfterId,
+                     LocalDateTime incidentsSince, long incidentsAfterId,
+                     long tombstonesAfterId) {
+
+        private static final String VERSION = "1";
+
+        String encode() {
+            String raw = String.join("|", VERSION, issuedAt.toString(),
+                    roomsSince.toString(), Long.toString(roomsAfterId),
+                    incidentsSince.toString(), Long.toString(incidentsAfterId),
+                    Long.toString(tombstonesAfterId));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SyncToken decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                if (parts.length != 7 || !VERSION.equals(parts[0])) {
+                    throw new IllegalArgumentException("Token de sincronización inválido");
+                }
+                return new SyncToken(LocalDateTime.parse(parts[1]),
+                        LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]),
+                        LocalDateTime.parse(parts[4]), Long.parseLong(parts[5]),
+                        Long.parseLong(parts[6]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Token de sincronización inválido", e);
+            }
+        }
+    }
+
+    /**
+     * Cambios desde el token dado (o todo, si no hay token).
+     *
+     * @throws IllegalArgumentException si el token no se puede interpretar
+     */
+    @Transactional(readOnly = true)
+    public SyncChanges changesSince(String token, Integer limit) {
+        LocalDateTime now = LocalDateTime.now();
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        PageRequest page = PageRequest.of(0, size);
+
+        boolean resetRequired = false;
+        SyncToken from;
+        if (token == null || token.isBlank()) {
+            from = initialToken(now);
+        } else {
+            from = SyncToken.decode(token);
+            if (from.issuedAt().isBefore(now.minusDays(retentionDays))) {
+                // Las eliminaciones posteriores al token pudieron purgarse: copia completa
+                from = initialToken(now);
+                resetRequired = true;
+            }
+        }
+
+        LocalDateTime until = now.minus(Duration.ofMillis(settleLagMs));
+
+        Slice<Room> rooms = roomRepository.findChangedSince(from.roomsSince(), from.roomsAfterId(), until, page);
+        Slice<Incident> incidents = incidentRepository.findChangedSince(from.incidentsSince(), from.incidentsAfterId(), until, page);
+        Slice<SyncTombstone> tombstones = tombstoneRepository
+                .findByIdGreaterThanAndDeletedAtLessThanEqualOrderByIdAsc(from.tombstonesAfterId(), until, page);
+
+        LocalDateTime roomsSince = from.roomsSince();
+        long roomsAfterId = from.roomsAfterId();
+        if (rooms.hasContent()) {
+            Room last = rooms.getContent().get(rooms.getNumberOfElements() - 1);
+            roomsSince = last.getUpdatedAt();
+            roomsAfterId = last.getId();
+        }
+        LocalDateTime incidentsSince = from.incidentsSince();
+        long incidentsAfterId = from.incidentsAfterId();
+        if (incidents.hasContent()) {
+            Incident last = incidents.getContent().get(incidents.getNumberOfElements() - 1);
+            incidentsSince = last.getUpdatedAt();
+            incidentsAfterId = last.getId();
+        }
+        long tombstonesAfterId = from.tombstonesAfterId();
+        if (tombstones.hasContent()) {
+            tombstonesAfterId = tombstones.getContent().get(tombstones.getNumberOfElements() - 1).getId();
+        }
+
+        List<SyncChanges.Deletion> deleted = tombstones.getContent().stream()
+                .map(t -> new SyncChanges.Deletion(t.getEntityType(), t.getEntityId()))
+                .toList();
+
+        SyncToken next = new SyncToken(now, roomsSince, roomsAfterId, incidentsSince, incidentsAfterId, tombstonesAfterId);
+        boolean hasMore = rooms.hasNext() || incidents.hasNext() || tombstones.hasNext();
+        return new SyncChanges(rooms.getContent(), incidents.getContent(), deleted, next.encode(), hasMore, resetRequired);
+    }
+
+    /**
+     * Registra la eliminación de una entidad. Debe llamarse dentro de la misma transacción
+     * que el DELETE para que ambos se confirmen juntos.
+     */
+    public void recordDeletion(SyncTombstone.EntityType type, Long entityId) {
+        SyncTombstone tombstone = new SyncTombstone();
+        tombstone.setEntityType(type);
+        tombstone.setEntityId(entityId);
+        tombstone.setDeletedAt(LocalDateTime.now());
+        tombstoneRepository.save(tombstone);
+    }
+
+    /**
+     * Purga las eliminaciones más antiguas que la ventana de retención.
+     * Los tokens más viejos que esa ventana reciben resetRequired.
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void pruneTombstones() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        shardFanOut.forEachShard(() -> {
+            int removed = tombstoneRepository.deleteOlderThan(before);
+            if (removed > 0) {
+                log.info("Purgadas {} eliminaciones de sincronización anteriores a {} días", removed, retentionDays);
+            }
+        });
+    }
+
+    private SyncToken initialToken(LocalDateTime now) {
+        // Una copia completa ya refleja las eliminaciones anteriores: los tombstones parten del último id
+        return new SyncToken(now, ORIGIN, 0L, ORIGIN, 0L, tombstoneRepository.findMaxId());
+    }
+}
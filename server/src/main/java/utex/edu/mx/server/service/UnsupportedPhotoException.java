@@ -0,0 +1,16 @@
+package utex.edu.mx.server.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * El contenido recibido como foto no es JPEG, PNG ni WebP (ver {@link PhotoFormat}).
+ * Al salir del controlador revierte la transacción y responde 415.
+ */
+@ResponseStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+public class UnsupportedPhotoException extends IllegalArgumentException {
+
+    public UnsupportedPhotoException(String message) {
+        super(message);
+    }
+}
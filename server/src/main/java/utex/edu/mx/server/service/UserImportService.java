@@ -0,0 +1,312 @@
+package utex.edu.mx.server.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import utex.edu.mx.server.config.ShardContext;
+import utex.edu.mx.server.config.ShardDirectory;
+import utex.edu.mx.server.config.ShardFanOut;
+import utex.edu.mx.server.dto.UserImportResult;
+import utex.edu.mx.server.dto.UserImportRow;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.HotelRepository;
+import utex.edu.mx.server.repository.UserRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Alta masiva de usuarios (onboarding de un hotel completo).
+ * Valida todo el lote antes de escribir, comprueba los usernames existentes con una sola
+ * consulta IN, calcula los hashes BCrypt en paralelo en un ForkJoinPool propio (separado del
+ * pool de logins) e inserta con INSERT en lotes JDBC dentro de una transacción.
+ * Con varios shards los usernames se buscan en todos (son únicos en todo el sistema) y cada
+ * usuario se valida e inserta en el shard de su hotel, con una transacción por shard.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    private static final String INSERT_SQL = "insert into users "
+            + "(username, password, name, email, role, hotel_id, active, token_version, created_at, updated_at) "
+            + "values (?, ?, ?, ?, ?, ?, true, 0, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final HotelRepository hotelRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReferenceDataCache referenceDataCache;
+    private final ShardDirectory shardDirectory;
+    private final ShardFanOut shardFanOut;
+    private final ForkJoinPool hashingPool;
+    private final int maxSize;
+    private final int batchSize;
+
+    public UserImportService(UserRepository userRepository,
+                             HotelRepository hotelRepository,
+                             PasswordEncoder passwordEncoder,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ReferenceDataCache referenceDataCache,
+                             ShardDirectory shardDirectory,
+                             ShardFanOut shardFanOut,
+                             @Value("${users.import.max-size:2000}") int maxSize,
+                             @Value("${users.import.batch-size:500}") int batchSize,
+                             @Value("${users.import.hash-parallelism:0}") int parallelism) {
+        this.userRepository = userRepository;
+        this.hotelRepository = hotelRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.referenceDataCache = referenceDataCache;
+        this.shardDirectory = shardDirectory;
+        this.shardFanOut = shardFanOut;
+        this.maxSize = maxSize;
+        this.batchSize = batchSize;
+        this.hashingPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Convierte un CSV con encabezado (username,password,name,email,role,hotelId) en filas.
+     * Las líneas vacías se ignoran; una línea mal formada produce una fila sin username que
+     * la validación reporta como error en su posición.
+     */
+    public List<UserImportRow> parseCsv(String csv) {
+        List<UserImportRow> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(csv))) {
+            String header = reader.readLine();
+            if (header == null) {
+                return rows;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                UserImportRow row = new UserImportRow();
+                try {
+                    List<String> fields = CsvLine.parse(line);
+                    row.setUsername(CsvLine.field(fields, 0));
+                    row.setPassword(CsvLine.field(fields, 1));
+                    row.setName(CsvLine.field(fields, 2));
+                    row.setEmail(CsvLine.field(fields, 3));
+                    row.setRole(CsvLine.field(fields, 4));
+                    String hotelId = CsvLine.field(fields, 5);
+                    row.setHotelId(hotelId != null ? Long.valueOf(hotelId) : null);
+                } catch (IllegalArgumentException e) {
+                    // Se deja la fila incompleta: la validación la marca como inválida
+                    row.setUsername(null);
+                }
+                rows.add(row);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return rows;
+    }
+
+    /**
+     * Crea los usuarios válidos del lote y devuelve el resultado de cada fila.
+     * Las filas inválidas no impiden crear las demás.
+     */
+    public UserImportResult importUsers(List<UserImportRow> rows) {
+        long start = System.nanoTime();
+        UserImportResult.Item[] results = new UserImportResult.Item[rows.size()];
+
+        // Una consulta para usernames existentes (por shard) y otra para hoteles (en el shard de cada uno)
+        Set<String> usernames = new HashSet<>();
+        Map<String, Set<Long>> hotelIdsByShard = new LinkedHashMap<>();
+        for (UserImportRow row : rows) {
+            if (row != null && row.getUsername() != null) {
+                usernames.add(row.getUsername().trim());
+            }
+            if (row != null && row.getHotelId() != null) {
+                hotelIdsByShard.computeIfAbsent(shardDirectory.shardFor(row.getHotelId()), shard -> new HashSet<>())
+                        .add(row.getHotelId());
+            }
+        }
+        Set<String> existing = usernames.isEmpty() ? Set.of()
+                : new HashSet<>(shardFanOut.collectAll(() -> userRepository.findExistingUsernames(usernames)));
+        Set<Long> knownHotels = new HashSet<>();
+        hotelIdsByShard.forEach((shard, hotelIds) -> ShardContext.runOn(shard, () -> hotelRepository.findAllById(hotelIds))
+                .forEach(h -> knownHotels.add(h.getId())));
+
+        List<Integer> valid = new ArrayList<>();
+        List<User.Role> roles = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            UserImportRow row = rows.get(i);
+            String username = row != null && row.getUsername() != null ? row.getUsername().trim() : null;
+            String error = validate(row, username, existing, knownHotels, seen);
+            User.Role role = null;
+            if (error == null) {
+                try {
+                    role = User.Role.valueOf(row.getRole().trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    error = "Rol inválido: " + row.getRole();
+                }
+            }
+            if (error != null) {
+                results[i] = UserImportResult.Item.error(i + 1, username, error);
+                continue;
+            }
+            seen.add(username);
+            valid.add(i);
+            roles.add(role);
+        }
+
+        if (!valid.isEmpty()) {
+            String[] hashes = hashAll(valid.stream().map(i -> rows.get(i).getPassword()).toList());
+            long[] ids = insertByShard(rows, valid, roles, hashes);
+            for (int v = 0; v < valid.size(); v++) {
+                int i = valid.get(v);
+                results[i] = UserImportResult.Item.ok(i + 1, rows.get(i).getUsername().trim(), ids[v]);
+            }
+        }
+
+        log.info("Alta masiva de usuarios: {} creados, {} con error en {} ms",
+                valid.size(), rows.size() - valid.size(), (System.nanoTime() - start) / 1_000_000);
+        return new UserImportResult(valid.size(), rows.size() - valid.size(), Arrays.asList(results));
+    }
+
+    private String validate(UserImportRow row, String username, Set<String> existing,
+                            Set<Long> knownHotels, Set<String> seen) {
+        if (row == null || username == null || username.isEmpty()) {
+            return "Username es requerido";
+        }
+        if (row.getName() == null || row.getName().trim().isEmpty()) {
+            return "Nombre es requerido";
+        }
+        if (row.getRole() == null || row.getRole().trim().isEmpty()) {
+            return "Rol es requerido";
+        }
+        if (row.getPassword() == null || row.getPassword().trim().isEmpty()) {
+            return "Password es requerido";
+        }
+        if (row.getPassword().length() < 4) {
+            return "Password debe tener al menos 4 caracteres";
+        }
+        if (existing.contains(username)) {
+            return "Username ya existe";
+        }
+        if (seen.contains(username)) {
+            return "Username repetido en el lote";
+        }
+        if (row.getHotelId() != null && !knownHotels.contains(row.getHotelId())) {
+            return "Hotel no encontrado";
+        }
+        return null;
+    }
+
+    /**
+     * BCrypt en paralelo: cada hash es independiente, el orden se conserva.
+     */
+    private String[] hashAll(List<String> passwords) {
+        try {
+            return hashingPool.submit(() -> passwords.parallelStream()
+                    .map(passwordEncoder::encode)
+                    .toArray(String[]::new)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Alta masiva interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Agrupa las filas válidas por el shard de su hotel e inserta cada grupo en el suyo;
+     * devuelve los ids en el orden de valid.
+     */
+    private long[] insertByShard(List<UserImportRow> rows, List<Integer> valid, List<User.Role> roles, String[] hashes) {
+        Map<String, List<Integer>> positionsByShard = new LinkedHashMap<>();
+        for (int v = 0; v < valid.size(); v++) {
+            positionsByShard.computeIfAbsent(shardDirectory.shardFor(rows.get(valid.get(v)).getHotelId()),
+                    shard -> new ArrayList<>()).add(v);
+        }
+        long[] ids = new long[valid.size()];
+        positionsByShard.forEach((shard, positions) -> {
+            long[] inserted = ShardContext.runOn(shard, () -> insert(rows,
+                    positions.stream().map(valid::get).toList(),
+                    positions.stream().map(roles::get).toList(),
+                    positions.stream().map(v -> hashes[v]).toArray(String[]::new)));
+            for (int k = 0; k < positions.size(); k++) {
+                ids[positions.get(k)] = inserted[k];
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * INSERT en lotes JDBC dentro de una transacción en el shard actual; devuelve los ids generados en orden.
+     */
+    private long[] insert(List<UserImportRow> rows, List<Integer> valid, List<User.Role> roles, String[] hashes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long[] ids = new long[valid.size()];
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < valid.size(); from += batchSize) {
+                int offset = from;
+                int size = Math.min(batchSize, valid.size() - from);
+                GeneratedKeyHolder keys = new GeneratedKeyHolder();
+                jdbcTemplate.batchUpdate(
+                        connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int j) throws SQLException {
+                                UserImportRow row = rows.get(valid.get(offset + j));
+                                ps.setString(1, row.getUsername().trim());
+                                ps.setString(2, hashes[offset + j]);
+                                ps.setString(3, row.getName().trim());
+                                ps.setString(4, row.getEmail());
+                                ps.setString(5, roles.get(offset + j).name());
+                                if (row.getHotelId() != null) {
+                                    ps.setLong(6, row.getHotelId());
+                                } else {
+                                    ps.setNull(6, java.sql.Types.BIGINT);
+                                }
+                                ps.setTimestamp(7, now);
+                                ps.setTimestamp(8, now);
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return size;
+                            }
+                        },
+                        keys);
+                List<Map<String, Object>> generated = keys.getKeyList();
+                for (int j = 0; j < generated.size(); j++) {
+                    ids[offset + j] = ((Number) generated.get(j).values().iterator().next()).longValue();
+                }
+            }
+            // Hibernate no ve estos INSERT: las listas por rol y por hotel cacheadas quedarían viejas
+            referenceDataCache.evictUserLookups();
+        });
+        return ids;
+    }
+}
@@ -0,0 +1,99 @@
+package utex.edu.mx.server.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import utex.edu.mx.server.config.StompTopics;
+import utex.edu.mx.server.dto.WebSocketNotification;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Avisa a cada mucama, en su destino /user/queue/worklist, de los cambios en sus propias
+ * habitaciones: la que se le asigna llega completa, la que se le quita llega con removed=true
+ * y un cambio de estado trae solo el estado. Así el cliente actualiza su lista sin volver a
+ * pedirla y sin filtrar los eventos del resto del hotel.
+ * Se llama dentro de la transacción, con la mucama anterior leída antes de modificar la
+ * habitación; los eventos salen tras el commit (ver {@link NotificationDispatcher}).
+ */
+@Service
+@RequiredArgsConstructor
+public class WorklistNotifier {
+
+    private final NotificationDispatcher notificationDispatcher;
+    private final UserRepository userRepository;
+
+    /**
+     * Cambios acumulados por username; se publica un evento por mucama.
+     */
+    public final class Changes {
+        private final Map<String, List<WebSocketNotification.WorklistItem>> perUser = new LinkedHashMap<>();
+
+        /**
+         * Cambio de asignación (o edición completa) de una habitación.
+         */
+        public Changes assignment(User previousMaid, Room room) {
+            User currentMaid = room.getAssignedTo();
+            if (previousMaid != null && (currentMaid == null || !Objects.equals(previousMaid.getId(), currentMaid.getId()))) {
+                add(usernameOf(previousMaid), WebSocketNotification.WorklistItem.removed(room.getId(),
+                        WebSocketNotification.versionOf(room.getUpdatedAt())));
+            }
+            if (currentMaid != null) {
+                add(usernameOf(currentMaid), WebSocketNotification.WorklistItem.of(room));
+            }
+            return this;
+        }
+
+        /**
+         * Cambio de estado de una habitación; solo se avisa a la mucama asignada.
+         */
+        public Changes status(Room room) {
+            if (room.getAssignedTo() != null) {
+                add(usernameOf(room.getAssignedTo()), WebSocketNotification.WorklistItem.status(room));
+            }
+            return this;
+        }
+
+        public Changes add(String username, WebSocketNotification.WorklistItem item) {
+            if (username != null) {
+                perUser.computeIfAbsent(username, u -> new ArrayList<>()).add(item);
+            }
+            return this;
+        }
+
+        public void publish() {
+            perUser.forEach((username, items) -> notificationDispatcher.publish(
+                    WebSocketNotification.Type.WORKLIST_UPDATED, new WebSocketNotification.Worklist(items),
+                    StompTopics.worklist(username)));
+        }
+    }
+
+    /**
+     * Username de la mucama; si solo llegó el id (p. ej. en el cuerpo de un PUT) se busca
+     * en la caché de usuarios.
+     */
+    private String usernameOf(User maid) {
+        if (maid.getUsername() != null || maid.getId() == null) {
+            return maid.getUsername();
+        }
+        return userRepository.findById(maid.getId()).map(User::getUsername).orElse(null);
+    }
+
+    public Changes changes() {
+        return new Changes();
+    }
+
+    public void assignmentChanged(User previousMaid, Room room) {
+        changes().assignment(previousMaid, room).publish();
+    }
+
+    public void statusChanged(Room room) {
+        changes().status(room).publish();
+    }
+}
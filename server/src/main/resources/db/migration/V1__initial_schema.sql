@@ -0,0 +1,76 @@
+-- Esquema inicial: el que generaba spring.jpa.hibernate.ddl-auto=update en las instalaciones existentes.
+-- Esas bases ya lo tienen; Flyway las marca en esta versión (baseline) y solo aplica las siguientes,
+-- así que aquí no debe agregarse nada: cada cambio posterior va en su propia migración.
+
+CREATE TABLE hotels (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    address VARCHAR(255),
+    phone VARCHAR(255),
+    email VARCHAR(255),
+    active BOOLEAN,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255),
+    role ENUM('ADMIN', 'RECEPTION', 'MAID') NOT NULL,
+    hotel_id BIGINT,
+    active BOOLEAN,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT fk_users_hotel FOREIGN KEY (hotel_id) REFERENCES hotels (id)
+);
+
+CREATE TABLE buildings (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    floors INT,
+    hotel_id BIGINT NOT NULL,
+    active BOOLEAN,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_buildings_hotel FOREIGN KEY (hotel_id) REFERENCES hotels (id)
+);
+
+CREATE TABLE rooms (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    number VARCHAR(255) NOT NULL,
+    floor INT NOT NULL,
+    status ENUM('CLEAN', 'DIRTY', 'OCCUPIED') NOT NULL,
+    building_id BIGINT NOT NULL,
+    assigned_to BIGINT,
+    assigned_at DATETIME(6),
+    active BOOLEAN,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_rooms_building FOREIGN KEY (building_id) REFERENCES buildings (id),
+    CONSTRAINT fk_rooms_assigned_to FOREIGN KEY (assigned_to) REFERENCES users (id)
+);
+
+CREATE TABLE incidents (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    room_id BIGINT NOT NULL,
+    reported_by BIGINT NOT NULL,
+    description VARCHAR(2000) NOT NULL,
+    status ENUM('OPEN', 'RESOLVED') NOT NULL,
+    photos TEXT,
+    resolution_notes VARCHAR(2000),
+    resolved_at DATETIME(6),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_incidents_room FOREIGN KEY (room_id) REFERENCES rooms (id),
+    CONSTRAINT fk_incidents_reported_by FOREIGN KEY (reported_by) REFERENCES users (id)
+);
+
@@ -0,0 +1,14 @@
+-- Sincronización por deltas (GET /api/sync): lectura por updated_at y registro de borrados.
+
+CREATE INDEX idx_rooms_updated_at ON rooms (updated_at, id);
+CREATE INDEX idx_incidents_updated_at ON incidents (updated_at, id);
+
+CREATE TABLE sync_tombstones (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    entity_type ENUM('ROOM', 'INCIDENT') NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_sync_tombstones_deleted_at ON sync_tombstones (deleted_at);
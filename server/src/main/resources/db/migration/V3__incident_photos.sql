@@ -0,0 +1,19 @@
+-- Fotos de incidencias en el almacén por contenido: una fila por foto y referencias compactas
+-- en la incidencia. La columna photos (base64) se conserva hasta que PhotoMigrationService la vacía.
+
+ALTER TABLE incidents ADD COLUMN photo_refs VARCHAR(2000);
+
+CREATE TABLE incident_photos (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    incident_id BIGINT NOT NULL,
+    sha256 VARCHAR(64) NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    position INT NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_incident_photos_incident FOREIGN KEY (incident_id) REFERENCES incidents (id)
+);
+
+CREATE INDEX idx_incident_photos_incident ON incident_photos (incident_id);
+CREATE INDEX idx_incident_photos_sha256 ON incident_photos (sha256);
@@ -0,0 +1,4 @@
+-- Versión de tokens por usuario: al incrementarla se invalidan los JWT emitidos antes.
+-- Los usuarios existentes empiezan en 0, el valor que llevan sus tokens actuales.
+
+ALTER TABLE users ADD COLUMN token_version INT DEFAULT 0 NOT NULL;
@@ -0,0 +1,19 @@
+-- Índices para las consultas frecuentes de habitaciones, incidencias y usuarios.
+-- Los compuestos empiezan por la columna de igualdad, así también sirven a los filtros por esa sola columna.
+
+-- Habitaciones por edificio (y estado): reinicio diario, tablero, importación
+CREATE INDEX idx_rooms_building_status ON rooms (building_id, status);
+-- Habitaciones por estado: GET /api/rooms/status/{status}, asignación automática
+CREATE INDEX idx_rooms_status ON rooms (status);
+-- Lista de trabajo de cada mucama
+CREATE INDEX idx_rooms_assigned_to_status ON rooms (assigned_to, status);
+
+-- Incidencias abiertas/resueltas por fecha de creación
+CREATE INDEX idx_incidents_status_created_at ON incidents (status, created_at);
+CREATE INDEX idx_incidents_room_status ON incidents (room_id, status);
+CREATE INDEX idx_incidents_reported_by ON incidents (reported_by);
+
+-- Vistas de equipo: por rol, por hotel y rol, activos
+CREATE INDEX idx_users_role_active ON users (role, active);
+CREATE INDEX idx_users_hotel_role ON users (hotel_id, role);
+CREATE INDEX idx_users_active ON users (active);
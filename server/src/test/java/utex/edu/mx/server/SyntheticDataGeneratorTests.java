@@ -0,0 +1,66 @@
+package utex.edu.mx.server;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataGeneratorTests {
+
+    @Test
+    void sameSeedProducesIdenticalDataset() throws Exception {
+        String first = generate("synthetic-a", 7);
+        String second = generate("synthetic-b", 7);
+        String other = generate("synthetic-c", 8);
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+    }
+
+    /**
+     * Levanta el perfil en una base nueva y devuelve un hash de todas las filas generadas.
+     */
+    private String generate(String database, long seed) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("synthetic")
+                // Argumentos de línea de comandos: tienen prioridad sobre application-synthetic.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "--spring.task.scheduling.enabled=false",
+                        "--synthetic.seed=" + seed,
+                        "--synthetic.hotels=2",
+                        "--synthetic.buildings-per-hotel=2",
+                        "--synthetic.floors=3",
+                        "--synthetic.rooms-per-floor=10",
+                        "--synthetic.maids-per-hotel=4",
+                        "--synthetic.incidents-per-room=1.5",
+                        "--synthetic.batch-size=7")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            assertEquals(120, jdbcTemplate.queryForObject("select count(*) from rooms", Integer.class));
+            assertEquals(11, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+            assertTrue(jdbcTemplate.queryForObject("select count(*) from incidents where status = 'OPEN'", Integer.class) > 0);
+            assertTrue(jdbcTemplate.queryForObject("select count(*) from incidents where status = 'RESOLVED'", Integer.class) > 0);
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String sql : List.of(
+                    "select id, username, name, role, hotel_id from users order by id",
+                    "select id, name, hotel_id from buildings order by id",
+                    "select id, number, floor, status, building_id, assigned_to from rooms order by id",
+                    "select id, room_id, reported_by, description, status, created_at, resolved_at from incidents order by id")) {
+                for (Map<String, Object> row : jdbcTemplate.queryForList(sql)) {
+                    digest.update(row.values().toString().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+}
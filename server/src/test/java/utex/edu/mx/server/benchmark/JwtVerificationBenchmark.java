@@ -0,0 +1,83 @@
+package utex.edu.mx.server.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import utex.edu.mx.server.security.JwtService;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Costo de verificar el JWT de una petición:
+ *   - legacyTriplePass: el camino anterior del filtro (clave y parser nuevos en cada
+ *     llamada, tres verificaciones completas por petición)
+ *   - singlePass: una verificación con clave y parser reutilizados
+ *   - cached: token ya visto, resuelto desde la caché de JwtService
+ *
+ * Ejecutar con el método main desde el IDE, o:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main JwtVerificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "mySecretKeyForHotelManagementSystemThatIsVeryLongAndSecure12345";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 86_400_000L, 10_000);
+        UserDetails user = User.withUsername("mucama1").password("x").authorities(List.of()).build();
+        token = jwtService.generateToken(user, Map.of("role", "MAID", "userId", 2L));
+        jwtService.verify(token);
+    }
+
+    @Benchmark
+    public Object legacyTriplePass() {
+        // extractUsername, validateToken (extractUsername otra vez) e isTokenExpired
+        String username = legacyClaim(token, Claims::getSubject);
+        boolean sameUser = legacyClaim(token, Claims::getSubject).equals(username);
+        boolean expired = legacyClaim(token, Claims::getExpiration).before(new Date());
+        return sameUser && !expired;
+    }
+
+    @Benchmark
+    public Object singlePass() {
+        return jwtService.parse(token);
+    }
+
+    @Benchmark
+    public Object cached() {
+        return jwtService.verify(token);
+    }
+
+    private static <T> T legacyClaim(String token, Function<Claims, T> resolver) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Claims claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+        return resolver.apply(claims);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
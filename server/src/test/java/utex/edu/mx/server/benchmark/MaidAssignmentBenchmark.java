@@ -0,0 +1,126 @@
+package utex.edu.mx.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import utex.edu.mx.server.ServerApplication;
+import utex.edu.mx.server.service.MaidAssignmentService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el motor de asignación automática sobre hoteles sintéticos en H2 en memoria:
+ * solo el cálculo del reparto (plan) y el ciclo completo (lectura, plan y UPDATE por mucama).
+ * El objetivo es quedar muy por debajo de un segundo para 5,000 habitaciones.
+ *
+ * Ejecutar con el método main desde el IDE, o:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main MaidAssignmentBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaidAssignmentBenchmark {
+
+    private static final int BUILDINGS = 4;
+    private static final int ROOMS_PER_FLOOR = 25;
+
+    @Param({"1000", "5000", "20000"})
+    public int rooms;
+
+    @Param({"10", "40"})
+    public int maids;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private MaidAssignmentService assignmentService;
+    private Long hotelId;
+    private List<MaidAssignmentService.RoomSlot> slots;
+    private List<Long> maidIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:assign-benchmark-" + rooms + "-" + maids + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "spring.task.scheduling.enabled=false")
+                .run();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        assignmentService = context.getBean(MaidAssignmentService.class);
+        seed();
+    }
+
+    @Setup(Level.Invocation)
+    public void clearAssignments() {
+        // Mitad de las habitaciones conservan una asignación previa aleatoria
+        jdbcTemplate.update("update rooms set assigned_to = null where mod(id, 2) = 0");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object planOnly() {
+        return MaidAssignmentService.plan(slots, maidIds);
+    }
+
+    @Benchmark
+    public Object assignHotel() {
+        return assignmentService.assignHotel(hotelId);
+    }
+
+    private void seed() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("insert into hotels (name, active, created_at, updated_at) values ('Bench', true, ?, ?)", now, now);
+        hotelId = jdbcTemplate.queryForObject("select max(id) from hotels", Long.class);
+
+        maidIds = new ArrayList<>();
+        for (int m = 0; m < maids; m++) {
+            jdbcTemplate.update("insert into users (username, password, name, role, hotel_id, active, created_at, updated_at) "
+                    + "values (?, 'x', ?, 'MAID', ?, true, ?, ?)", "bench-maid-" + m, "Mucama " + m, hotelId, now, now);
+            maidIds.add(jdbcTemplate.queryForObject("select max(id) from users", Long.class));
+        }
+
+        Random random = new Random(42);
+        slots = new ArrayList<>(rooms);
+        int perBuilding = (rooms + BUILDINGS - 1) / BUILDINGS;
+        for (int b = 0; b < BUILDINGS; b++) {
+            jdbcTemplate.update("insert into buildings (name, floors, hotel_id, active, created_at, updated_at) "
+                    + "values (?, ?, ?, true, ?, ?)", "Torre " + b, perBuilding / ROOMS_PER_FLOOR + 1, hotelId, now, now);
+            Long buildingId = jdbcTemplate.queryForObject("select max(id) from buildings", Long.class);
+
+            List<Object[]> batch = new ArrayList<>();
+            for (int i = 0; i < perBuilding && b * perBuilding + i < rooms; i++) {
+                int floor = i / ROOMS_PER_FLOOR + 1;
+                String number = String.format("%d%02d", floor, i % ROOMS_PER_FLOOR + 1);
+                Long maidId = maidIds.get(random.nextInt(maids));
+                batch.add(new Object[]{number, floor, buildingId, maidId, now, now});
+                slots.add(new MaidAssignmentService.RoomSlot((long) slots.size(), buildingId, floor, number, maidId));
+            }
+            jdbcTemplate.batchUpdate("insert into rooms (number, floor, status, building_id, assigned_to, active, created_at, updated_at) "
+                    + "values (?, ?, 'DIRTY', ?, ?, true, ?, ?)", batch);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MaidAssignmentBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
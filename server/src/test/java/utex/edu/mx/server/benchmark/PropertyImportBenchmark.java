@@ -0,0 +1,122 @@
+package utex.edu.mx.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import utex.edu.mx.server.ServerApplication;
+import utex.edu.mx.server.model.Building;
+import utex.edu.mx.server.model.Hotel;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.repository.BuildingRepository;
+import utex.edu.mx.server.repository.HotelRepository;
+import utex.edu.mx.server.repository.RoomRepository;
+import utex.edu.mx.server.service.PropertyImportService;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importación de un resort de 20,000 habitaciones (10 edificios) en H2 en memoria:
+ * un save de JPA por habitación, como hacía POST /api/rooms, contra la importación NDJSON
+ * en flujo con INSERT en lotes JDBC.
+ *
+ * Ejecutar con el método main desde el IDE, o:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main PropertyImportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PropertyImportBenchmark {
+
+    private static final int BUILDINGS = 10;
+    private static final int ROOMS_PER_FLOOR = 50;
+
+    @Param({"20000"})
+    public int rooms;
+
+    private ConfigurableApplicationContext context;
+    private PropertyImportService importService;
+    private HotelRepository hotelRepository;
+    private BuildingRepository buildingRepository;
+    private RoomRepository roomRepository;
+    private String ndjson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:property-import-benchmark;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "spring.task.scheduling.enabled=false",
+                        "spring.jpa.show-sql=false")
+                .run();
+        importService = context.getBean(PropertyImportService.class);
+        hotelRepository = context.getBean(HotelRepository.class);
+        buildingRepository = context.getBean(BuildingRepository.class);
+        roomRepository = context.getBean(RoomRepository.class);
+
+        StringBuilder sb = new StringBuilder("{\"type\":\"hotel\",\"name\":\"Resort\"}\n");
+        int perBuilding = rooms / BUILDINGS;
+        for (int b = 0; b < BUILDINGS; b++) {
+            sb.append("{\"type\":\"building\",\"name\":\"Torre ").append(b).append("\"}\n");
+            for (int i = 0; i < perBuilding; i++) {
+                int floor = i / ROOMS_PER_FLOOR + 1;
+                sb.append("{\"type\":\"room\",\"number\":\"").append(floor * 100 + i % ROOMS_PER_FLOOR)
+                        .append("\",\"floor\":").append(floor).append(",\"status\":\"CLEAN\"}\n");
+            }
+        }
+        ndjson = sb.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long perRoomSave() {
+        Hotel hotel = new Hotel();
+        hotel.setName("Resort");
+        hotel = hotelRepository.save(hotel);
+        int perBuilding = rooms / BUILDINGS;
+        long saved = 0;
+        for (int b = 0; b < BUILDINGS; b++) {
+            Building building = new Building();
+            building.setName("Torre " + b);
+            building.setHotel(hotel);
+            building = buildingRepository.save(building);
+            for (int i = 0; i < perBuilding; i++) {
+                int floor = i / ROOMS_PER_FLOOR + 1;
+                Room room = new Room();
+                room.setNumber(String.valueOf(floor * 100 + i % ROOMS_PER_FLOOR));
+                room.setFloor(floor);
+                room.setStatus(Room.RoomStatus.CLEAN);
+                room.setBuilding(building);
+                roomRepository.save(room);
+                saved++;
+            }
+        }
+        return saved;
+    }
+
+    @Benchmark
+    public long streamingImport() throws Exception {
+        return importService.importProperty(new BufferedReader(new StringReader(ndjson)),
+                PropertyImportService.Format.NDJSON, event -> { }).rooms();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PropertyImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
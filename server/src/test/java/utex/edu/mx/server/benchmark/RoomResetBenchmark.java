@@ -0,0 +1,130 @@
+package utex.edu.mx.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import utex.edu.mx.server.ServerApplication;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.repository.RoomRepository;
+import utex.edu.mx.server.service.RoomResetService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el reinicio diario original (findByStatus + save por habitación)
+ * contra {@link RoomResetService} (UPDATE masivo por edificio y rango de ids)
+ * sobre H2 en memoria con 1k, 10k y 100k habitaciones.
+ *
+ * Ejecutar con el método main desde el IDE, o:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main RoomResetBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class RoomResetBenchmark {
+
+    private static final int BUILDINGS = 10;
+
+    @Param({"1000", "10000", "100000"})
+    public int rooms;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private RoomRepository roomRepository;
+    private RoomResetService roomResetService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:reset-benchmark-" + rooms + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "spring.task.scheduling.enabled=false")
+                .run();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        roomRepository = context.getBean(RoomRepository.class);
+        roomResetService = context.getBean(RoomResetService.class);
+        seed();
+    }
+
+    @Setup(Level.Invocation)
+    public void markAllClean() {
+        jdbcTemplate.update("update rooms set status = 'CLEAN'");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int legacyLoop() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<Room> cleanRooms = roomRepository.findByStatus(Room.RoomStatus.CLEAN);
+            for (Room room : cleanRooms) {
+                room.setStatus(Room.RoomStatus.DIRTY);
+                room.setUpdatedAt(LocalDateTime.now());
+                roomRepository.save(room);
+            }
+            return cleanRooms.size();
+        });
+        return count != null ? count : 0;
+    }
+
+    @Benchmark
+    public int bulkReset() {
+        return roomResetService.resetCleanRooms().total();
+    }
+
+    private void seed() {
+        Long hotelId = jdbcTemplate.queryForObject("select min(id) from hotels", Long.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> buildingIds = new ArrayList<>();
+        for (int b = 0; b < BUILDINGS; b++) {
+            jdbcTemplate.update("insert into buildings (name, floors, hotel_id, active, created_at, updated_at) "
+                    + "values (?, ?, ?, true, ?, ?)", "Bench " + b, 20, hotelId, now, now);
+            buildingIds.add(jdbcTemplate.queryForObject("select max(id) from buildings", Long.class));
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < rooms; i++) {
+            Long buildingId = buildingIds.get(i % BUILDINGS);
+            int floor = (i / BUILDINGS) / 50 + 1;
+            batch.add(new Object[]{"B" + i, floor, "CLEAN", buildingId, now, now});
+            if (batch.size() == 1000) {
+                insertRooms(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertRooms(batch);
+        }
+    }
+
+    private void insertRooms(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("insert into rooms (number, floor, status, building_id, active, created_at, updated_at) "
+                + "values (?, ?, ?, ?, true, ?, ?)", batch);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RoomResetBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package utex.edu.mx.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import utex.edu.mx.server.ServerApplication;
+import utex.edu.mx.server.dto.UserImportRow;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.UserRepository;
+import utex.edu.mx.server.service.UserImportService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alta de 1,000 usuarios con BCrypt de costo 10 en H2 en memoria: el camino anterior
+ * (una consulta de existencia, un hash y un INSERT por usuario, en serie) contra el alta
+ * masiva (una consulta IN, hashes en paralelo e INSERT en lotes JDBC).
+ * Cada invocación usa usernames nuevos, por eso se mide en modo de disparo único.
+ *
+ * Ejecutar con el método main desde el IDE, o:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main UserImportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class UserImportBenchmark {
+
+    @Param({"1000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private UserImportService importService;
+    private UserRepository userRepository;
+    private PasswordEncoder passwordEncoder;
+    private int round;
+    private List<UserImportRow> rows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:user-import-benchmark;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "spring.task.scheduling.enabled=false",
+                        "auth.bcrypt.strength=10")
+                .run();
+        importService = context.getBean(UserImportService.class);
+        userRepository = context.getBean(UserRepository.class);
+        passwordEncoder = context.getBean(PasswordEncoder.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextRows() {
+        round++;
+        rows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            rows.add(new UserImportRow("bench-" + round + "-" + i, "password-" + i, "Mucama " + i, null, "MAID", null));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int sequentialCreate() {
+        int created = 0;
+        for (UserImportRow row : rows) {
+            if (userRepository.findByUsername(row.getUsername()).isPresent()) {
+                continue;
+            }
+            User user = new User();
+            user.setUsername(row.getUsername());
+            user.setPassword(passwordEncoder.encode(row.getPassword()));
+            user.setName(row.getName());
+            user.setRole(User.Role.MAID);
+            user.setCreatedAt(LocalDateTime.now());
+            user.setUpdatedAt(LocalDateTime.now());
+            userRepository.save(user);
+            created++;
+        }
+        return created;
+    }
+
+    @Benchmark
+    public int bulkImport() {
+        return importService.importUsers(rows).created();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,173 @@
+package utex.edu.mx.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import utex.edu.mx.server.ServerApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Carga HTTP contra el servidor completo (Tomcat, filtro JWT, JPA sobre H2) con hilos de
+ * plataforma y con spring.threads.virtual.enabled=true, para 100, 1,000 y 5,000 clientes
+ * concurrentes. Cada cliente hace REQUESTS_PER_CLIENT GET /api/rooms seguidos; el puntaje de
+ * JMH es el tiempo de la ronda y al final de cada iteración se imprime el throughput
+ * (peticiones/s), la latencia p50/p99 y los errores.
+ *
+ * Los clientes corren en hilos virtuales del propio benchmark para que el generador de
+ * carga no sea el cuello de botella. Con 5,000 clientes hacen falta ~10k descriptores:
+ *   ulimit -n 65536
+ *
+ * Ejecutar con el método main desde el IDE, o:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main VirtualThreadLoadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"100", "1000", "5000"})
+    public int clients;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientThreads;
+    private HttpClient http;
+    private HttpRequest request;
+
+    private long[] latencies;
+    private final AtomicInteger errors = new AtomicInteger();
+    private long roundNanos;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(ServerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + "virtual".equals(threads),
+                        "spring.datasource.url=jdbc:h2:mem:load-benchmark-" + threads + "-" + clients + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "spring.task.scheduling.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        // Que las conexiones esperen en Tomcat y no se rechacen en el socket
+                        "server.tomcat.max-connections=10000",
+                        "server.tomcat.accept-count=10000",
+                        "logging.level.utex.edu.mx.server=INFO",
+                        "logging.level.org.springframework.security=INFO")
+                .run();
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+        clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+        http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientThreads)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        HttpResponse<String> login = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"password\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher token = TOKEN.matcher(login.body());
+        if (!token.find()) {
+            throw new IllegalStateException("Login fallido: " + login.statusCode() + " " + login.body());
+        }
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/rooms"))
+                .header("Authorization", "Bearer " + token.group(1))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetRound() {
+        latencies = new long[clients * REQUESTS_PER_CLIENT];
+        errors.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        double seconds = roundNanos / 1e9;
+        System.out.printf("%n[%s, %d clientes] %.0f pet/s, p50 %.1f ms, p99 %.1f ms, errores %d%n",
+                threads, clients, sorted.length / seconds,
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, errors.get());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientThreads.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int round() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> running = new ArrayList<>(clients);
+        for (int client = 0; client < clients; client++) {
+            int offset = client * REQUESTS_PER_CLIENT;
+            running.add(clientThreads.submit(() -> {
+                start.await();
+                for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                    long began = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[offset + i] = System.nanoTime() - began;
+                }
+                return null;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> client : running) {
+            client.get();
+        }
+        roundNanos = System.nanoTime() - began;
+        return latencies.length;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VirtualThreadLoadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
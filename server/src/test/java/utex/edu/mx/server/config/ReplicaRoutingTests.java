@@ -0,0 +1,124 @@
+package utex.edu.mx.server.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dos bases H2 en memoria: la del contexto como primario y otra como réplica, con el mismo
+ * esquema pero datos distintos, para ver a cuál va cada consulta.
+ */
+@SpringBootTest(properties = ReplicaRoutingTests.REPLICA_PROPERTY)
+class ReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-routing;DB_CLOSE_DELAY=-1;MODE=MySQL";
+    static final String REPLICA_PROPERTY = "datasource.replica.url=" + REPLICA_URL;
+
+    @Autowired private UserRepository userRepository;
+
+    @BeforeAll
+    static void createReplica() {
+        DataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(replica).load().migrate();
+        new JdbcTemplate(replica).update("insert into users (username, password, name, role, active, token_version) "
+                + "values ('solo-replica', 'x', 'Solo en la réplica', 'MAID', true, 0)");
+    }
+
+    @BeforeEach
+    @AfterEach
+    void endRequest() {
+        ReplicaRoutingDataSource.resetThread();
+    }
+
+    @Test
+    void readOnlyReadsGoToReplicaAndWritesToPrimary() {
+        assertTrue(userRepository.existsByUsername("solo-replica"));
+        assertFalse(ReplicaRoutingDataSource.onPrimary(() -> userRepository.existsByUsername("solo-replica")));
+
+        User user = new User();
+        user.setUsername("solo-primario");
+        user.setPassword("x");
+        user.setName("Solo en el primario");
+        user.setRole(User.Role.MAID);
+        userRepository.save(user);
+
+        // En la misma petición se lee lo recién escrito
+        assertTrue(userRepository.existsByUsername("solo-primario"));
+
+        // En la siguiente, de nuevo de la réplica (que en esta prueba no replica)
+        ReplicaRoutingDataSource.resetThread();
+        assertFalse(userRepository.existsByUsername("solo-primario"));
+        assertTrue(ReplicaRoutingDataSource.onPrimary(() -> userRepository.existsByUsername("solo-primario")));
+    }
+
+    @Test
+    void fallsBackToPrimaryWhileReplicaIsDown() throws SQLException {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        Connection primaryConnection = mock(Connection.class);
+        Connection replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenThrow(new SQLException("réplica caída"));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertSame(primaryConnection, routing.getConnection());
+            assertFalse(routing.isReplicaHealthy());
+
+            // Vuelve a la réplica después de una comprobación correcta
+            when(replicaConnection.isValid(2)).thenReturn(true);
+            reset(replica);
+            when(replica.getConnection()).thenReturn(replicaConnection);
+            routing.checkReplica();
+            assertTrue(routing.isReplicaHealthy());
+            assertSame(replicaConnection, routing.getConnection());
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Test
+    void writeMarkExpiresOutsideRequests() throws Exception {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        Connection primaryConnection = mock(Connection.class);
+        Connection replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, Duration.ofMillis(200));
+
+        // Una tarea programada escribe; nadie llama a resetThread por ella
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertSame(primaryConnection, routing.getConnection());
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertSame(primaryConnection, routing.getConnection());
+
+            Thread.sleep(300);
+            assertSame(replicaConnection, routing.getConnection());
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package utex.edu.mx.server.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import utex.edu.mx.server.controller.AuthController;
+import utex.edu.mx.server.controller.IncidentController;
+import utex.edu.mx.server.controller.PhotoController;
+import utex.edu.mx.server.controller.RoomController;
+import utex.edu.mx.server.controller.UserController;
+import utex.edu.mx.server.dto.AuthRequest;
+import utex.edu.mx.server.dto.CursorPage;
+import utex.edu.mx.server.dto.RoomSummary;
+import utex.edu.mx.server.dto.UserImportResult;
+import utex.edu.mx.server.dto.UserImportRow;
+import utex.edu.mx.server.model.*;
+import utex.edu.mx.server.repository.BuildingRepository;
+import utex.edu.mx.server.repository.HotelRepository;
+import utex.edu.mx.server.repository.RoomRepository;
+import utex.edu.mx.server.repository.UserRepository;
+import utex.edu.mx.server.security.JwtPrincipal;
+import utex.edu.mx.server.security.JwtService;
+import utex.edu.mx.server.security.UserStateCache;
+import utex.edu.mx.server.service.UserImportService;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tres bases H2 en memoria: la del contexto como shard "default" y dos shards por hotel.
+ * Cada shard genera ids en su propio rango, así que el primer hotel de "norte" es el 1000000000001.
+ * Las bases viven mientras dure la JVM: los hoteles de cada shard se crean una sola vez.
+ */
+@SpringBootTest(properties = {
+        "sharding.shards.norte.url=" + ShardRoutingTests.NORTE_URL,
+        "sharding.shards.norte.index=1",
+        "sharding.shards.sur.url=jdbc:h2:mem:shard-sur;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "sharding.shards.sur.index=2",
+        "sharding.hotels.1000000000001=norte",
+        "sharding.hotels.2000000000001=sur"
+})
+class ShardRoutingTests {
+
+    static final String NORTE_URL = "jdbc:h2:mem:shard-norte;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    @Autowired private ShardDirectory shardDirectory;
+    @Autowired private ShardFanOut shardFanOut;
+    @Autowired private RoomController roomController;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private BuildingRepository buildingRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private IncidentController incidentController;
+    @Autowired private PhotoController photoController;
+    @Autowired private UserController userController;
+    @Autowired private AuthController authController;
+    @Autowired private JwtService jwtService;
+    @Autowired private UserStateCache userStateCache;
+    @Autowired private UserImportService importService;
+
+    private Long norteHotel;
+    private Long surHotel;
+
+    @BeforeEach
+    void setUp() {
+        norteHotel = ShardContext.runOn("norte", () -> existingOrNewHotel("Hotel Norte", 3));
+        surHotel = ShardContext.runOn("sur", () -> existingOrNewHotel("Hotel Sur", 2));
+    }
+
+    @Test
+    void routesEachHotelToItsShardAndFansOutAdminQueries() {
+        assertEquals(1_000_000_000_001L, norteHotel);
+        assertEquals(2_000_000_000_001L, surHotel);
+        assertEquals("norte", shardDirectory.shardFor(norteHotel));
+        assertEquals("sur", shardDirectory.shardFor(surHotel));
+        assertEquals(ShardDirectory.DEFAULT, shardDirectory.shardFor(1L));
+
+        // Los datos de cada hotel están solo en su base
+        JdbcTemplate norte = new JdbcTemplate(new DriverManagerDataSource(NORTE_URL, "sa", ""));
+        assertEquals(3, norte.queryForObject("select count(*) from rooms", Integer.class));
+        assertEquals(3, ShardContext.runOn("norte", () -> roomRepository.findAll()).size());
+        assertEquals(2, ShardContext.runOn("sur", () -> roomRepository.findAll()).size());
+        long defaultRooms = roomRepository.count();
+
+        // Un administrador sin hotel ve la unión de todos los shards
+        List<Room> all = roomController.getAllRooms().getBody();
+        assertEquals(defaultRooms + 5, all.size());
+        Set<Long> ids = all.stream().map(Room::getId).collect(Collectors.toSet());
+        assertEquals(all.size(), ids.size());
+
+        // Con shard asignado, solo los de ese shard
+        assertEquals(3, ShardContext.runOn("norte", () -> roomController.getAllRooms().getBody()).size());
+        assertEquals(defaultRooms + 5, shardFanOut.collectAll(() -> List.of(roomRepository.count()))
+                .stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void photosOfHotelsOnOtherShardsAreServedWithoutToken() throws Exception {
+        byte[] image = png(13, 11);
+        Incident created = ShardContext.runOn("norte", () -> {
+            User maid = new User();
+            maid.setUsername("norte-foto");
+            maid.setPassword("x");
+            maid.setName("Mucama Norte");
+            maid.setRole(User.Role.MAID);
+            maid.setHotel(hotelRepository.findById(norteHotel).orElseThrow());
+            maid = userRepository.save(maid);
+
+            Incident incident = new Incident();
+            incident.setRoom(roomRepository.findAll().get(0));
+            incident.setReportedBy(maid);
+            incident.setDescription("Lámpara rota");
+            incident.setPhotoData(List.of("data:image/png;base64," + Base64.getEncoder().encodeToString(image)));
+            return incidentController.createIncident(incident).getBody();
+        });
+        String hash = created.getPhotos().get(0).url().substring(IncidentPhoto.URL_PREFIX.length());
+
+        // Como desde <img src>: sin token, la petición no tiene shard
+        assertNull(ShardContext.current());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        photoController.getPhoto(hash, null, new MockHttpServletRequest(), response);
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(image, response.getContentAsByteArray());
+    }
+
+    @Test
+    void userLookupsAcrossShardsAreNotServedFromAnotherShardsCache() {
+        Long norteMaid = ShardContext.runOn("norte", () -> existingOrNewUser("norte-equipo", norteHotel)).getId();
+        Long surMaid = ShardContext.runOn("sur", () -> existingOrNewUser("sur-equipo", surHotel)).getId();
+        Long defaultMaid = userRepository.findByUsername("mucama1").orElseThrow().getId();
+
+        // La misma consulta en cada shard: con caché de consultas el segundo shard recibiría los ids del primero
+        for (int i = 0; i < 2; i++) {
+            List<Long> ids = userController.getUsersByRole("MAID").stream().map(User::getId).toList();
+            assertEquals(ids.size(), Set.copyOf(ids).size());
+            assertTrue(ids.containsAll(List.of(norteMaid, surMaid, defaultMaid)), ids::toString);
+        }
+    }
+
+    @Test
+    void usersAreSavedOnTheirHotelsShardAndCanAuthenticate() {
+        // Un administrador sin shard da de alta a alguien de un hotel en "norte"
+        User user = new User();
+        user.setUsername("norte-alta");
+        user.setPassword("secreto");
+        user.setName("Recepción Norte");
+        user.setRole(User.Role.RECEPTION);
+        user.setHotel(hotelRef(norteHotel));
+        User created = (User) userController.createUser(user).getBody();
+        assertTrue(ShardContext.runOn("norte", () -> userRepository.findById(created.getId())).isPresent());
+        assertTrue(userRepository.findByUsername("norte-alta").isEmpty());
+
+        JwtPrincipal principal = login("norte-alta", "secreto");
+        assertEquals(norteHotel, principal.hotelId());
+        assertTrue(ShardContext.runOn(shardDirectory.shardFor(principal.hotelId()),
+                () -> userStateCache.isCurrent(principal)));
+
+        User registered = new User();
+        registered.setUsername("sur-registro");
+        registered.setPassword("secreto");
+        registered.setName("Mucama Sur");
+        registered.setRole(User.Role.MAID);
+        registered.setHotel(hotelRef(surHotel));
+        authController.register(registered);
+        assertTrue(ShardContext.runOn("sur", () -> userRepository.findByUsername("sur-registro")).isPresent());
+        assertEquals(surHotel, login("sur-registro", "secreto").hotelId());
+
+        // Cambiar a un hotel de otro shard no mueve la fila: se rechaza sin tocar nada
+        User move = new User();
+        move.setName("Movida");
+        move.setHotel(hotelRef(surHotel));
+        assertEquals(409, ShardContext.runOn("norte", () -> userController.updateUser(created.getId(), move))
+                .getStatusCode().value());
+        User unchanged = ShardContext.runOn("norte", () -> userRepository.findById(created.getId())).orElseThrow();
+        assertEquals("Recepción Norte", unchanged.getName());
+        assertEquals(norteHotel, unchanged.getHotel().getId());
+        assertTrue(ShardContext.runOn("norte", () -> userStateCache.isCurrent(principal)));
+    }
+
+    @Test
+    void bulkImportChecksUsernamesEverywhereAndInsertsEachUserOnItsHotelsShard() {
+        ShardContext.runOn("sur", () -> existingOrNewUser("sur-existente", surHotel));
+
+        UserImportResult result = importService.importUsers(List.of(
+                importRow("import-norte", norteHotel),
+                importRow("import-sur", surHotel),
+                importRow("import-sin-hotel", null),
+                importRow("sur-existente", norteHotel),
+                importRow("import-hotel-inexistente", 3_000_000_000_001L)));
+
+        assertEquals(3, result.created());
+        assertEquals("Username ya existe", result.results().get(3).error());
+        assertEquals("Hotel no encontrado", result.results().get(4).error());
+        assertTrue(ShardContext.runOn("norte", () -> userRepository.findByUsername("import-norte")).isPresent());
+        assertTrue(ShardContext.runOn("sur", () -> userRepository.findByUsername("import-sur")).isPresent());
+        assertTrue(userRepository.findByUsername("import-sin-hotel").isPresent());
+        assertEquals(result.results().get(1).userId(),
+                ShardContext.runOn("sur", () -> userRepository.findByUsername("import-sur")).orElseThrow().getId());
+        assertEquals(surHotel, login("import-sur", "secreto").hotelId());
+    }
+
+    @Test
+    void cursorPagesMergeEveryShardForAdminsAndRouteByFilter() {
+        assertEquals("norte", shardDirectory.shardForId(norteHotel));
+        assertEquals("sur", shardDirectory.shardForId(surHotel + 41));
+        assertEquals(ShardDirectory.DEFAULT, shardDirectory.shardForId(7L));
+
+        // Sin shard y sin filtros: la unión de todos los shards, en orden de id y sin repetidos
+        List<Long> allRooms = shardFanOut.collectAll(() -> roomRepository.findAll()).stream()
+                .map(Room::getId).sorted().toList();
+        assertEquals(allRooms, walk(cursor -> roomController.getRoomsPage(
+                null, null, null, null, null, null, cursor, 2).getBody(), RoomSummary::id));
+
+        // Con edificio u hotel: solo el shard donde viven
+        Long norteBuilding = ShardContext.runOn("norte", () -> buildingRepository.findIdsByHotelId(norteHotel)).get(0);
+        List<Long> norteRooms = ShardContext.runOn("norte", () -> roomRepository.findAll()).stream()
+                .map(Room::getId).sorted().toList();
+        assertEquals(norteRooms, walk(cursor -> roomController.getRoomsPage(
+                null, norteBuilding, null, null, null, null, cursor, 2).getBody(), RoomSummary::id));
+
+        Long surUser = ShardContext.runOn("sur", () -> existingOrNewUser("sur-pagina", surHotel)).getId();
+        List<Long> surUsers = walk(cursor -> userController.getUsersPage(
+                null, surHotel, null, cursor, 2).getBody(), User::getId);
+        assertTrue(surUsers.contains(surUser));
+        assertEquals(ShardContext.runOn("sur", () -> userRepository.findByHotelId(surHotel)).size(), surUsers.size());
+    }
+
+    private static <T> List<Long> walk(Function<String, CursorPage<T>> page, Function<T, Long> idOf) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<T> current = page.apply(cursor);
+            assertTrue(current.getItems().size() <= 2);
+            current.getItems().forEach(item -> ids.add(idOf.apply(item)));
+            cursor = current.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static UserImportRow importRow(String username, Long hotelId) {
+        UserImportRow row = new UserImportRow();
+        row.setUsername(username);
+        row.setPassword("secreto");
+        row.setName(username);
+        row.setRole("MAID");
+        row.setHotelId(hotelId);
+        return row;
+    }
+
+    private JwtPrincipal login(String username, String password) {
+        AuthRequest request = new AuthRequest();
+        request.setUsername(username);
+        request.setPassword(password);
+        String token = authController.login(request).join().getBody().getToken();
+        return jwtService.verify(token).orElseThrow();
+    }
+
+    private static Hotel hotelRef(Long id) {
+        Hotel hotel = new Hotel();
+        hotel.setId(id);
+        return hotel;
+    }
+
+    private User existingOrNewUser(String username, Long hotelId) {
+        return userRepository.findByUsername(username).orElseGet(() -> {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword("x");
+            user.setName(username);
+            user.setRole(User.Role.MAID);
+            user.setHotel(hotelRepository.findById(hotelId).orElseThrow());
+            return userRepository.save(user);
+        });
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private Long existingOrNewHotel(String name, int rooms) {
+        List<Hotel> hotels = hotelRepository.findAll();
+        return hotels.isEmpty() ? createHotel(name, rooms) : hotels.get(0).getId();
+    }
+
+    private Long createHotel(String name, int rooms) {
+        Hotel hotel = new Hotel();
+        hotel.setName(name);
+        hotel = hotelRepository.save(hotel);
+
+        Building building = new Building();
+        building.setName("Torre " + name);
+        building.setFloors(1);
+        building.setHotel(hotel);
+        building = buildingRepository.save(building);
+
+        for (int i = 1; i <= rooms; i++) {
+            Room room = new Room();
+            room.setNumber("10" + i);
+            room.setFloor(1);
+            room.setBuilding(building);
+            roomRepository.save(room);
+        }
+        return hotel.getId();
+    }
+}
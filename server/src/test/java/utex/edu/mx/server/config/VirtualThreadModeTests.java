@@ -0,0 +1,65 @@
+package utex.edu.mx.server.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "threads.pinning.threshold-ms=10"
+})
+class VirtualThreadModeTests {
+
+    private static final Object MONITOR = new Object();
+
+    @Autowired @Qualifier("clientInboundChannel") private ExecutorSubscribableChannel inboundChannel;
+    @Autowired @Qualifier("clientOutboundChannel") private ExecutorSubscribableChannel outboundChannel;
+    @Autowired private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Test
+    void stompChannelsRunOnVirtualThreads() {
+        assertInstanceOf(VirtualThreadTaskExecutor.class, inboundChannel.getExecutor());
+        assertInstanceOf(VirtualThreadTaskExecutor.class, outboundChannel.getExecutor());
+    }
+
+    @Test
+    void pinnedCarriersAreReportedBySite() throws Exception {
+        // Desde Java 24 synchronized ya no fija el carrier y el evento no se emite
+        assumeTrue(Runtime.version().feature() < 24);
+        VirtualThreadPinningMonitor.Metrics metrics = pinningMonitor.metrics();
+        assumeTrue(metrics.recording(), "JFR no disponible en esta JVM");
+        long before = metrics.pinnedEvents();
+
+        Thread.ofVirtual().start(VirtualThreadModeTests::sleepWhileHoldingMonitor).join();
+
+        // Otros hilos virtuales del contexto también pueden fijarse: se espera el evento de este sitio
+        String site = VirtualThreadModeTests.class.getName() + ".sleepWhileHoldingMonitor";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pinningMonitor.pinnedAt(site) == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(1, pinningMonitor.pinnedAt(site));
+        metrics = pinningMonitor.metrics();
+        assertTrue(metrics.pinnedEvents() > before);
+        assertTrue(metrics.maxPinnedMillis() >= 10);
+    }
+
+    private static void sleepWhileHoldingMonitor() {
+        synchronized (MONITOR) {
+            try {
+                Thread.sleep(Duration.ofMillis(50));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
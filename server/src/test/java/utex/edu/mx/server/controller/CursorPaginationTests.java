@@ -0,0 +1,114 @@
+package utex.edu.mx.server.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import utex.edu.mx.server.dto.CursorPage;
+import utex.edu.mx.server.dto.IncidentSummary;
+import utex.edu.mx.server.dto.RoomSummary;
+import utex.edu.mx.server.model.*;
+import utex.edu.mx.server.repository.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recorre los listados paginados por cursor de a dos elementos con filtros: cada elemento que
+ * cumple el filtro aparece una sola vez, en orden de id, y la última página no trae cursor.
+ */
+@SpringBootTest
+class CursorPaginationTests {
+
+    @Autowired private RoomController roomController;
+    @Autowired private IncidentController incidentController;
+    @Autowired private UserController userController;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private BuildingRepository buildingRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private IncidentRepository incidentRepository;
+
+    @Test
+    void pagesWalkEveryFilteredItemOnceInIdOrder() {
+        Hotel hotel = new Hotel();
+        hotel.setName("Hotel Cursor");
+        hotel = hotelRepository.save(hotel);
+        Building building = new Building();
+        building.setName("Torre Cursor");
+        building.setFloors(3);
+        building.setHotel(hotel);
+        building = buildingRepository.save(building);
+
+        List<Long> maids = new ArrayList<>();
+        User reporter = null;
+        for (int i = 0; i < 5; i++) {
+            User maid = user(hotel, "cursor-mucama-" + i, User.Role.MAID, i != 2);
+            if (i != 2) {
+                maids.add(maid.getId());
+                reporter = maid;
+            }
+        }
+        user(hotel, "cursor-recepcion", User.Role.RECEPTION, true);
+
+        List<Long> dirtyOnSecondFloor = new ArrayList<>();
+        List<Long> incidents = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            Room.RoomStatus status = i % 3 == 0 ? Room.RoomStatus.CLEAN : Room.RoomStatus.DIRTY;
+            int floor = 1 + i % 2;
+            Room room = new Room();
+            room.setNumber("C" + i);
+            room.setFloor(floor);
+            room.setStatus(status);
+            room.setBuilding(building);
+            room = roomRepository.save(room);
+            if (status == Room.RoomStatus.DIRTY && floor == 2) {
+                dirtyOnSecondFloor.add(room.getId());
+            }
+            Incident incident = new Incident();
+            incident.setRoom(room);
+            incident.setReportedBy(reporter);
+            incident.setDescription("Incidencia " + i);
+            incidents.add(incidentRepository.save(incident).getId());
+        }
+        Long buildingId = building.getId();
+        Long hotelId = hotel.getId();
+
+        assertEquals(dirtyOnSecondFloor, walk(cursor -> roomController.getRoomsPage(
+                Room.RoomStatus.DIRTY, buildingId, 2, null, null, null, cursor, 2).getBody(), RoomSummary::id));
+        assertEquals(incidents, walk(cursor -> incidentController.getIncidentsPage(
+                null, null, buildingId, null, null, null, cursor, 2).getBody(), IncidentSummary::id));
+        assertEquals(maids, walk(cursor -> userController.getUsersPage(
+                User.Role.MAID, hotelId, true, cursor, 2).getBody(), User::getId));
+
+        assertEquals(400, roomController.getRoomsPage(null, null, null, null, null, null, "no-es-cursor", 2)
+                .getStatusCode().value());
+    }
+
+    private static <T> List<Long> walk(Function<String, CursorPage<T>> page, Function<T, Long> idOf) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<T> current = page.apply(cursor);
+            assertTrue(current.getItems().size() <= 2);
+            current.getItems().forEach(item -> ids.add(idOf.apply(item)));
+            assertEquals(current.isHasMore(), current.getNextCursor() != null);
+            cursor = current.getNextCursor();
+        } while (cursor != null);
+        assertEquals(ids.stream().sorted().toList(), ids);
+        return ids;
+    }
+
+    private User user(Hotel hotel, String username, User.Role role, boolean active) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setName(username);
+        user.setRole(role);
+        user.setActive(active);
+        user.setHotel(hotel);
+        return userRepository.save(user);
+    }
+}
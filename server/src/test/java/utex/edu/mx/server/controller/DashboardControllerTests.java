@@ -0,0 +1,47 @@
+package utex.edu.mx.server.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.UserRepository;
+import utex.edu.mx.server.security.JwtPrincipal;
+import utex.edu.mx.server.service.RoomStatusBoard;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reconstruir y comparar el tablero es solo para ADMIN; el resumen de los demás roles
+ * queda fijo en su propio hotel.
+ */
+@SpringBootTest
+class DashboardControllerTests {
+
+    @Autowired private DashboardController dashboardController;
+    @Autowired private RoomStatusBoard statusBoard;
+    @Autowired private UserRepository userRepository;
+
+    @Test
+    void onlyAdminsRebuildAndOthersSeeTheirOwnHotel() {
+        JwtPrincipal admin = principal("admin");
+        JwtPrincipal maid = principal("mucama1");
+        Long hotelId = maid.hotelId();
+
+        assertEquals(403, dashboardController.rebuild(maid).getStatusCode().value());
+        assertEquals(403, dashboardController.checkConsistency(maid).getStatusCode().value());
+        assertEquals(200, dashboardController.rebuild(admin).getStatusCode().value());
+        assertEquals(200, dashboardController.checkConsistency(admin).getStatusCode().value());
+
+        assertEquals(statusBoard.summary(hotelId), dashboardController.getSummary(maid, null).getBody());
+        assertEquals(statusBoard.summary(hotelId), dashboardController.getSummary(maid, hotelId).getBody());
+        assertEquals(403, dashboardController.getSummary(maid, hotelId + 1).getStatusCode().value());
+        assertEquals(statusBoard.summary(null), dashboardController.getSummary(admin, null).getBody());
+        assertEquals(statusBoard.summary(hotelId + 1), dashboardController.getSummary(admin, hotelId + 1).getBody());
+    }
+
+    private JwtPrincipal principal(String username) {
+        User user = userRepository.findByUsername(username).orElseThrow();
+        return new JwtPrincipal(user.getUsername(), user.getId(), user.getRole().name(), user.getHotel().getId(),
+                0, null, null);
+    }
+}
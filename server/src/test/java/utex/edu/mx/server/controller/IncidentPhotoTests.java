@@ -0,0 +1,186 @@
+package utex.edu.mx.server.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import tools.jackson.databind.json.JsonMapper;
+import utex.edu.mx.server.model.Incident;
+import utex.edu.mx.server.model.IncidentPhoto;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.IncidentPhotoRepository;
+import utex.edu.mx.server.repository.IncidentRepository;
+import utex.edu.mx.server.repository.RoomRepository;
+import utex.edu.mx.server.repository.UserRepository;
+import utex.edu.mx.server.service.PhotoMigrationService;
+import utex.edu.mx.server.service.PhotoRenditionService;
+import utex.edu.mx.server.service.UnsupportedPhotoException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class IncidentPhotoTests {
+
+    @Autowired private IncidentController incidentController;
+    @Autowired private PhotoController photoController;
+    @Autowired private PhotoMigrationService migrationService;
+    @Autowired private PhotoRenditionService renditionService;
+    @Autowired private IncidentRepository incidentRepository;
+    @Autowired private IncidentPhotoRepository photoRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JsonMapper jsonMapper;
+
+    private static final byte[] IMAGE = png(4, 3);
+    private static final String DATA_URL = "data:image/png;base64," + Base64.getEncoder().encodeToString(IMAGE);
+
+    @Test
+    void createdIncidentCarriesOnlyReferencesAndDuplicatesShareOneFile() throws Exception {
+        Incident incident = newIncident();
+        incident.setPhotoData(List.of(DATA_URL, DATA_URL));
+        Incident created = incidentController.createIncident(incident).getBody();
+
+        List<IncidentPhoto.Ref> refs = created.getPhotos();
+        assertEquals(2, refs.size());
+        assertEquals(refs.get(0).url(), refs.get(1).url());
+        assertNotEquals(refs.get(0).id(), refs.get(1).id());
+
+        String json = jsonMapper.writeValueAsString(incidentController.getIncidentById(created.getId()).getBody());
+        assertTrue(json.contains(refs.get(0).url()));
+        assertFalse(json.contains("base64"));
+
+        String hash = refs.get(0).url().substring(IncidentPhoto.URL_PREFIX.length());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        photoController.getPhoto(hash, null, new MockHttpServletRequest(), response);
+        assertEquals(200, response.getStatus());
+        assertEquals("image/png", response.getContentType());
+        assertEquals("nosniff", response.getHeader("X-Content-Type-Options"));
+        assertArrayEquals(IMAGE, response.getContentAsByteArray());
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest();
+        conditional.addHeader("If-None-Match", "\"" + hash + "\"");
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        photoController.getPhoto(hash, null, conditional, notModified);
+        assertEquals(304, notModified.getStatus());
+
+        incidentController.deleteIncident(created.getId());
+        assertTrue(photoRepository.findByIncidentIdOrderByPosition(created.getId()).isEmpty());
+    }
+
+    @Test
+    void multipartUploadProducesThumbnail() throws Exception {
+        BufferedImage image = new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+
+        Incident created = incidentController.createIncident(newIncident()).getBody();
+        MockMultipartFile file = new MockMultipartFile("files", "foto.png", "image/png", png.toByteArray());
+        Incident updated = incidentController.uploadPhotos(created.getId(), List.of(file)).getBody();
+        assertEquals(1, updated.getPhotos().size());
+
+        IncidentPhoto.Ref ref = updated.getPhotos().get(0);
+        String hash = ref.url().substring(IncidentPhoto.URL_PREFIX.length());
+        renditionService.generate(hash, PhotoRenditionService.Size.THUMB);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        photoController.getPhoto(hash, "thumb", new MockHttpServletRequest(), response);
+        assertEquals("image/jpeg", response.getContentType());
+        BufferedImage thumb = ImageIO.read(new ByteArrayInputStream(response.getContentAsByteArray()));
+        assertEquals(320, thumb.getWidth());
+        assertEquals(240, thumb.getHeight());
+
+        // El Content-Type lo pone el cliente: un SVG que dice ser PNG tampoco entra
+        byte[] svg = "<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes(StandardCharsets.UTF_8);
+        for (MockMultipartFile rejected : List.of(
+                new MockMultipartFile("files", "nota.txt", "text/plain", new byte[]{1}),
+                new MockMultipartFile("files", "foto.svg", "image/svg+xml", svg),
+                new MockMultipartFile("files", "foto.png", "image/png", svg))) {
+            assertThrows(UnsupportedPhotoException.class,
+                    () -> incidentController.uploadPhotos(created.getId(), List.of(file, rejected)));
+        }
+        assertEquals(1, photoRepository.findByIncidentIdOrderByPosition(created.getId()).size());
+
+        // Y un PNG sin Content-Type de imagen se acepta y se guarda como PNG
+        MockMultipartFile unlabeled = new MockMultipartFile("files", "foto", "application/octet-stream", png.toByteArray());
+        incidentController.uploadPhotos(created.getId(), List.of(unlabeled));
+        List<IncidentPhoto> photos = photoRepository.findByIncidentIdOrderByPosition(created.getId());
+        assertEquals(2, photos.size());
+        assertEquals("image/png", photos.get(1).getContentType());
+    }
+
+    @Test
+    void onlyImagesRecognizedByTheirBytesAreAccepted() throws Exception {
+        long incidents = incidentRepository.count();
+        String html = "<script>alert(document.cookie)</script>";
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" onload=\"alert(1)\"/>";
+        for (String dataUrl : List.of(
+                "data:text/html;base64," + base64(html.getBytes(StandardCharsets.UTF_8)),
+                "data:image/svg+xml;base64," + base64(svg.getBytes(StandardCharsets.UTF_8)),
+                "data:image/png;base64," + base64(html.getBytes(StandardCharsets.UTF_8)))) {
+            Incident incident = newIncident();
+            incident.setPhotoData(List.of(DATA_URL, dataUrl));
+            assertThrows(UnsupportedPhotoException.class, () -> incidentController.createIncident(incident));
+        }
+        assertEquals(incidents, incidentRepository.count());
+
+        // El tipo declarado no importa: se sirve con el que indican los bytes
+        Incident incident = newIncident();
+        incident.setPhotoData(List.of("data:text/html;base64," + base64(IMAGE)));
+        Incident created = incidentController.createIncident(incident).getBody();
+        String hash = created.getPhotos().get(0).url().substring(IncidentPhoto.URL_PREFIX.length());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        photoController.getPhoto(hash, null, new MockHttpServletRequest(), response);
+        assertEquals("image/png", response.getContentType());
+    }
+
+    @Test
+    void migrationMovesLegacyBase64IntoStore() {
+        Incident legacy = newIncident();
+        legacy.setLegacyPhotos(jsonMapper.writeValueAsString(List.of(DATA_URL)));
+        legacy = incidentRepository.save(legacy);
+
+        assertTrue(migrationService.migrateLegacyPhotos() >= 1);
+
+        Incident migrated = incidentRepository.findById(legacy.getId()).orElseThrow();
+        assertNull(migrated.getLegacyPhotos());
+        assertEquals(1, migrated.getPhotos().size());
+        assertEquals(0, migrationService.migrateLegacyPhotos());
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static byte[] png(int width, int height) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Incident newIncident() {
+        Room room = roomRepository.findAll().get(0);
+        User maid = userRepository.findByUsername("mucama1").orElseThrow();
+        Incident incident = new Incident();
+        incident.setRoom(room);
+        incident.setReportedBy(maid);
+        incident.setDescription("Espejo roto");
+        return incident;
+    }
+}
@@ -0,0 +1,133 @@
+package utex.edu.mx.server.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tools.jackson.databind.json.JsonMapper;
+import utex.edu.mx.server.model.*;
+import utex.edu.mx.server.repository.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifica que cada listado (incluida su serialización a JSON) se resuelve con un número
+ * constante de sentencias SQL, sin importar cuántas filas y relaciones existan.
+ * Los datos se crean fuera de transacción (así no quedan en la sesión y se cuentan las cargas
+ * reales) y se borran al terminar, porque el contexto y la base se comparten con otras pruebas.
+ */
+@SpringBootTest
+class ListQueryCountTests {
+
+    @Autowired private RoomController roomController;
+    @Autowired private IncidentController incidentController;
+    @Autowired private UserController userController;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private BuildingRepository buildingRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private IncidentRepository incidentRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private JsonMapper jsonMapper;
+
+    private Statistics statistics;
+    private User maid;
+    private final List<Hotel> hotels = new ArrayList<>();
+    private final List<Building> buildings = new ArrayList<>();
+    private final List<User> users = new ArrayList<>();
+    private final List<Room> rooms = new ArrayList<>();
+    private final List<Incident> incidents = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        maid = userRepository.findByUsername("mucama1").orElseThrow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        incidentRepository.deleteAll(incidents);
+        roomRepository.deleteAll(rooms);
+        userRepository.deleteAll(users);
+        buildingRepository.deleteAll(buildings);
+        hotelRepository.deleteAll(hotels);
+    }
+
+    @Test
+    void listEndpointsRunConstantNumberOfStatements() {
+        Map<String, Supplier<Object>> endpoints = Map.of(
+                "rooms", () -> roomController.getAllRooms().getBody(),
+                "roomsPage", () -> roomController.getRoomsPage(null, null, null, null, null, null, null, 200).getBody(),
+                "roomsByMaid", () -> roomController.getRoomsByMaid(maid.getId()).getBody(),
+                "maidWorklist", () -> roomController.getMaidWorklist(maid.getId()).getBody(),
+                "incidents", () -> incidentController.getAllIncidents().getBody(),
+                "incidentsPage", () -> incidentController.getIncidentsPage(null, null, null, null, null, null, null, 200).getBody(),
+                "incidentsOpen", () -> incidentController.getIncidentsByStatus(Incident.IncidentStatus.OPEN).getBody(),
+                "users", () -> userController.getAllUsers(),
+                "maids", () -> userController.getUsersByRole("MAID"));
+
+        addProperty("Small", 2, 3);
+        endpoints.forEach((name, endpoint) -> assertEquals(1, countStatements(endpoint), name));
+
+        addProperty("Large", 5, 40);
+        endpoints.forEach((name, endpoint) -> assertEquals(1, countStatements(endpoint), name));
+    }
+
+    private long countStatements(Supplier<Object> endpoint) {
+        statistics.clear();
+        jsonMapper.writeValueAsString(endpoint.get());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void addProperty(String name, int maids, int rooms) {
+        Hotel hotel = new Hotel();
+        hotel.setName("Hotel " + name);
+        hotel = hotelRepository.save(hotel);
+        hotels.add(hotel);
+
+        Building building = new Building();
+        building.setName("Edificio " + name);
+        building.setFloors(4);
+        building.setHotel(hotel);
+        building = buildingRepository.save(building);
+        buildings.add(building);
+
+        User[] staff = new User[maids + 1];
+        staff[0] = maid;
+        for (int i = 1; i <= maids; i++) {
+            User user = new User();
+            user.setUsername(name.toLowerCase() + "-maid-" + i);
+            user.setPassword("x");
+            user.setName("Mucama " + i);
+            user.setRole(User.Role.MAID);
+            user.setHotel(hotel);
+            staff[i] = userRepository.save(user);
+            users.add(staff[i]);
+        }
+
+        for (int i = 0; i < rooms; i++) {
+            Room room = new Room();
+            room.setNumber(name + i);
+            room.setFloor(i % 4 + 1);
+            room.setBuilding(building);
+            room.setAssignedTo(staff[i % staff.length]);
+            room = roomRepository.save(room);
+            this.rooms.add(room);
+
+            Incident incident = new Incident();
+            incident.setRoom(room);
+            incident.setReportedBy(staff[i % staff.length]);
+            incident.setDescription("Incidencia " + i);
+            incidents.add(incidentRepository.save(incident));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package utex.edu.mx.server.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+import utex.edu.mx.server.dto.PropertyImportEvent;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.repository.BuildingRepository;
+import utex.edu.mx.server.repository.HotelRepository;
+import utex.edu.mx.server.repository.RoomRepository;
+import utex.edu.mx.server.service.PropertyImportService;
+import utex.edu.mx.server.service.RoomStatusBoard;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PropertyImportTests {
+
+    @Autowired private PropertyImportController importController;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private BuildingRepository buildingRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private RoomStatusBoard statusBoard;
+    @Autowired private JsonMapper jsonMapper;
+
+    @Test
+    void csvImportStreamsReportWithPerLineErrors() throws Exception {
+        String csv = "type,id,name,address,floors,number,floor,status\n"
+                + "hotel,,\"Resort Playa, Cancún\",Zona Hotelera,,,,\n"
+                + "building,,Torre Sol,,2,,,\n"
+                + "room,,,,,101,1,clean\n"
+                + "room,,,,,102,1,\n"
+                + "room,,,,,101,1,DIRTY\n"
+                + "room,,,,,201,x,DIRTY\n"
+                + "room,,,,,202,2,LIMPIA\n"
+                + "building,,Torre Luna,,,,,\n"
+                + "room,,,,,101,1,OCCUPIED\n";
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/import/property");
+        request.setContentType("text/csv");
+        request.setContent(csv.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        importController.importProperty(request, response);
+
+        assertEquals("application/x-ndjson", response.getContentType().split(";")[0]);
+        List<PropertyImportEvent> events = new ArrayList<>();
+        for (String line : response.getContentAsString(StandardCharsets.UTF_8).split("\n")) {
+            events.add(jsonMapper.readValue(line, PropertyImportEvent.class));
+        }
+        List<Long> errorLines = events.stream().filter(e -> "error".equals(e.type())).map(PropertyImportEvent::line).toList();
+        assertEquals(List.of(6L, 7L, 8L), errorLines);
+
+        PropertyImportEvent done = events.get(events.size() - 1);
+        assertEquals("done", done.type());
+        assertEquals(1L, done.hotels());
+        assertEquals(2L, done.buildings());
+        assertEquals(3L, done.rooms());
+        assertEquals(3L, done.errors());
+
+        Long hotelId = events.get(0).id();
+        assertEquals("Resort Playa, Cancún", hotelRepository.findById(hotelId).orElseThrow().getName());
+        List<Long> buildingIds = buildingRepository.findIdsByHotelId(hotelId);
+        assertEquals(2, buildingIds.size());
+        List<Room> rooms = roomRepository.findByBuildingId(buildingIds.get(0));
+        assertEquals(2, rooms.size());
+        assertTrue(rooms.stream().anyMatch(r -> r.getNumber().equals("101") && r.getStatus() == Room.RoomStatus.CLEAN));
+        assertTrue(rooms.stream().anyMatch(r -> r.getNumber().equals("102") && r.getStatus() == Room.RoomStatus.DIRTY));
+    }
+
+    @Test
+    void ndjsonImportInsertsInBatchesAndReportsProgress() throws Exception {
+        PropertyImportService service = new PropertyImportService(hotelRepository, buildingRepository,
+                jdbcTemplate, transactionTemplate, jsonMapper, statusBoard, 10);
+        StringBuilder ndjson = new StringBuilder("{\"type\":\"hotel\",\"name\":\"Hotel Lotes\"}\n");
+        ndjson.append("{\"type\":\"building\",\"name\":\"Anexo\",\"floors\":3}\n");
+        for (int i = 0; i < 25; i++) {
+            ndjson.append("{\"type\":\"room\",\"number\":\"").append(300 + i).append("\",\"floor\":3}\n");
+        }
+        ndjson.append("{\"type\":\"suite\"}\n");
+        ndjson.append("{no es json\n");
+
+        List<PropertyImportEvent> events = new ArrayList<>();
+        PropertyImportEvent done = service.importProperty(
+                new BufferedReader(new StringReader(ndjson.toString())), PropertyImportService.Format.NDJSON, events::add);
+
+        assertEquals(25L, done.rooms());
+        assertEquals(2L, done.errors());
+        List<Long> progress = events.stream().filter(e -> "progress".equals(e.type())).map(PropertyImportEvent::rooms).toList();
+        assertEquals(List.of(10L, 20L, 25L), progress);
+        Long buildingId = events.get(1).id();
+        assertEquals(25, roomRepository.findByBuildingId(buildingId).size());
+        assertEquals(25, statusBoard.summary(events.get(0).id()).rooms().get(Room.RoomStatus.DIRTY).intValue());
+    }
+}
@@ -0,0 +1,52 @@
+package utex.edu.mx.server.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica, con el plan de ejecución de H2 sobre el esquema de las migraciones, que las
+ * consultas frecuentes se resuelven con un índice y no recorriendo la tabla completa.
+ */
+@SpringBootTest
+class QueryIndexTests {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void frequentQueriesUseAnIndex() {
+        Map<String, String> queries = Map.of(
+                "roomsByBuildingAndStatus", "select id from rooms where building_id = 1 and status = 'DIRTY'",
+                "roomsByStatus", "select id from rooms where status = 'DIRTY'",
+                "roomsByMaid", "select id from rooms where assigned_to = 1",
+                "incidentsByStatus", "select id from incidents where status = 'OPEN' order by created_at",
+                "incidentsByRoom", "select id from incidents where room_id = 1",
+                "incidentsByReporter", "select id from incidents where reported_by = 1",
+                "usersByRole", "select id from users where role = 'MAID'",
+                "usersByHotel", "select id from users where hotel_id = 1",
+                "usersByActive", "select id from users where active = true");
+
+        queries.forEach((name, sql) -> assertFalse(plan(sql).contains("tablescan"), name + ": " + plan(sql)));
+    }
+
+    @Test
+    void compositeIndexesServeTheirQueries() {
+        assertTrue(plan("select id from rooms where building_id = 1 and status = 'DIRTY'")
+                .contains("idx_rooms_building_status"));
+        assertTrue(plan("select id from incidents where status = 'OPEN' and created_at >= timestamp '2025-01-01 00:00:00'")
+                .contains("idx_incidents_status_created_at"));
+        assertTrue(plan("select id from users where hotel_id = 1 and role = 'MAID'")
+                .contains("idx_users_hotel_role"));
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class).toLowerCase(Locale.ROOT);
+    }
+}
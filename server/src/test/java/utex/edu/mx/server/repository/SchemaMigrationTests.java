@@ -0,0 +1,45 @@
+package utex.edu.mx.server.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Una base creada antes de Flyway (con ddl-auto=update) se marca en V1 al arrancar y debe
+ * recibir todo lo que se agregó después; si algo de eso estuviera en V1 nunca lo tendría.
+ */
+class SchemaMigrationTests {
+
+    @Test
+    void databaseCreatedBeforeFlywayReceivesEveryLaterMigration() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:pre-flyway;DB_CLOSE_DELAY=-1;MODE=MySQL", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // El esquema de V1 sin historial de Flyway, con datos
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        jdbcTemplate.execute("drop table \"flyway_schema_history\"");
+        jdbcTemplate.update("insert into users (username, password, name, role, active) "
+                + "values ('anterior', 'x', 'Usuario anterior', 'MAID', true)");
+
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select token_version from users where username = 'anterior'", Integer.class));
+        for (String table : List.of("incident_photos", "sync_tombstones")) {
+            assertEquals(0, jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class), table);
+        }
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from information_schema.columns "
+                + "where lower(table_name) = 'incidents' and lower(column_name) = 'photo_refs'", Integer.class));
+        for (String index : List.of("idx_rooms_updated_at", "idx_incidents_updated_at", "idx_rooms_building_status")) {
+            assertEquals(1, jdbcTemplate.queryForObject("select count(*) from information_schema.indexes "
+                    + "where lower(index_name) = ?", Integer.class, index), index);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package utex.edu.mx.server.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import utex.edu.mx.server.config.ShardDirectory;
+import utex.edu.mx.server.config.ShardFanOut;
+import utex.edu.mx.server.controller.AuthController;
+import utex.edu.mx.server.dto.AuthRequest;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class PasswordHashingServiceTests {
+
+    @Autowired private AuthController authController;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PasswordHashingService hashingService;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private JwtService jwtService;
+    @Autowired private ShardFanOut shardFanOut;
+    @Autowired private ShardDirectory shardDirectory;
+    @Autowired private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Test
+    void fullQueueRejectsImmediately() {
+        PasswordHashingService service = new PasswordHashingService(new BCryptPasswordEncoder(10), 1, 1, 10);
+        try {
+            String hash = service.encode("secreto").join();
+            List<CompletableFuture<PasswordHashingService.VerifyResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(service.verify("secreto", hash));
+            }
+
+            // Un hilo ocupado y una tarea en cola: el resto se rechaza sin esperar
+            long rejected = futures.stream().filter(f -> {
+                try {
+                    assertTrue(f.join().matches());
+                    return false;
+                } catch (CompletionException e) {
+                    assertInstanceOf(RejectedExecutionException.class, e.getCause());
+                    return true;
+                }
+            }).count();
+            assertTrue(rejected >= 4);
+            assertEquals(rejected, service.metrics().rejected());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void loginRehashesPasswordsStoredWithAnotherCost() {
+        User user = new User();
+        user.setUsername("rehash-costo");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secreto"));
+        user.setName("Prueba Rehash");
+        user.setRole(User.Role.MAID);
+        user = userRepository.save(user);
+        assertTrue(hashingService.needsRehash(user.getPassword()));
+
+        AuthRequest request = new AuthRequest();
+        request.setUsername("rehash-costo");
+        request.setPassword("secreto");
+        assertEquals(200, authController.login(request).join().getStatusCode().value());
+
+        String stored = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertFalse(hashingService.needsRehash(stored));
+        assertTrue(new BCryptPasswordEncoder().matches("secreto", stored));
+
+        request.setPassword("incorrecto");
+        assertEquals(401, authController.login(request).join().getStatusCode().value());
+    }
+
+    @Test
+    void rehashIsSavedOutsideTheHashingPool() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("rehash-hilo");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secreto"));
+        user.setName("Prueba Hilo");
+        user.setRole(User.Role.MAID);
+        user.setActive(true);
+
+        // El UPDATE abre una transacción y toma una conexión: no debe ocupar un hilo de BCrypt
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findByUsername("rehash-hilo")).thenReturn(Optional.of(user));
+        AtomicReference<String> updateThread = new AtomicReference<>();
+        when(repository.updatePassword(anyLong(), anyString())).thenAnswer(invocation -> {
+            updateThread.set(Thread.currentThread().getName());
+            return 1;
+        });
+        AuthController controller = new AuthController(repository, passwordEncoder, jwtService,
+                hashingService, shardFanOut, shardDirectory, applicationTaskExecutor);
+
+        AuthRequest request = new AuthRequest();
+        request.setUsername("rehash-hilo");
+        request.setPassword("secreto");
+        assertEquals(200, controller.login(request).join().getStatusCode().value());
+
+        verify(repository).updatePassword(eq(1L), anyString());
+        assertFalse(updateThread.get().startsWith("password-hashing-"), updateThread.get());
+    }
+}
@@ -0,0 +1,119 @@
+package utex.edu.mx.server.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import utex.edu.mx.server.config.ShardDirectory;
+import utex.edu.mx.server.config.StompTopics;
+
+import java.security.Principal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StompAuthChannelInterceptorTests {
+
+    private static final String SECRET = "mySecretKeyForHotelManagementSystemThatIsVeryLongAndSecure12345";
+
+    private final JwtService jwtService = new JwtService(SECRET, 86_400_000L, 100);
+    private final UserStateCache userStateCache = mock(UserStateCache.class);
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private StompAuthChannelInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        when(userStateCache.isCurrent(any())).thenReturn(true);
+        interceptor = new StompAuthChannelInterceptor(jwtService, userStateCache, mock(ShardDirectory.class));
+    }
+
+    @Test
+    void connectRequiresAValidToken() {
+        assertThrows(AccessDeniedException.class, () -> connect(null));
+        assertThrows(AccessDeniedException.class, () -> connect("Bearer no-es-un-jwt"));
+
+        when(userStateCache.isCurrent(any())).thenReturn(false);
+        assertThrows(AccessDeniedException.class, () -> connect("Bearer " + token("MAID", 1L)));
+    }
+
+    @Test
+    void maidSubscribesOnlyToItsOwnHotelPartitions() {
+        Principal maid = connect("Bearer " + token("MAID", 1L));
+
+        subscribe(maid, StompTopics.notifications(1L));
+        subscribe(maid, StompTopics.floorRooms(1L, 3L, 2));
+        subscribe(maid, StompTopics.buildingRooms(1L, 3L));
+
+        assertThrows(AccessDeniedException.class, () -> subscribe(maid, StompTopics.rooms(2L)));
+        assertThrows(AccessDeniedException.class, () -> subscribe(maid, StompTopics.floorRooms(2L, 9L, 1)));
+        // Tópicos globales anteriores y comodines del broker
+        assertThrows(AccessDeniedException.class, () -> subscribe(maid, "/topic/rooms"));
+        assertThrows(AccessDeniedException.class, () -> subscribe(maid, "/topic/hotels/*/rooms"));
+        assertThrows(AccessDeniedException.class, () -> subscribe(maid, "/topic/hotels/**"));
+    }
+
+    @Test
+    void worklistIsTheOnlyUserDestinationAllowed() {
+        Principal maid = connect("Bearer " + token("MAID", 1L));
+        subscribe(maid, StompTopics.WORKLIST);
+
+        // La de otro usuario o el destino ya resuelto de otra sesión
+        assertThrows(AccessDeniedException.class, () -> subscribe(maid, StompTopics.worklist("otra-mucama")));
+        assertThrows(AccessDeniedException.class, () -> subscribe(maid, "/queue/worklist-user1a2b3c"));
+        assertThrows(AccessDeniedException.class, () -> subscribe(maid, "/user/queue/otra"));
+        assertThrows(AccessDeniedException.class, () -> subscribe(null, StompTopics.WORKLIST));
+    }
+
+    @Test
+    void adminMaySubscribeToAnyHotel() {
+        Principal admin = connect("Bearer " + token("ADMIN", 1L));
+        subscribe(admin, StompTopics.incidents(2L));
+        assertThrows(AccessDeniedException.class, () -> subscribe(admin, "/topic/hotels/2/**"));
+    }
+
+    @Test
+    void unauthenticatedSessionsCannotSubscribeAndNobodySendsToTheBroker() {
+        assertThrows(AccessDeniedException.class, () -> subscribe(null, StompTopics.rooms(1L)));
+
+        Principal maid = connect("Bearer " + token("MAID", 1L));
+        StompHeaderAccessor send = StompHeaderAccessor.create(StompCommand.SEND);
+        send.setDestination(StompTopics.rooms(1L));
+        send.setUser(maid);
+        send.setLeaveMutable(true);
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(MessageBuilder.createMessage(new byte[0], send.getMessageHeaders()), channel));
+    }
+
+    private String token(String role, Long hotelId) {
+        return jwtService.generateToken("usuario-" + role, Map.of("role", role, "userId", 5L, "hotelId", hotelId));
+    }
+
+    private Principal connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) {
+            accessor.setNativeHeader("Authorization", authorization);
+        }
+        accessor.setLeaveMutable(true);
+        Message<?> message = interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), channel);
+        Principal user = StompHeaderAccessor.wrap(message).getUser();
+        assertInstanceOf(UsernamePasswordAuthenticationToken.class, user);
+        return user;
+    }
+
+    private void subscribe(Principal user, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setUser(user);
+        accessor.setLeaveMutable(true);
+        interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), channel);
+    }
+}
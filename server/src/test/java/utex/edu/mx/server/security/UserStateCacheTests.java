@@ -0,0 +1,111 @@
+package utex.edu.mx.server.security;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import utex.edu.mx.server.controller.AuthController;
+import utex.edu.mx.server.controller.UserController;
+import utex.edu.mx.server.dto.AuthRequest;
+import utex.edu.mx.server.model.Hotel;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.HotelRepository;
+import utex.edu.mx.server.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class UserStateCacheTests {
+
+    @Autowired private AuthController authController;
+    @Autowired private UserController userController;
+    @Autowired private JwtService jwtService;
+    @Autowired private UserStateCache userStateCache;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private HotelRepository hotelRepository;
+
+    @Test
+    void tokensAreRevokedByDeactivationRoleAndHotelChangeWithoutPerRequestQueries() {
+        User user = new User();
+        user.setUsername("estado-cache");
+        user.setPassword("secreto");
+        user.setName("Prueba Estado");
+        user.setRole(User.Role.MAID);
+        User created = (User) userController.createUser(user).getBody();
+
+        JwtPrincipal first = login();
+        assertTrue(userStateCache.isCurrent(first));
+
+        // Con el estado en caché, verificar más peticiones no ejecuta SQL
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(userStateCache.isCurrent(first));
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // Desactivar invalida el token; reactivar no lo revive
+        userController.toggleUserStatus(created.getId(), false);
+        assertFalse(userStateCache.isCurrent(first));
+        userController.toggleUserStatus(created.getId(), true);
+        assertFalse(userStateCache.isCurrent(first));
+
+        JwtPrincipal second = login();
+        assertTrue(userStateCache.isCurrent(second));
+
+        // Cambio de rol: el token anterior deja de valer
+        User change = new User();
+        change.setRole(User.Role.RECEPTION);
+        userController.updateUser(created.getId(), change);
+        assertFalse(userStateCache.isCurrent(second));
+        JwtPrincipal third = login();
+        assertEquals("RECEPTION", third.role());
+
+        // Cambio de hotel: el claim hotelId anterior ya no decide shard ni tópicos
+        Hotel hotel = new Hotel();
+        hotel.setName("Hotel Sur");
+        hotel = hotelRepository.save(hotel);
+        User move = new User();
+        move.setHotel(hotel);
+        userController.updateUser(created.getId(), move);
+        assertFalse(userStateCache.isCurrent(third));
+        JwtPrincipal fourth = login();
+        assertEquals(hotel.getId(), fourth.hotelId());
+
+        // Reenviar el mismo hotel no revoca nada
+        userController.updateUser(created.getId(), move);
+        assertTrue(userStateCache.isCurrent(fourth));
+    }
+
+    @Test
+    void stateLoadedWhileBeingInvalidatedIsNotCached() {
+        UserRepository repository = mock(UserRepository.class);
+        UserStateCache cache = new UserStateCache(repository);
+        Object[] maid = {true, User.Role.MAID, 0};
+        Object[] reception = {true, User.Role.RECEPTION, 1};
+
+        // La consulta corre fuera del mapa: otra petición confirma un cambio de rol mientras tanto
+        when(repository.findAuthStateById(7L)).thenAnswer(invocation -> {
+            cache.invalidate(7L);
+            return List.<Object[]>of(maid);
+        }).thenReturn(List.<Object[]>of(reception));
+
+        assertEquals("MAID", cache.get(7L).role());
+        assertEquals("RECEPTION", cache.get(7L).role());
+        assertEquals("RECEPTION", cache.get(7L).role());
+        verify(repository, times(2)).findAuthStateById(7L);
+    }
+
+    private JwtPrincipal login() {
+        AuthRequest request = new AuthRequest();
+        request.setUsername("estado-cache");
+        request.setPassword("secreto");
+        String token = authController.login(request).join().getBody().getToken();
+        return jwtService.verify(token).orElseThrow();
+    }
+}
@@ -0,0 +1,126 @@
+package utex.edu.mx.server.service;
+
+import org.junit.jupiter.api.Test;
+import utex.edu.mx.server.service.MaidAssignmentService.RoomSlot;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Propiedades del reparto de {@link MaidAssignmentService#plan}, sobre hoteles aleatorios
+ * con semilla fija y algunos casos armados a mano.
+ */
+class MaidAssignmentPlanTests {
+
+    private static final Comparator<RoomSlot> LOCATION = Comparator
+            .comparing(RoomSlot::buildingId)
+            .thenComparingInt(RoomSlot::floor)
+            .thenComparing(RoomSlot::number)
+            .thenComparing(RoomSlot::roomId);
+
+    @Test
+    void segmentsAreBalancedContiguousAndCoverEveryRoomOnce() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 200; trial++) {
+            List<Long> maidIds = maids(1 + random.nextInt(12));
+            List<RoomSlot> slots = hotel(random, random.nextInt(150), maidIds);
+
+            Map<Long, List<Long>> plan = MaidAssignmentService.plan(slots, maidIds);
+
+            assertEquals(new HashSet<>(maidIds), plan.keySet());
+            IntSummaryStatistics sizes = plan.values().stream().mapToInt(List::size).summaryStatistics();
+            assertTrue(sizes.getMax() - sizes.getMin() <= 1, () -> "tamaños " + sizes);
+
+            List<Long> all = plan.values().stream().flatMap(List::stream).toList();
+            assertEquals(slots.size(), all.size());
+            assertEquals(slots.stream().map(RoomSlot::roomId).collect(HashSet::new, Set::add, Set::addAll),
+                    new HashSet<>(all));
+
+            // Cada mucama recibe un tramo consecutivo del recorrido, en ese mismo orden
+            List<Long> route = slots.stream().sorted(LOCATION).map(RoomSlot::roomId).toList();
+            for (List<Long> segment : plan.values()) {
+                if (!segment.isEmpty()) {
+                    int start = route.indexOf(segment.get(0));
+                    assertEquals(route.subList(start, start + segment.size()), segment);
+                }
+            }
+        }
+    }
+
+    @Test
+    void maidsKeepTheSegmentTheyAlreadyWork() {
+        // Tres mucamas que ya trabajan tramos consecutivos, en otro orden que sus ids
+        List<Long> maidIds = List.of(10L, 20L, 30L);
+        List<RoomSlot> slots = new ArrayList<>();
+        long[] owners = {30L, 30L, 30L, 10L, 10L, 10L, 20L, 20L, 20L};
+        for (int i = 0; i < owners.length; i++) {
+            slots.add(new RoomSlot((long) i + 1, 1L, 1 + i / 3, "10" + i, owners[i]));
+        }
+
+        Map<Long, List<Long>> plan = MaidAssignmentService.plan(slots, maidIds);
+        assertEquals(List.of(1L, 2L, 3L), plan.get(30L));
+        assertEquals(List.of(4L, 5L, 6L), plan.get(10L));
+        assertEquals(List.of(7L, 8L, 9L), plan.get(20L));
+
+        // Con una habitación nueva sin asignar, cada una conserva el tramo donde tenía más
+        slots.add(new RoomSlot(10L, 1L, 4, "130", null));
+        plan = MaidAssignmentService.plan(slots, maidIds);
+        assertEquals(List.of(1L, 2L, 3L, 4L), plan.get(30L));
+        assertEquals(List.of(5L, 6L, 7L), plan.get(10L));
+        assertEquals(List.of(8L, 9L, 10L), plan.get(20L));
+    }
+
+    @Test
+    void planningItsOwnResultChangesNothing() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 50; trial++) {
+            List<Long> maidIds = maids(1 + random.nextInt(8));
+            List<RoomSlot> slots = hotel(random, 1 + random.nextInt(100), maidIds);
+            Map<Long, List<Long>> first = MaidAssignmentService.plan(slots, maidIds);
+
+            Map<Long, Long> owner = new HashMap<>();
+            first.forEach((maidId, roomIds) -> roomIds.forEach(id -> owner.put(id, maidId)));
+            List<RoomSlot> assigned = slots.stream().map(s -> new RoomSlot(
+                    s.roomId(), s.buildingId(), s.floor(), s.number(), owner.get(s.roomId()))).toList();
+
+            assertEquals(first, MaidAssignmentService.plan(assigned, maidIds));
+        }
+    }
+
+    @Test
+    void roomsOfMaidsNoLongerActiveAreRedistributed() {
+        List<RoomSlot> slots = List.of(
+                new RoomSlot(1L, 1L, 1, "101", 99L),
+                new RoomSlot(2L, 1L, 1, "102", 99L),
+                new RoomSlot(3L, 1L, 2, "201", 5L));
+        Map<Long, List<Long>> plan = MaidAssignmentService.plan(slots, List.of(5L));
+        assertEquals(Map.of(5L, List.of(1L, 2L, 3L)), plan);
+    }
+
+    private static List<Long> maids(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(100L + i);
+        }
+        return ids;
+    }
+
+    /**
+     * Habitaciones en edificios y pisos al azar, con ids que no siguen la ubicación; la mitad
+     * ya asignadas a alguna de las mucamas o a una que ya no está.
+     */
+    private static List<RoomSlot> hotel(Random random, int rooms, List<Long> maidIds) {
+        List<RoomSlot> slots = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            int floor = 1 + random.nextInt(5);
+            Long current = null;
+            if (random.nextBoolean()) {
+                current = random.nextInt(10) == 0 ? 999L : maidIds.get(random.nextInt(maidIds.size()));
+            }
+            slots.add(new RoomSlot(1000L - i, 1L + random.nextInt(3), floor,
+                    String.format("%d%02d", floor, random.nextInt(100)), current));
+        }
+        return slots;
+    }
+}
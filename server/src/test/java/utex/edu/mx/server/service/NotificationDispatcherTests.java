@@ -0,0 +1,161 @@
+package utex.edu.mx.server.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import utex.edu.mx.server.config.StompTopics;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import utex.edu.mx.server.dto.WebSocketNotification;
+import utex.edu.mx.server.model.Room;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTests {
+
+    private static final String ROOMS = StompTopics.rooms(1L);
+    private static final String INCIDENTS = StompTopics.incidents(1L);
+    private static final String NOTIFICATIONS = StompTopics.notifications(1L);
+
+    private final SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final NotificationLog notificationLog = new NotificationLog(100);
+    private NotificationDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void burstForTheSameRoomGoesOutOnceWithTheChangesMerged() throws Exception {
+        dispatcher = new NotificationDispatcher(template, jsonMapper, notificationLog, 1, 100, 200);
+        dispatcher.publishRoom(WebSocketNotification.Type.ROOM_STATUS_CHANGED,
+                delta(7L, 1L, Room.RoomStatus.OCCUPIED, null, null), ROOMS, NOTIFICATIONS);
+        for (long v = 2; v <= 4; v++) {
+            dispatcher.publishRoom(WebSocketNotification.Type.ROOM_STATUS_CHANGED,
+                    delta(7L, v, Room.RoomStatus.CLEAN, null, null), ROOMS, NOTIFICATIONS);
+        }
+        dispatcher.publishRoom(WebSocketNotification.Type.ROOM_REASSIGNED,
+                delta(7L, 5L, null, 3L, null), ROOMS, NOTIFICATIONS);
+        dispatcher.publishRoom(WebSocketNotification.Type.ROOM_UPDATED,
+                delta(8L, 1L, Room.RoomStatus.DIRTY, null, null), ROOMS);
+
+        awaitPublished(2);
+        ArgumentCaptor<Message<?>> sent = messages(3);
+        Message<?> toRooms = sent.getAllValues().get(0);
+        Message<?> toNotifications = sent.getAllValues().get(1);
+        // Una sola serialización para los dos destinos
+        assertSame(toRooms.getPayload(), toNotifications.getPayload());
+
+        JsonNode event = json(toRooms);
+        assertEquals(WebSocketNotification.SCHEMA_VERSION, event.get("v").asInt());
+        assertEquals("ROOM_REASSIGNED", event.get("type").asString());
+        assertEquals(1, event.get("seq").asLong());
+        JsonNode body = event.get("body");
+        assertEquals(7, body.get("id").asLong());
+        assertEquals(5, body.get("version").asLong());
+        assertEquals("CLEAN", body.get("status").asString());
+        assertEquals(3, body.get("assignedToId").asLong());
+        assertFalse(body.has("number"));
+        assertFalse(body.has("unassigned"));
+
+        NotificationDispatcher.Metrics metrics = dispatcher.metrics();
+        assertEquals(4, metrics.coalesced());
+        assertEquals(0, metrics.pendingRooms());
+        assertTrue(metrics.maxDispatchMillis() >= 200);
+    }
+
+    @Test
+    void eventsWaitForCommitAndRollbackDiscardsThem() throws Exception {
+        dispatcher = new NotificationDispatcher(template, jsonMapper, notificationLog, 1, 100, 0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        dispatcher.publish(WebSocketNotification.Type.MANUAL_RESET, new WebSocketNotification.RoomsReset(1L, 4), INCIDENTS);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        Thread.sleep(100);
+        verifyNoInteractions(template);
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        awaitPublished(1);
+        JsonNode event = json(messages(1).getValue());
+        assertEquals("MANUAL_RESET", event.get("type").asString());
+        assertEquals(4, event.get("body").get("count").asInt());
+        assertEquals(1, notificationLog.since(1L, notificationLog.epoch(), 0L).events().size());
+
+        // Rollback: la sincronización nunca recibe afterCommit
+        TransactionSynchronizationManager.initSynchronization();
+        dispatcher.publish(WebSocketNotification.Type.MANUAL_RESET, new WebSocketNotification.RoomsReset(1L, 9), INCIDENTS);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        Thread.sleep(100);
+        verifyNoMoreInteractions(template);
+        assertEquals(1, dispatcher.metrics().published());
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlockingTheCaller() throws Exception {
+        dispatcher = new NotificationDispatcher(template, jsonMapper, notificationLog, 1, 1, 0);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(template).send(anyString(), any(Message.class));
+
+        dispatcher.publish(WebSocketNotification.Type.DAILY_RESET, new WebSocketNotification.RoomsReset(1L, 1), NOTIFICATIONS);
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        dispatcher.publish(WebSocketNotification.Type.DAILY_RESET, new WebSocketNotification.RoomsReset(1L, 2), NOTIFICATIONS);
+        dispatcher.publish(WebSocketNotification.Type.DAILY_RESET, new WebSocketNotification.RoomsReset(1L, 3), NOTIFICATIONS);
+
+        NotificationDispatcher.Metrics metrics = dispatcher.metrics();
+        assertEquals(1, metrics.queueDepth());
+        assertEquals(1, metrics.dropped());
+
+        release.countDown();
+        awaitPublished(2);
+        assertEquals(0, dispatcher.metrics().queueDepth());
+    }
+
+    private static WebSocketNotification.RoomDelta delta(Long id, Long version, Room.RoomStatus status,
+                                                         Long assignedToId, Boolean unassigned) {
+        return new WebSocketNotification.RoomDelta(id, version, null, null, status, assignedToId, unassigned);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<Message<?>> messages(int expected) {
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass((Class) Message.class);
+        verify(template, times(expected)).send(anyString(), captor.capture());
+        return captor;
+    }
+
+    private JsonNode json(Message<?> message) {
+        return jsonMapper.readTree((byte[]) message.getPayload());
+    }
+
+    private void awaitPublished(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.metrics().published() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, dispatcher.metrics().published());
+    }
+}
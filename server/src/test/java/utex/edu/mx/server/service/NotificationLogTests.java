@@ -0,0 +1,60 @@
+package utex.edu.mx.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationLogTests {
+
+    private final NotificationLog log = new NotificationLog(4);
+
+    @Test
+    void sequencesArePerHotelAndReplayReturnsOnlyTheMissedEvents() {
+        for (int i = 0; i < 3; i++) {
+            append(1L);
+        }
+        append(2L);
+
+        NotificationLog.Replay first = log.since(1L, null, null);
+        assertEquals(3, first.latestSeq());
+        assertFalse(first.resetRequired());
+        assertTrue(first.events().isEmpty());
+
+        NotificationLog.Replay replay = log.since(1L, log.epoch(), 1L);
+        assertFalse(replay.resetRequired());
+        assertEquals(List.of("1:2", "1:3"), decode(replay.events()));
+
+        assertTrue(log.since(1L, log.epoch(), 3L).events().isEmpty());
+        assertEquals(List.of("2:1"), decode(log.since(2L, log.epoch(), 0L).events()));
+    }
+
+    @Test
+    void gapOutsideTheBufferOrAnotherEpochRequiresAReload() {
+        for (int i = 0; i < 6; i++) {
+            append(1L);
+        }
+        // Capacidad 4: quedan los seq 3..6
+        assertEquals(List.of("1:3", "1:4", "1:5", "1:6"), decode(log.since(1L, log.epoch(), 2L).events()));
+
+        NotificationLog.Replay tooOld = log.since(1L, log.epoch(), 1L);
+        assertTrue(tooOld.resetRequired());
+        assertEquals(6, tooOld.latestSeq());
+        assertTrue(tooOld.events().isEmpty());
+
+        assertTrue(log.since(1L, "otro-epoch", 5L).resetRequired());
+        assertTrue(log.since(1L, log.epoch(), 9L).resetRequired());
+        assertTrue(log.since(3L, log.epoch(), 4L).resetRequired());
+        assertFalse(log.since(3L, log.epoch(), 0L).resetRequired());
+    }
+
+    private void append(Long hotelId) {
+        log.append(hotelId, seq -> (hotelId + ":" + seq).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> decode(List<byte[]> events) {
+        return events.stream().map(bytes -> new String(bytes, StandardCharsets.UTF_8)).toList();
+    }
+}
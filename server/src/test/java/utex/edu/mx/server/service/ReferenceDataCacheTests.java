@@ -0,0 +1,103 @@
+package utex.edu.mx.server.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import utex.edu.mx.server.controller.UserController;
+import utex.edu.mx.server.dto.UserImportRow;
+import utex.edu.mx.server.model.Hotel;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.HotelRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReferenceDataCacheTests {
+
+    @Autowired private UserController userController;
+    @Autowired private UserImportService importService;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private ReferenceDataCache referenceDataCache;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void hotelsAreReadOnceAndUpdatesAreVisible() {
+        Hotel hotel = new Hotel();
+        hotel.setName("Hotel Caché");
+        Long id = hotelRepository.save(hotel).getId();
+
+        hotelRepository.findById(id).orElseThrow();
+        statistics.clear();
+        assertEquals("Hotel Caché", hotelRepository.findById(id).orElseThrow().getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        Hotel renamed = hotelRepository.findById(id).orElseThrow();
+        renamed.setName("Hotel Renombrado");
+        hotelRepository.save(renamed);
+        assertEquals("Hotel Renombrado", hotelRepository.findById(id).orElseThrow().getName());
+
+        hotelRepository.deleteById(id);
+        assertTrue(hotelRepository.findById(id).isEmpty());
+    }
+
+    @Test
+    void roleLookupIsCachedAndInvalidatedByEveryWritePath() {
+        List<User> maids = userController.getUsersByRole("MAID");
+        statistics.clear();
+        assertEquals(maids.size(), userController.getUsersByRole("MAID").size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // Alta por JPA
+        User user = new User();
+        user.setUsername("cache-alta");
+        user.setPassword("secreto");
+        user.setName("Alta JPA");
+        user.setRole(User.Role.MAID);
+        User created = (User) userController.createUser(user).getBody();
+        assertTrue(containsUser(userController.getUsersByRole("MAID"), created.getId()));
+
+        // Alta masiva por JDBC
+        UserImportRow row = new UserImportRow();
+        row.setUsername("cache-masiva");
+        row.setPassword("secreto");
+        row.setName("Alta JDBC");
+        row.setRole("MAID");
+        Long importedId = importService.importUsers(List.of(row)).results().get(0).userId();
+        assertTrue(containsUser(userController.getUsersByRole("MAID"), importedId));
+
+        // Cambio de rol y borrado
+        User change = new User();
+        change.setRole(User.Role.RECEPTION);
+        userController.updateUser(created.getId(), change);
+        assertFalse(containsUser(userController.getUsersByRole("MAID"), created.getId()));
+        assertTrue(containsUser(userController.getUsersByRole("RECEPTION"), created.getId()));
+
+        userController.hardDeleteUser(importedId);
+        assertFalse(containsUser(userController.getUsersByRole("MAID"), importedId));
+    }
+
+    @Test
+    void metricsReportEachRegion() {
+        ReferenceDataCache.Metrics metrics = referenceDataCache.metrics();
+        assertTrue(metrics.statisticsEnabled());
+        assertEquals(List.of("hotels", "buildings", "users", "user-lookups"),
+                metrics.regions().stream().map(ReferenceDataCache.RegionMetrics::region).toList());
+    }
+
+    private boolean containsUser(List<User> users, Long id) {
+        return users.stream().anyMatch(u -> u.getId().equals(id));
+    }
+}
@@ -0,0 +1,178 @@
+package utex.edu.mx.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import utex.edu.mx.server.config.StompTopics;
+import utex.edu.mx.server.dto.RoomBatchRequest;
+import utex.edu.mx.server.dto.RoomBatchResult;
+import utex.edu.mx.server.dto.WebSocketNotification;
+import utex.edu.mx.server.model.Building;
+import utex.edu.mx.server.model.Hotel;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.BuildingRepository;
+import utex.edu.mx.server.repository.HotelRepository;
+import utex.edu.mx.server.repository.RoomRepository;
+import utex.edu.mx.server.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class RoomBatchServiceTests {
+
+    @Autowired private RoomBatchService batchService;
+    @Autowired private RoomStatusBoard statusBoard;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private BuildingRepository buildingRepository;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private UserRepository userRepository;
+
+    @MockitoBean private NotificationDispatcher notificationDispatcher;
+
+    private Room first;
+    private Room second;
+    private Room otherHotel;
+
+    @BeforeEach
+    void setUp() {
+        List<Room> dirty = roomRepository.findByStatus(Room.RoomStatus.DIRTY);
+        first = dirty.get(0);
+        second = dirty.get(1);
+        otherHotel = roomInNewHotel();
+        statusBoard.rebuild();
+    }
+
+    @Test
+    void oneInvalidChangeRollsBackTheWholeBatch() {
+        int clean = statusBoard.summary(null).rooms().get(Room.RoomStatus.CLEAN);
+
+        RoomBatchResult result = batchService.applyChanges(List.of(
+                change(first.getId(), Room.RoomStatus.CLEAN),
+                change(-1L, Room.RoomStatus.CLEAN),
+                change(second.getId(), Room.RoomStatus.CLEAN)));
+
+        assertEquals(0, result.applied());
+        assertEquals(3, result.failed());
+        assertEquals("Habitación no encontrada", result.results().get(1).error());
+        assertEquals(first.getId(), result.results().get(0).roomId());
+        assertEquals(Room.RoomStatus.DIRTY, roomRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals(Room.RoomStatus.DIRTY, roomRepository.findById(second.getId()).orElseThrow().getStatus());
+
+        assertEquals(clean, statusBoard.summary(null).rooms().get(Room.RoomStatus.CLEAN).intValue());
+        assertTrue(statusBoard.checkConsistency().consistent());
+        verifyNoInteractions(notificationDispatcher);
+    }
+
+    @Test
+    void validBatchSendsOneEventPerHotel() {
+        Long hotelId = buildingRepository.findHotelIdById(first.getBuilding().getId()).orElseThrow();
+        Long otherHotelId = otherHotel.getBuilding().getHotel().getId();
+
+        RoomBatchResult result = batchService.applyChanges(List.of(
+                change(first.getId(), Room.RoomStatus.CLEAN),
+                change(otherHotel.getId(), Room.RoomStatus.CLEAN),
+                change(second.getId(), Room.RoomStatus.OCCUPIED)));
+
+        assertEquals(3, result.applied());
+        assertEquals(Room.RoomStatus.OCCUPIED, roomRepository.findById(second.getId()).orElseThrow().getStatus());
+        assertTrue(statusBoard.checkConsistency().consistent());
+
+        verify(notificationDispatcher).publish(eq(WebSocketNotification.Type.ROOMS_BATCH_UPDATED), any(),
+                eq(StompTopics.rooms(hotelId)), eq(StompTopics.notifications(hotelId)));
+        verify(notificationDispatcher).publish(eq(WebSocketNotification.Type.ROOMS_BATCH_UPDATED), any(),
+                eq(StompTopics.rooms(otherHotelId)), eq(StompTopics.notifications(otherHotelId)));
+        verify(notificationDispatcher, times(2)).publish(eq(WebSocketNotification.Type.ROOMS_BATCH_UPDATED),
+                any(), any(String[].class));
+    }
+
+    @Test
+    void onlyActiveMaidsOfTheRoomsHotelCanBeAssigned() {
+        User admin = userRepository.findByRole(User.Role.ADMIN).get(0);
+        User inactive = maid("mucama-inactiva", first.getBuilding().getHotel().getId(), false);
+        User otherHotelMaid = maid("mucama-norte", otherHotel.getBuilding().getHotel().getId(), true);
+        User maid = userRepository.findByUsername("mucama1").orElseThrow();
+
+        assertRejected("El usuario no es mucama", assign(first.getId(), admin.getId()));
+        assertRejected("Mucama inactiva", assign(first.getId(), inactive.getId()));
+        assertRejected("La mucama es de otro hotel", assign(first.getId(), otherHotelMaid.getId()));
+        assertRejected("La mucama es de otro hotel", assign(otherHotel.getId(), maid.getId()));
+
+        RoomBatchResult result = batchService.applyChanges(List.of(
+                assign(first.getId(), maid.getId()), assign(otherHotel.getId(), otherHotelMaid.getId())));
+        assertEquals(2, result.applied());
+        assertEquals(maid.getId(), roomRepository.findById(first.getId()).orElseThrow().getAssignedTo().getId());
+    }
+
+    @Test
+    void repeatedRoomRejectsTheBatch() {
+        RoomBatchResult result = batchService.applyChanges(List.of(
+                change(first.getId(), Room.RoomStatus.CLEAN),
+                change(second.getId(), Room.RoomStatus.CLEAN),
+                change(first.getId(), Room.RoomStatus.OCCUPIED)));
+
+        assertEquals(0, result.applied());
+        assertEquals("Habitación repetida en el lote", result.results().get(2).error());
+        assertEquals(Room.RoomStatus.DIRTY, roomRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertTrue(statusBoard.checkConsistency().consistent());
+        verifyNoInteractions(notificationDispatcher);
+    }
+
+    private void assertRejected(String error, RoomBatchRequest.RoomChange change) {
+        Long before = assignee(change.getRoomId());
+        RoomBatchResult result = batchService.applyChanges(List.of(change(second.getId(), Room.RoomStatus.CLEAN), change));
+        assertEquals(0, result.applied());
+        assertEquals(error, result.results().get(1).error());
+        assertEquals(Room.RoomStatus.DIRTY, roomRepository.findById(second.getId()).orElseThrow().getStatus());
+        assertEquals(before, assignee(change.getRoomId()));
+        verifyNoInteractions(notificationDispatcher);
+    }
+
+    private Long assignee(Long roomId) {
+        User maid = roomRepository.findById(roomId).orElseThrow().getAssignedTo();
+        return maid != null ? maid.getId() : null;
+    }
+
+    private User maid(String username, Long hotelId, boolean active) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setName(username);
+        user.setRole(User.Role.MAID);
+        user.setActive(active);
+        user.setHotel(hotelRepository.findById(hotelId).orElseThrow());
+        return userRepository.save(user);
+    }
+
+    private static RoomBatchRequest.RoomChange assign(Long roomId, Long maidId) {
+        return new RoomBatchRequest.RoomChange(roomId, null, maidId, null);
+    }
+
+    private Room roomInNewHotel() {
+        Hotel hotel = new Hotel();
+        hotel.setName("Hotel Norte");
+        hotel = hotelRepository.save(hotel);
+        Building building = new Building();
+        building.setName("Torre Norte");
+        building.setFloors(1);
+        building.setHotel(hotel);
+        building = buildingRepository.save(building);
+        Room room = new Room();
+        room.setNumber("N-101");
+        room.setFloor(1);
+        room.setStatus(Room.RoomStatus.DIRTY);
+        room.setBuilding(building);
+        return roomRepository.save(room);
+    }
+
+    private static RoomBatchRequest.RoomChange change(Long roomId, Room.RoomStatus status) {
+        return new RoomBatchRequest.RoomChange(roomId, status, null, null);
+    }
+}
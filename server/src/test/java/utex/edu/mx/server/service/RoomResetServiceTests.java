@@ -0,0 +1,97 @@
+package utex.edu.mx.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import utex.edu.mx.server.model.Building;
+import utex.edu.mx.server.model.Hotel;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.BuildingRepository;
+import utex.edu.mx.server.repository.HotelRepository;
+import utex.edu.mx.server.repository.RoomRepository;
+import utex.edu.mx.server.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reinicio por rangos de id con bloques de 3: cada edificio necesita varios bloques y sus
+ * ids se intercalan con los del otro, así que el UPDATE debe filtrar por edificio y estado.
+ */
+@SpringBootTest(properties = "rooms.reset.chunk-size=3")
+class RoomResetServiceTests {
+
+    @Autowired private RoomResetService resetService;
+    @Autowired private RoomStatusBoard statusBoard;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private BuildingRepository buildingRepository;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private UserRepository userRepository;
+
+    @Test
+    void cleanRoomsOfEveryBuildingBecomeDirtyAcrossChunks() {
+        Hotel hotel = new Hotel();
+        hotel.setName("Hotel Reinicio");
+        hotel = hotelRepository.save(hotel);
+        Building east = building(hotel, "Torre Este");
+        Building west = building(hotel, "Torre Oeste");
+        User maid = userRepository.findByUsername("mucama1").orElseThrow();
+
+        List<Room> clean = new ArrayList<>();
+        List<Room> untouched = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            clean.add(room(east, "E" + i, Room.RoomStatus.CLEAN, null));
+            clean.add(room(west, "O" + i, Room.RoomStatus.CLEAN, maid));
+            if (i % 3 == 0) {
+                untouched.add(room(east, "E-OC" + i, Room.RoomStatus.OCCUPIED, maid));
+                untouched.add(room(west, "O-SU" + i, Room.RoomStatus.DIRTY, null));
+            }
+        }
+        int otherCleanRooms = roomRepository.findByStatus(Room.RoomStatus.CLEAN).size() - clean.size();
+        statusBoard.rebuild();
+
+        RoomResetService.ResetResult result = resetService.resetCleanRooms();
+
+        assertEquals(clean.size(), result.perHotel().get(hotel.getId()));
+        assertEquals(clean.size() + otherCleanRooms, result.total());
+        assertEquals(result.total(), result.perHotel().values().stream().mapToInt(Integer::intValue).sum());
+        assertTrue(roomRepository.findByStatus(Room.RoomStatus.CLEAN).isEmpty());
+
+        for (Room before : clean) {
+            Room after = roomRepository.findById(before.getId()).orElseThrow();
+            assertEquals(Room.RoomStatus.DIRTY, after.getStatus(), after.getNumber());
+            // La asignación de mucama se conserva
+            assertEquals(before.getAssignedTo() != null ? maid.getId() : null,
+                    after.getAssignedTo() != null ? after.getAssignedTo().getId() : null, after.getNumber());
+        }
+        for (Room before : untouched) {
+            assertEquals(before.getStatus(), roomRepository.findById(before.getId()).orElseThrow().getStatus(),
+                    before.getNumber());
+        }
+        assertTrue(statusBoard.checkConsistency().consistent());
+
+        // Sin habitaciones CLEAN un segundo reinicio no cambia nada
+        assertEquals(0, resetService.resetCleanRooms().total());
+    }
+
+    private Building building(Hotel hotel, String name) {
+        Building building = new Building();
+        building.setName(name);
+        building.setFloors(2);
+        building.setHotel(hotel);
+        return buildingRepository.save(building);
+    }
+
+    private Room room(Building building, String number, Room.RoomStatus status, User assignedTo) {
+        Room room = new Room();
+        room.setNumber(number);
+        room.setFloor(1);
+        room.setStatus(status);
+        room.setBuilding(building);
+        room.setAssignedTo(assignedTo);
+        return roomRepository.save(room);
+    }
+}
@@ -0,0 +1,88 @@
+package utex.edu.mx.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import utex.edu.mx.server.controller.IncidentController;
+import utex.edu.mx.server.controller.RoomController;
+import utex.edu.mx.server.dto.DashboardSummary;
+import utex.edu.mx.server.model.Incident;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.RoomRepository;
+import utex.edu.mx.server.repository.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class RoomStatusBoardTests {
+
+    @Autowired private RoomStatusBoard statusBoard;
+    @Autowired private RoomController roomController;
+    @Autowired private IncidentController incidentController;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        statusBoard.rebuild();
+    }
+
+    @Test
+    void writeThroughMutationsStayConsistentWithDatabase() {
+        List<Room> rooms = roomRepository.findAll();
+        User maid = userRepository.findByUsername("mucama1").orElseThrow();
+        Room first = rooms.get(0);
+        Room second = rooms.get(1);
+
+        roomController.updateRoomStatus(first.getId(), Room.RoomStatus.CLEAN);
+        roomController.updateRoomStatus(second.getId(), Room.RoomStatus.OCCUPIED);
+        roomController.reassignRoom(first.getId(), Map.of("maidId", maid.getId()));
+
+        Incident incident = new Incident();
+        incident.setRoom(second);
+        incident.setReportedBy(maid);
+        incident.setDescription("Fuga en el baño");
+        Incident created = incidentController.createIncident(incident).getBody();
+
+        assertConsistent();
+        DashboardSummary summary = statusBoard.summary(null);
+        int dbClean = roomRepository.findByStatus(Room.RoomStatus.CLEAN).size();
+        assertEquals(dbClean, summary.rooms().get(Room.RoomStatus.CLEAN).intValue());
+        assertTrue(summary.blockedRooms() >= 1);
+        assertTrue(summary.maids().stream().anyMatch(m -> m.maidId().equals(maid.getId()) && m.clean() >= 1));
+
+        incidentController.resolveIncident(created.getId(), "Reparado");
+        roomController.manualReset();
+
+        assertConsistent();
+        assertEquals(0, statusBoard.summary(null).rooms().get(Room.RoomStatus.CLEAN).intValue());
+    }
+
+    @Test
+    void rolledBackChangesNeverReachTheBoard() {
+        Room room = roomRepository.findByStatus(Room.RoomStatus.DIRTY).get(0);
+        int clean = statusBoard.summary(null).rooms().get(Room.RoomStatus.CLEAN);
+
+        // Sin número la fila no pasa el flush del commit y la transacción se revierte
+        Room invalid = new Room();
+        invalid.setFloor(room.getFloor());
+        invalid.setStatus(Room.RoomStatus.CLEAN);
+        assertThrows(RuntimeException.class, () -> roomController.updateRoom(room.getId(), invalid));
+
+        // La mucama no existe: la excepción sale después de leer la habitación
+        assertThrows(RuntimeException.class, () -> roomController.reassignRoom(room.getId(), Map.of("maidId", -1L)));
+
+        assertEquals(clean, statusBoard.summary(null).rooms().get(Room.RoomStatus.CLEAN).intValue());
+        assertConsistent();
+    }
+
+    private void assertConsistent() {
+        RoomStatusBoard.ConsistencyReport report = statusBoard.checkConsistency();
+        assertTrue(report.consistent(), () -> String.join("\n", report.mismatches()));
+    }
+}
@@ -0,0 +1,72 @@
+package utex.edu.mx.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import utex.edu.mx.server.controller.RoomController;
+import utex.edu.mx.server.dto.SyncChanges;
+import utex.edu.mx.server.model.Building;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.SyncTombstone;
+import utex.edu.mx.server.repository.BuildingRepository;
+import utex.edu.mx.server.repository.RoomRepository;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SyncServiceTests {
+
+    @Autowired private SyncService syncService;
+    @Autowired private RoomController roomController;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private BuildingRepository buildingRepository;
+
+    @Test
+    void pagesThroughSnapshotAndThenReturnsOnlyDeltas() throws InterruptedException {
+        // Copia completa en páginas pequeñas
+        Set<Long> seen = new HashSet<>();
+        String token = null;
+        SyncChanges page;
+        do {
+            page = syncService.changesSince(token, 4);
+            assertTrue(page.rooms().size() <= 4);
+            page.rooms().forEach(r -> assertTrue(seen.add(r.getId()), "habitación repetida " + r.getId()));
+            token = page.nextToken();
+        } while (page.hasMore());
+        assertEquals(roomRepository.count(), seen.size());
+
+        // Sin cambios: página vacía
+        Thread.sleep(5);
+        SyncChanges empty = syncService.changesSince(token, 4);
+        assertTrue(empty.rooms().isEmpty());
+        assertTrue(empty.deleted().isEmpty());
+        assertFalse(empty.hasMore());
+
+        // Un cambio y una eliminación
+        Room changed = roomRepository.findAll().get(0);
+        roomController.updateRoomStatus(changed.getId(), Room.RoomStatus.OCCUPIED);
+
+        Building building = buildingRepository.findAll().get(0);
+        Room temp = new Room();
+        temp.setNumber("999");
+        temp.setFloor(9);
+        temp.setBuilding(building);
+        temp = roomRepository.save(temp);
+        roomController.deleteRoom(temp.getId());
+
+        SyncChanges delta = syncService.changesSince(empty.nextToken(), 50);
+        assertFalse(delta.resetRequired());
+        assertTrue(delta.rooms().stream().anyMatch(r -> r.getId().equals(changed.getId())
+                && r.getStatus() == Room.RoomStatus.OCCUPIED));
+        assertTrue(delta.rooms().size() < seen.size());
+        assertTrue(delta.deleted().contains(new SyncChanges.Deletion(SyncTombstone.EntityType.ROOM, temp.getId())));
+    }
+
+    @Test
+    void rejectsMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> syncService.changesSince("no-es-un-token", null));
+    }
+}
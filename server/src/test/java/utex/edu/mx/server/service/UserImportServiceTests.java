@@ -0,0 +1,81 @@
+package utex.edu.mx.server.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import utex.edu.mx.server.dto.UserImportResult;
+import utex.edu.mx.server.dto.UserImportRow;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.HotelRepository;
+import utex.edu.mx.server.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserImportServiceTests {
+
+    @Autowired private UserImportService importService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void csvImportReportsEachRowAndValidatesWithOneQuery() {
+        Long hotelId = hotelRepository.findAll().get(0).getId();
+        String csv = "username,password,name,email,role,hotelId\n"
+                + "alta-1,secreto,\"Pérez, Ana\",ana@hotel.mx,maid," + hotelId + "\n"
+                + "alta-2,secreto,Luis,,RECEPTION,\n"
+                + "admin,secreto,Duplicado,,ADMIN,\n"
+                + "alta-1,secreto,Repetido,,MAID,\n"
+                + "alta-3,abc,Corto,,MAID,\n"
+                + "alta-4,secreto,Sin rol,,JEFE,\n"
+                + "alta-5,secreto,Hotel falso,,MAID,999999\n";
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        UserImportResult result = importService.importUsers(importService.parseCsv(csv));
+        // Usernames y hoteles: una consulta cada uno, sin importar el tamaño del lote
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        assertEquals(2, result.created());
+        assertEquals(5, result.failed());
+        List<UserImportResult.Item> items = result.results();
+        assertTrue(items.get(0).success());
+        assertTrue(items.get(1).success());
+        assertEquals("Username ya existe", items.get(2).error());
+        assertEquals("Username repetido en el lote", items.get(3).error());
+        assertEquals("Password debe tener al menos 4 caracteres", items.get(4).error());
+        assertTrue(items.get(5).error().startsWith("Rol inválido"));
+        assertEquals("Hotel no encontrado", items.get(6).error());
+
+        User ana = userRepository.findById(items.get(0).userId()).orElseThrow();
+        assertEquals("Pérez, Ana", ana.getName());
+        assertEquals(User.Role.MAID, ana.getRole());
+        assertEquals(hotelId, ana.getHotel().getId());
+        assertTrue(passwordEncoder.matches("secreto", ana.getPassword()));
+    }
+
+    @Test
+    void largeBatchInsertsEveryRowInOrder() {
+        List<UserImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            rows.add(new UserImportRow("lote-" + i, "secreto-" + i, "Mucama " + i, null, "MAID", null));
+        }
+        UserImportResult result = importService.importUsers(rows);
+
+        assertEquals(120, result.created());
+        for (int i = 0; i < 120; i++) {
+            UserImportResult.Item item = result.results().get(i);
+            assertEquals(i + 1, item.row());
+            assertEquals("lote-" + i, userRepository.findById(item.userId()).orElseThrow().getUsername());
+        }
+    }
+}
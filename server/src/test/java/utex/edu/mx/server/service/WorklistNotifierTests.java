@@ -0,0 +1,106 @@
+package utex.edu.mx.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import utex.edu.mx.server.config.StompTopics;
+import utex.edu.mx.server.dto.WebSocketNotification;
+import utex.edu.mx.server.model.Building;
+import utex.edu.mx.server.model.Room;
+import utex.edu.mx.server.model.User;
+import utex.edu.mx.server.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WorklistNotifierTests {
+
+    private final NotificationDispatcher dispatcher = mock(NotificationDispatcher.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final WorklistNotifier notifier = new WorklistNotifier(dispatcher, userRepository);
+
+    @Test
+    void reassignmentGoesOnlyToThePreviousAndTheNewMaid() {
+        User ana = maid(1L, "ana");
+        User beto = maid(2L, "beto");
+        Room room = room(ana);
+
+        room.setAssignedTo(beto);
+        notifier.assignmentChanged(ana, room);
+
+        WebSocketNotification.WorklistItem removed = single("ana");
+        assertEquals(room.getId(), removed.id());
+        assertEquals(Boolean.TRUE, removed.removed());
+        assertNull(removed.number());
+
+        // La nueva mucama recibe todo lo necesario para mostrarla sin pedirla
+        WebSocketNotification.WorklistItem added = single("beto");
+        assertEquals("101", added.number());
+        assertEquals(1, added.floor());
+        assertEquals(Room.RoomStatus.DIRTY, added.status());
+        assertEquals(7L, added.buildingId());
+        assertEquals("Torre A", added.buildingName());
+        assertNull(added.removed());
+        verifyNoMoreInteractions(dispatcher);
+    }
+
+    @Test
+    void statusChangeGoesToTheAssignedMaidOnly() {
+        Room room = room(maid(1L, "ana"));
+        room.setStatus(Room.RoomStatus.CLEAN);
+        notifier.statusChanged(room);
+
+        WebSocketNotification.WorklistItem item = single("ana");
+        assertEquals(Room.RoomStatus.CLEAN, item.status());
+        assertNull(item.number());
+
+        room.setAssignedTo(null);
+        notifier.statusChanged(room);
+        verifyNoMoreInteractions(dispatcher);
+    }
+
+    @Test
+    void maidWithOnlyAnIdIsLookedUp() {
+        User fromBody = new User();
+        fromBody.setId(2L);
+        when(userRepository.findById(2L)).thenReturn(Optional.of(maid(2L, "beto")));
+
+        notifier.assignmentChanged(null, room(fromBody));
+        assertEquals("101", single("beto").number());
+    }
+
+    private WebSocketNotification.WorklistItem single(String username) {
+        ArgumentCaptor<WebSocketNotification.Body> body = ArgumentCaptor.forClass(WebSocketNotification.Body.class);
+        verify(dispatcher).publish(eq(WebSocketNotification.Type.WORKLIST_UPDATED), body.capture(),
+                eq(StompTopics.worklist(username)));
+        List<WebSocketNotification.WorklistItem> items = ((WebSocketNotification.Worklist) body.getValue()).items();
+        assertEquals(1, items.size());
+        return items.get(0);
+    }
+
+    private static User maid(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRole(User.Role.MAID);
+        return user;
+    }
+
+    private static Room room(User assignedTo) {
+        Building building = new Building();
+        building.setId(7L);
+        building.setName("Torre A");
+        Room room = new Room();
+        room.setId(11L);
+        room.setNumber("101");
+        room.setFloor(1);
+        room.setBuilding(building);
+        room.setAssignedTo(assignedTo);
+        room.setUpdatedAt(LocalDateTime.now());
+        return room;
+    }
+}